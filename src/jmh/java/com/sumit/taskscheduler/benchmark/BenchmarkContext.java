@@ -0,0 +1,30 @@
+package com.sumit.taskscheduler.benchmark;
+
+import com.sumit.taskscheduler.DistributedTaskSchedulerApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Starts the application against the embedded test database for benchmarks.
+ * The web server and the background poller are disabled; benchmarks drive the cycle themselves.
+ */
+public final class BenchmarkContext {
+
+    private BenchmarkContext() {
+    }
+
+    public static ConfigurableApplicationContext start(String... properties) {
+        return new SpringApplicationBuilder(DistributedTaskSchedulerApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=WARN",
+                        "logging.level.com.sumit.taskscheduler=WARN",
+                        "scheduler.poll-initial-delay-ms=" + Long.MAX_VALUE / 2)
+                .properties(properties)
+                .initializers(context -> context.getBeanFactory()
+                        .registerSingleton("noOpTaskHandler", new NoOpTaskHandler()))
+                .run();
+    }
+}
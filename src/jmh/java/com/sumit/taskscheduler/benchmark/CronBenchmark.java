@@ -0,0 +1,62 @@
+package com.sumit.taskscheduler.benchmark;
+
+import com.sumit.taskscheduler.util.CronExpressionUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.quartz.CronExpression;
+
+import java.text.ParseException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Next fire time computation: the cached, compiled path used by the scheduler
+ * against parsing with Quartz on every call (the original behaviour).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CronBenchmark {
+
+    @Param({"0 */5 * * * ?", "0 0 9 ? * MON-FRI", "0 30 2 1 * ?", "0 0 12 L * ?"})
+    public String cronExpression;
+
+    private LocalDateTime from;
+    private CronExpression quartzExpression;
+
+    @Setup
+    public void setUp() throws ParseException {
+        from = LocalDateTime.of(2025, 3, 14, 15, 9, 26);
+        quartzExpression = new CronExpression(cronExpression);
+    }
+
+    @Benchmark
+    public LocalDateTime cachedNextExecutionTime() {
+        return CronExpressionUtil.getNextExecutionTime(cronExpression, from);
+    }
+
+    @Benchmark
+    public Date quartzParseAndEvaluate() throws ParseException {
+        return new CronExpression(cronExpression)
+                .getNextValidTimeAfter(Date.from(from.atZone(ZoneId.systemDefault()).toInstant()));
+    }
+
+    @Benchmark
+    public Date quartzEvaluateOnly() {
+        return quartzExpression.getNextValidTimeAfter(Date.from(from.atZone(ZoneId.systemDefault()).toInstant()));
+    }
+}
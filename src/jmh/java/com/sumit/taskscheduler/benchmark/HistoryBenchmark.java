@@ -0,0 +1,107 @@
+package com.sumit.taskscheduler.benchmark;
+
+import com.sumit.taskscheduler.entity.TaskExecutionHistory;
+import com.sumit.taskscheduler.history.ExecutionHistoryWriter;
+import com.sumit.taskscheduler.repository.TaskExecutionHistoryRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Construction and persistence of execution history rows on the embedded database:
+ * the batched write-behind path against one JPA save per start and completion.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HistoryBenchmark {
+
+    private static final int EXECUTIONS = 200;
+
+    private ConfigurableApplicationContext context;
+    private ExecutionHistoryWriter historyWriter;
+    private TaskExecutionHistoryRepository historyRepository;
+    private JdbcTemplate jdbcTemplate;
+
+    @Setup(Level.Trial)
+    public void startContext() {
+        context = BenchmarkContext.start();
+        historyWriter = context.getBean(ExecutionHistoryWriter.class);
+        historyRepository = context.getBean(TaskExecutionHistoryRepository.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+    }
+
+    @TearDown(Level.Iteration)
+    public void truncateHistory() {
+        historyWriter.flush();
+        jdbcTemplate.execute("TRUNCATE TABLE task_execution_history");
+    }
+
+    @TearDown(Level.Trial)
+    public void stopContext() {
+        context.close();
+    }
+
+    @Benchmark
+    public TaskExecutionHistory buildRecord() {
+        return newExecution(1L);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EXECUTIONS)
+    public void writeBehind() {
+        for (int i = 0; i < EXECUTIONS; i++) {
+            TaskExecutionHistory history = newExecution(i);
+            historyWriter.recordStart(history);
+            complete(history);
+            historyWriter.recordCompletion(history);
+        }
+        // Count the database writes, not just the enqueue
+        historyWriter.flush();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EXECUTIONS)
+    public void jpaSavePerWrite() {
+        for (int i = 0; i < EXECUTIONS; i++) {
+            TaskExecutionHistory history = historyRepository.save(newExecution(i));
+            complete(history);
+            historyRepository.save(history);
+        }
+    }
+
+    private static TaskExecutionHistory newExecution(long taskId) {
+        LocalDateTime now = LocalDateTime.now();
+        return TaskExecutionHistory.builder()
+                .executionId(UUID.randomUUID().toString())
+                .taskId(taskId)
+                .executionTime(now)
+                .status("RUNNING")
+                .createdAt(now)
+                .build();
+    }
+
+    private static void complete(TaskExecutionHistory history) {
+        history.setStatus("SUCCESS");
+        history.setExecutionDurationMs(1L);
+    }
+}
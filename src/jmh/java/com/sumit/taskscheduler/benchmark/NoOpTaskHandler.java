@@ -0,0 +1,21 @@
+package com.sumit.taskscheduler.benchmark;
+
+import com.sumit.taskscheduler.entity.Task;
+import com.sumit.taskscheduler.handler.TaskHandler;
+
+/**
+ * Handler that does no work, so benchmarks measure only the scheduler around it
+ */
+public class NoOpTaskHandler implements TaskHandler {
+
+    public static final String TASK_TYPE = "NOOP";
+
+    @Override
+    public void execute(Task task) {
+    }
+
+    @Override
+    public String getTaskType() {
+        return TASK_TYPE;
+    }
+}
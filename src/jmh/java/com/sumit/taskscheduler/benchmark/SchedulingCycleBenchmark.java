@@ -0,0 +1,109 @@
+package com.sumit.taskscheduler.benchmark;
+
+import com.sumit.taskscheduler.cluster.TaskClaimService;
+import com.sumit.taskscheduler.entity.Task;
+import com.sumit.taskscheduler.executor.TaskExecutionEngine;
+import com.sumit.taskscheduler.history.ExecutionHistoryWriter;
+import com.sumit.taskscheduler.repository.TaskRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One full scheduling cycle with no-op handlers: claim every due task, dispatch it through the
+ * execution engine, update its state and write its history. Reported per cycle of {@code taskCount} tasks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class SchedulingCycleBenchmark {
+
+    private static final String NODE_ID = "benchmark-node";
+
+    @Param({"100", "1000"})
+    public int taskCount;
+
+    @Param({"platform", "virtual"})
+    public String executorMode;
+
+    private ConfigurableApplicationContext context;
+    private TaskClaimService taskClaimService;
+    private TaskExecutionEngine executionEngine;
+    private ExecutionHistoryWriter historyWriter;
+    private JdbcTemplate jdbcTemplate;
+    private int claimBatchSize;
+
+    @Setup(Level.Trial)
+    public void startContext() {
+        context = BenchmarkContext.start("scheduler.executor.mode=" + executorMode);
+        taskClaimService = context.getBean(TaskClaimService.class);
+        executionEngine = context.getBean(TaskExecutionEngine.class);
+        historyWriter = context.getBean(ExecutionHistoryWriter.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        claimBatchSize = context.getEnvironment().getProperty("scheduler.cluster.claim-batch-size", Integer.class, 100);
+
+        List<Task> tasks = new ArrayList<>(taskCount);
+        for (int i = 0; i < taskCount; i++) {
+            Task task = new Task();
+            task.setName("benchmark-" + i);
+            task.setCronExpression("0 0 * * * ?");
+            task.setTaskType(NoOpTaskHandler.TASK_TYPE);
+            task.setNextExecutionTime(LocalDateTime.now());
+            tasks.add(task);
+        }
+        context.getBean(TaskRepository.class).saveAll(tasks);
+    }
+
+    @Setup(Level.Invocation)
+    public void makeTasksDue() {
+        jdbcTemplate.update("UPDATE tasks SET next_execution_time = ?, owner_node = NULL, lease_expires_at = NULL",
+                LocalDateTime.now().minusSeconds(1));
+    }
+
+    @TearDown(Level.Iteration)
+    public void truncateHistory() {
+        jdbcTemplate.execute("TRUNCATE TABLE task_execution_history");
+    }
+
+    @TearDown(Level.Trial)
+    public void stopContext() {
+        context.close();
+    }
+
+    @Benchmark
+    public int claimDispatchRecord() {
+        List<CompletableFuture<Void>> futures = new ArrayList<>(taskCount);
+        List<Task> batch;
+        do {
+            batch = taskClaimService.claimDueTasks(NODE_ID, claimBatchSize);
+            for (Task task : batch) {
+                futures.add(executionEngine.executeAsync(task));
+            }
+        } while (batch.size() == claimBatchSize);
+
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        historyWriter.flush();
+        return futures.size();
+    }
+}
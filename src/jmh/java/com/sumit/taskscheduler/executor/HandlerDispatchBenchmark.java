@@ -0,0 +1,99 @@
+package com.sumit.taskscheduler.executor;
+
+import com.sumit.taskscheduler.benchmark.NoOpTaskHandler;
+import com.sumit.taskscheduler.config.SchedulerProperties;
+import com.sumit.taskscheduler.entity.Task;
+import com.sumit.taskscheduler.entity.TaskPriority;
+import com.sumit.taskscheduler.handler.CleanupTaskHandler;
+import com.sumit.taskscheduler.handler.DefaultTaskHandler;
+import com.sumit.taskscheduler.handler.EmailTaskHandler;
+import com.sumit.taskscheduler.handler.HealthCheckTaskHandler;
+import com.sumit.taskscheduler.handler.ReportTaskHandler;
+import com.sumit.taskscheduler.handler.TaskHandler;
+import com.sumit.taskscheduler.metrics.SchedulerMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Handler lookup in {@link TaskExecutionEngine} and the priority dispatch queue in front of the workers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HandlerDispatchBenchmark {
+
+    private static final int DISPATCH_BATCH = 1_000;
+
+    @Param({"EMAIL", "HEALTH_CHECK", "UNKNOWN"})
+    public String taskType;
+
+    @Param({"STRICT", "WEIGHTED"})
+    public String dispatchPolicy;
+
+    private TaskExecutionEngine engine;
+    private Task task;
+    private Task[] batch;
+    private TaskPriority[] priorities;
+    private PriorityDispatchQueue<Task> dispatchQueue;
+
+    @Setup
+    public void setUp() {
+        // Registration order of the application context; unknown types fall back to DefaultTaskHandler
+        List<TaskHandler> handlers = List.of(new NoOpTaskHandler(), new CleanupTaskHandler(),
+                new DefaultTaskHandler(), new EmailTaskHandler(), new HealthCheckTaskHandler(),
+                new ReportTaskHandler());
+        // Lookup touches only the handlers, so the engine is not started
+        SchedulerProperties properties = new SchedulerProperties();
+        engine = new TaskExecutionEngine(null, null, null,
+                new SchedulerMetrics(new SimpleMeterRegistry(), properties), null, null, null, null, handlers, properties);
+
+        task = new Task();
+        task.setName("benchmark");
+        task.setTaskType(taskType);
+
+        SchedulerProperties.Dispatch dispatch = new SchedulerProperties().getDispatch();
+        dispatchQueue = new PriorityDispatchQueue<>(PriorityDispatchQueue.Policy.valueOf(dispatchPolicy),
+                dispatch.getWeights(), dispatch.getAgingMs());
+        TaskPriority[] values = TaskPriority.values();
+        batch = new Task[DISPATCH_BATCH];
+        priorities = new TaskPriority[DISPATCH_BATCH];
+        for (int i = 0; i < DISPATCH_BATCH; i++) {
+            batch[i] = task;
+            priorities[i] = values[i % values.length];
+        }
+    }
+
+    @Benchmark
+    public TaskHandler findHandler() {
+        return engine.findHandler(task);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DISPATCH_BATCH)
+    public void offerAndDispatch(Blackhole blackhole) {
+        for (int i = 0; i < DISPATCH_BATCH; i++) {
+            dispatchQueue.offer(batch[i], priorities[i]);
+        }
+        for (int i = 0; i < DISPATCH_BATCH; i++) {
+            blackhole.consume(dispatchQueue.poll());
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.sumit.taskscheduler.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sumit.taskscheduler.config.SchedulerProperties;
+import com.sumit.taskscheduler.dto.TaskResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache of task details for the REST API, so polled task pages do not
+ * compete with the scheduler for database connections.
+ *
+ * Entries are dropped by every write on this node: API edits, claims and post-execution updates.
+ * Writes made by other nodes are only seen once an entry expires, so the TTL bounds how stale
+ * a read can be. Hits, misses and evictions are published as the cache.* meters with cache=tasks.
+ */
+@Component
+public class TaskCache {
+
+    public static final String NAME = "tasks";
+
+    private final Cache<Long, TaskResponse> cache;
+
+    public TaskCache(SchedulerProperties properties, MeterRegistry registry) {
+        SchedulerProperties.Cache cacheProperties = properties.getCache();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(cacheProperties.getMaxSize())
+                .expireAfterWrite(Duration.ofMillis(cacheProperties.getTtlMs()))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, cache, NAME);
+    }
+
+    /**
+     * Return the cached task, loading it on a miss. A loader that throws caches nothing.
+     */
+    public TaskResponse get(Long taskId, Function<Long, TaskResponse> loader) {
+        return cache.get(taskId, loader);
+    }
+
+    /**
+     * Drop the task now and, inside a transaction, again after commit, so a read that races
+     * the transaction cannot cache the row as it was before the write
+     */
+    public void invalidate(Long taskId) {
+        cache.invalidate(taskId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidate(taskId);
+                }
+            });
+        }
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+}
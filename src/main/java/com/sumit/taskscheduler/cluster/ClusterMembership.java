@@ -0,0 +1,162 @@
+package com.sumit.taskscheduler.cluster;
+
+import com.sumit.taskscheduler.config.SchedulerProperties;
+import com.sumit.taskscheduler.entity.ClusterNode;
+import com.sumit.taskscheduler.repository.ClusterNodeRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Heartbeat membership of the nodes sharing the task table, and the shard this node owns.
+ *
+ * Every heartbeat renews this node's row in cluster_nodes and re-reads the nodes heard from
+ * within node-timeout-ms; when that set changes the {@link ShardRing} is rebuilt and the shards
+ * rebalance. Nodes only agree on the ring after they have all seen the same heartbeats, so for up
+ * to one heartbeat interval a slot can have two owners or none: two owners are still kept apart by
+ * row leases and SKIP LOCKED, and an unowned slot is only polled a little late.
+ *
+ * A node that cannot renew its heartbeat for node-timeout-ms gives up its shard, since the other
+ * nodes will have taken it over by then. Heartbeats run on a thread of their own, so slow scheduled
+ * jobs on this node cannot delay them past that timeout.
+ */
+@Component
+@Slf4j
+public class ClusterMembership {
+
+    private final String nodeId;
+    private final ClusterNodeRepository nodeRepository;
+    private final SchedulerProperties.Cluster properties;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final LocalDateTime startedAt = LocalDateTime.now();
+
+    private volatile ShardRing ring = new ShardRing(List.of(), 0);
+    private volatile Set<Integer> ownedSlots = Set.of();
+    // System.currentTimeMillis() of the last heartbeat that reached the database
+    private volatile long lastHeartbeatAt = 0;
+
+    private ScheduledExecutorService heartbeatThread;
+
+    public ClusterMembership(NodeIdentity nodeIdentity, ClusterNodeRepository nodeRepository,
+                             SchedulerProperties properties, TransactionTemplate transactionTemplate,
+                             ApplicationEventPublisher eventPublisher) {
+        this.nodeId = nodeIdentity.getNodeId();
+        this.nodeRepository = nodeRepository;
+        this.properties = properties.getCluster();
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+    }
+
+    public boolean isEnabled() {
+        return properties.isShardingEnabled();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void join() {
+        if (!isEnabled()) {
+            return;
+        }
+        heartbeat();
+        heartbeatThread = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ClusterHeartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMs = properties.getHeartbeatIntervalMs();
+        // An exception escaping a run would cancel all later heartbeats
+        heartbeatThread.scheduleWithFixedDelay(() -> {
+            try {
+                heartbeat();
+            } catch (Exception e) {
+                log.error("❌ Heartbeat of node {} failed: {}", nodeId, e.getMessage(), e);
+            }
+        }, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Renew this node's heartbeat and rebuild the ring if the live nodes changed
+     */
+    public void heartbeat() {
+        long startMillis = System.currentTimeMillis();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime cutoff = now.minusNanos(properties.getNodeTimeoutMs() * 1_000_000L);
+        List<String> liveNodes;
+        try {
+            liveNodes = transactionTemplate.execute(status -> {
+                if (nodeRepository.touch(nodeId, now) == 0) {
+                    nodeRepository.save(new ClusterNode(nodeId, startedAt, now));
+                    log.info("🤝 Node {} joined the cluster", nodeId);
+                }
+                nodeRepository.deleteDeadNodes(cutoff);
+                return nodeRepository.findLiveNodeIds(cutoff);
+            });
+        } catch (Exception e) {
+            log.error("❌ Heartbeat of node {} failed: {}", nodeId, e.getMessage());
+            return;
+        }
+        lastHeartbeatAt = startMillis;
+
+        Set<String> live = new HashSet<>(liveNodes);
+        live.add(nodeId);
+        if (!ring.sameNodes(live)) {
+            ShardRing updated = new ShardRing(live, properties.getVirtualNodes());
+            List<Integer> slots = updated.slotsOf(nodeId);
+            ring = updated;
+            ownedSlots = Set.copyOf(slots);
+            log.info("🔄 Shards rebalanced across {} node(s) {}: node {} owns {} of {} slots",
+                    live.size(), updated.getNodeIds(), nodeId, slots.size(), ShardRing.SLOT_COUNT);
+            eventPublisher.publishEvent(new ShardRingChangedEvent(updated.getNodeIds(), slots));
+        }
+    }
+
+    /**
+     * Slots this node should poll; empty until the first heartbeat and while heartbeats are failing
+     */
+    public Set<Integer> getOwnedSlots() {
+        if (System.currentTimeMillis() - lastHeartbeatAt > properties.getNodeTimeoutMs()) {
+            return Set.of();
+        }
+        return ownedSlots;
+    }
+
+    public boolean owns(long taskId) {
+        return getOwnedSlots().contains(ShardRing.slotOf(taskId));
+    }
+
+    public List<String> getLiveNodeIds() {
+        return ring.getNodeIds();
+    }
+
+    /**
+     * Deregister so the other nodes take the shard over at their next heartbeat instead of after the timeout
+     */
+    @PreDestroy
+    public void leave() {
+        if (heartbeatThread != null) {
+            heartbeatThread.shutdownNow();
+        }
+        if (!isEnabled() || lastHeartbeatAt == 0) {
+            return;
+        }
+        try {
+            nodeRepository.deleteById(nodeId);
+            log.info("👋 Node {} left the cluster", nodeId);
+        } catch (Exception e) {
+            log.warn("Node {} could not deregister: {}", nodeId, e.getMessage());
+        }
+        lastHeartbeatAt = 0;
+    }
+}
@@ -0,0 +1,228 @@
+package com.sumit.taskscheduler.cluster;
+
+import com.sumit.taskscheduler.config.SchedulerProperties;
+import com.sumit.taskscheduler.entity.LeaderLease;
+import com.sumit.taskscheduler.repository.LeaderLeaseRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Elects one node to run cluster-wide singleton duties, through a lease row in the database.
+ *
+ * The leader renews its lease every leader-renew-interval-ms; the other nodes try to take it
+ * over at the same pace once it has expired, or at once when the leader releases it on shutdown.
+ * Every takeover increments the fencing token. Renewals run on a thread of their own, so long
+ * singleton duties or other scheduled jobs can never hold them up and let the lease lapse.
+ *
+ * A node treats itself as leader only until one renew interval before the lease it last renewed
+ * expires, so it steps down before another node can take over. That relies on node clocks being
+ * close, as the task row leases do. {@link #runIfLeader} only checks leadership when a duty
+ * starts, so duties writing to the database call {@link #holdsLease()} in each transaction. It
+ * re-checks the token without locking the lease row, which would hold up this node's own renewals,
+ * and only passes while the lease has more than the fenced window left: lease time minus two renew
+ * intervals. No other node can take over within that window, so those duties write in
+ * {@link #fencedTransactions()}, which time out before it runs out.
+ */
+@Component
+@Slf4j
+public class LeaderElection {
+
+    static final String LEASE_NAME = "scheduler-leader";
+
+    private final String nodeId;
+    private final LeaderLeaseRepository leaseRepository;
+    private final SchedulerProperties.Cluster properties;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate fencedTransactions;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Token of the lease this node holds, 0 when it is not the leader
+    private volatile long fencingToken = 0;
+    // System.nanoTime() after which this node no longer counts itself as leader without a renewal
+    private volatile long leaderUntilNanos = 0;
+
+    private ScheduledExecutorService renewalThread;
+
+    public LeaderElection(NodeIdentity nodeIdentity, LeaderLeaseRepository leaseRepository,
+                          SchedulerProperties properties, TransactionTemplate transactionTemplate,
+                          ApplicationEventPublisher eventPublisher) {
+        this.nodeId = nodeIdentity.getNodeId();
+        this.leaseRepository = leaseRepository;
+        this.properties = properties.getCluster();
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        // Transaction timeouts are whole seconds, so a window below one second is only enforced to the second
+        this.fencedTransactions = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.fencedTransactions.setTimeout((int) Math.max(1, fencedWindowMs() / 1000));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        renewOrAcquire();
+        renewalThread = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "LeaderLeaseRenewal");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMs = properties.getLeaderRenewIntervalMs();
+        renewalThread.scheduleWithFixedDelay(this::renewOrAcquire, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Renew the lease if this node holds it, otherwise try to acquire it
+     */
+    public synchronized void renewOrAcquire() {
+        long startNanos = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plusNanos(properties.getLeaderLeaseMs() * 1_000_000L);
+        try {
+            if (fencingToken > 0) {
+                Integer renewed = transactionTemplate.execute(status ->
+                        leaseRepository.renew(LEASE_NAME, nodeId, fencingToken, now, expiresAt));
+                if (renewed != null && renewed == 1) {
+                    leaderUntilNanos = validUntil(startNanos);
+                    return;
+                }
+                stepDown("its lease expired or was taken over");
+            }
+            Long acquired = transactionTemplate.execute(status -> acquire(now, expiresAt));
+            if (acquired != null) {
+                fencingToken = acquired;
+                leaderUntilNanos = validUntil(startNanos);
+                log.info("👑 Node {} is now the leader (fencing token {})", nodeId, acquired);
+                eventPublisher.publishEvent(new LeadershipChangedEvent(true, acquired));
+            }
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Another node created the leader lease first");
+        } catch (Exception e) {
+            // The leadership lapses on its own if renewals keep failing
+            log.error("❌ Leader lease renewal on node {} failed: {}", nodeId, e.getMessage());
+        }
+    }
+
+    private Long acquire(LocalDateTime now, LocalDateTime expiresAt) {
+        Optional<LeaderLease> lease = leaseRepository.findById(LEASE_NAME);
+        if (lease.isEmpty()) {
+            leaseRepository.saveAndFlush(new LeaderLease(LEASE_NAME, nodeId, 1, now, expiresAt));
+            return 1L;
+        }
+        if (lease.get().getExpiresAt().isAfter(now) || leaseRepository.takeOver(LEASE_NAME, nodeId, now, expiresAt) == 0) {
+            return null;
+        }
+        // Read back under the row lock of the takeover rather than trusting the copy loaded above
+        return leaseRepository.findFencingToken(LEASE_NAME);
+    }
+
+    private long validUntil(long renewStartNanos) {
+        long marginMs = properties.getLeaderLeaseMs() - properties.getLeaderRenewIntervalMs();
+        return renewStartNanos + Math.max(0, marginMs) * 1_000_000L;
+    }
+
+    private long fencedWindowMs() {
+        return Math.max(0, properties.getLeaderLeaseMs() - 2 * properties.getLeaderRenewIntervalMs());
+    }
+
+    private void stepDown(String reason) {
+        long token = fencingToken;
+        fencingToken = 0;
+        leaderUntilNanos = 0;
+        log.warn("Node {} is no longer the leader: {}", nodeId, reason);
+        eventPublisher.publishEvent(new LeadershipChangedEvent(false, token));
+    }
+
+    public boolean isLeader() {
+        return fencingToken > 0 && System.nanoTime() - leaderUntilNanos < 0;
+    }
+
+    /**
+     * Token of the current leadership of this node, 0 when it is not the leader
+     */
+    public long getFencingToken() {
+        return isLeader() ? fencingToken : 0;
+    }
+
+    /**
+     * Run a singleton duty if this node is the leader
+     *
+     * @return false if the duty was left to the leader
+     */
+    public boolean runIfLeader(String duty, Runnable action) {
+        if (!isLeader()) {
+            log.debug("Skipping {}: node {} is not the leader", duty, nodeId);
+            return false;
+        }
+        action.run();
+        return true;
+    }
+
+    /**
+     * Confirm inside the caller's transaction that this node still holds the lease under its token
+     * for longer than the fenced window. Only valid in a {@link #fencedTransactions()} transaction,
+     * which cannot outlast that window.
+     */
+    public boolean holdsLease() {
+        long token = fencingToken;
+        LocalDateTime heldUntil = LocalDateTime.now().plusNanos(fencedWindowMs() * 1_000_000L);
+        return token > 0 && leaseRepository.isHeldUntil(LEASE_NAME, nodeId, token, heldUntil);
+    }
+
+    /**
+     * Transactions for singleton duties that call {@link #holdsLease()}, timing out with the fenced window
+     */
+    public TransactionTemplate fencedTransactions() {
+        return fencedTransactions;
+    }
+
+    /**
+     * The current lease holder as recorded in the database, if any lease was ever taken
+     */
+    public Optional<LeaderLease> currentLease() {
+        return leaseRepository.findById(LEASE_NAME);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Stop renewing and hand leadership over
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (renewalThread != null) {
+            renewalThread.shutdownNow();
+        }
+        release();
+    }
+
+    /**
+     * Hand leadership over at once instead of letting the lease run out
+     */
+    public synchronized void release() {
+        long token = fencingToken;
+        if (token == 0) {
+            return;
+        }
+        fencingToken = 0;
+        leaderUntilNanos = 0;
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    leaseRepository.release(LEASE_NAME, nodeId, token, LocalDateTime.now()));
+            log.info("Node {} released leadership (fencing token {})", nodeId, token);
+        } catch (Exception e) {
+            log.warn("Node {} could not release leadership: {}", nodeId, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.sumit.taskscheduler.cluster;
+
+/**
+ * Published when this node gains or loses cluster leadership
+ *
+ * @param leader        Whether this node is now the leader
+ * @param fencingToken  Token of the leadership gained or lost
+ */
+public record LeadershipChangedEvent(boolean leader, long fencingToken) {
+}
@@ -0,0 +1,37 @@
+package com.sumit.taskscheduler.cluster;
+
+import com.sumit.taskscheduler.config.SchedulerProperties;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.util.UUID;
+
+/**
+ * Identifies this scheduler instance in the cluster.
+ * Uses scheduler.cluster.node-id when set, otherwise host name, PID and a random suffix.
+ */
+@Component
+@Getter
+@Slf4j
+public class NodeIdentity {
+
+    private final String nodeId;
+
+    public NodeIdentity(SchedulerProperties properties) {
+        String configured = properties.getCluster().getNodeId();
+        this.nodeId = (configured != null && !configured.isBlank()) ? configured : generateNodeId();
+        log.info("Scheduler node id: {}", nodeId);
+    }
+
+    private static String generateNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "unknown-host";
+        }
+        return host + "-" + ProcessHandle.current().pid() + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
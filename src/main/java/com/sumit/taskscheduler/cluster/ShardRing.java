@@ -0,0 +1,92 @@
+package com.sumit.taskscheduler.cluster;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Consistent-hash assignment of task shards to nodes.
+ *
+ * Tasks fall into {@link #SLOT_COUNT} fixed slots by id. Each node places virtualNodes points on
+ * a hash ring and owns the slots whose hash lands before its points, so a node joining or leaving
+ * moves only about 1/N of the slots and every other slot keeps its owner.
+ */
+public final class ShardRing {
+
+    /**
+     * Number of task slots; queries select a shard with MOD(id, SLOT_COUNT), so it cannot change
+     * without reindexing
+     */
+    public static final int SLOT_COUNT = 256;
+
+    private final List<String> nodeIds;
+    private final String[] owners = new String[SLOT_COUNT];
+    private final Map<String, List<Integer>> slotsByNode = new HashMap<>();
+
+    public ShardRing(Collection<String> nodeIds, int virtualNodes) {
+        this.nodeIds = nodeIds.stream().distinct().sorted().toList();
+        if (this.nodeIds.isEmpty()) {
+            return;
+        }
+        TreeMap<Long, String> ring = new TreeMap<>();
+        for (String nodeId : this.nodeIds) {
+            for (int i = 0; i < virtualNodes; i++) {
+                // On the rare collision the smaller node id wins, the same on every node
+                ring.merge(hash(nodeId + "#" + i), nodeId, (a, b) -> a.compareTo(b) <= 0 ? a : b);
+            }
+        }
+        for (int slot = 0; slot < SLOT_COUNT; slot++) {
+            Map.Entry<Long, String> point = ring.ceilingEntry(mix(slot));
+            owners[slot] = (point != null ? point : ring.firstEntry()).getValue();
+            slotsByNode.computeIfAbsent(owners[slot], id -> new ArrayList<>()).add(slot);
+        }
+    }
+
+    public static int slotOf(long taskId) {
+        return (int) Math.floorMod(taskId, (long) SLOT_COUNT);
+    }
+
+    public List<String> getNodeIds() {
+        return nodeIds;
+    }
+
+    /**
+     * Node owning the slot, or null if the ring has no nodes
+     */
+    public String ownerOf(int slot) {
+        return owners[slot];
+    }
+
+    public List<Integer> slotsOf(String nodeId) {
+        return slotsByNode.getOrDefault(nodeId, List.of());
+    }
+
+    public boolean sameNodes(Set<String> others) {
+        return others.size() == nodeIds.size() && others.containsAll(nodeIds);
+    }
+
+    // FNV-1a over the UTF-8 bytes, then mixed: stable across JVMs, unlike String.hashCode spreading
+    private static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        return mix(h);
+    }
+
+    // MurmurHash3 fmix64 finalizer
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb93fe53e3b4fL;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,12 @@
+package com.sumit.taskscheduler.cluster;
+
+import java.util.List;
+
+/**
+ * Published when this node's view of the live nodes changes and the shards were reassigned
+ *
+ * @param nodeIds    Live nodes, sorted
+ * @param ownedSlots Slots this node now owns
+ */
+public record ShardRingChangedEvent(List<String> nodeIds, List<Integer> ownedSlots) {
+}
@@ -0,0 +1,183 @@
+package com.sumit.taskscheduler.cluster;
+
+import com.sumit.taskscheduler.cache.TaskCache;
+import com.sumit.taskscheduler.config.SchedulerProperties;
+import com.sumit.taskscheduler.entity.MisfirePolicy;
+import com.sumit.taskscheduler.entity.Task;
+import com.sumit.taskscheduler.repository.TaskRepository;
+import com.sumit.taskscheduler.util.CronExpressionUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Claims due tasks for a node so that several scheduler instances can share one database.
+ * A claim stamps the owner node and lease expiry and advances nextExecutionTime in the
+ * same transaction, so a claimed task is never returned to another node.
+ *
+ * The following fire time is anchored on the fire being claimed, not on the claim time, so
+ * schedules do not drift. A fire claimed too late, or whose following fire has passed as well,
+ * is a misfire and is handled by the task's {@link MisfirePolicy}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TaskClaimService {
+
+    private final TaskRepository taskRepository;
+    private final TaskCache taskCache;
+    private final SchedulerProperties properties;
+
+    /**
+     * Claim up to {@code limit} due tasks for the given node.
+     * Rows locked by a concurrent claim on another node are skipped (FOR UPDATE SKIP LOCKED).
+     *
+     * @param nodeId Claiming node
+     * @param limit  Maximum number of tasks to claim
+     * @return Claimed tasks, already advanced to their following fire time. Misfired SKIP_TO_NEXT
+     * tasks are advanced without being claimed, so the result can be shorter than the due set.
+     */
+    @Transactional
+    public List<Task> claimDueTasks(String nodeId, int limit) {
+        return claimDueTasks(nodeId, limit, null);
+    }
+
+    /**
+     * Claim up to {@code limit} due tasks of the given shard slots for the given node
+     *
+     * @param slots Shard slots to claim from (see {@link ShardRing}); null for every task
+     */
+    @Transactional
+    public List<Task> claimDueTasks(String nodeId, int limit, Collection<Integer> slots) {
+        if (slots != null && slots.isEmpty()) {
+            return List.of();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<Task> dueTasks = slots == null
+                ? taskRepository.lockDueTasks(now, limit)
+                : taskRepository.lockDueTasksInSlots(slots, now, limit);
+        if (dueTasks.isEmpty()) {
+            return dueTasks;
+        }
+
+        // Managed entities: the changes are flushed when the claim transaction commits
+        LocalDateTime leaseExpiresAt = now.plusSeconds(properties.getCluster().getLeaseSeconds());
+        List<Task> claimed = new ArrayList<>(dueTasks.size());
+        for (Task task : dueTasks) {
+            taskCache.invalidate(task.getId());
+            if (planFire(task, now)) {
+                task.setOwnerNode(nodeId);
+                task.setLeaseExpiresAt(leaseExpiresAt);
+                claimed.add(task);
+            }
+        }
+
+        log.debug("Node {} claimed {} task(s)", nodeId, claimed.size());
+        return claimed;
+    }
+
+    /**
+     * Claim a single task that this node believes is due.
+     * The given task is left untouched; the fire is planned on a copy of it.
+     *
+     * @return The claimed execution, advanced to the task's following fire time and carrying the
+     * row's current version; empty if the task is not due, leased elsewhere or skipped as a misfire
+     */
+    @Transactional
+    public Optional<Task> claimTask(String nodeId, Task task) {
+        LocalDateTime now = LocalDateTime.now();
+        Task fire = task.copy();
+        boolean runs = planFire(fire, now);
+        taskCache.invalidate(task.getId());
+        if (!runs) {
+            // Misfired SKIP_TO_NEXT: only move the schedule on, unless another node got there first
+            taskRepository.skipMissedFires(task.getId(), fire.getNextExecutionTime(), now);
+            return Optional.empty();
+        }
+
+        LocalDateTime leaseExpiresAt = now.plusSeconds(properties.getCluster().getLeaseSeconds());
+        int updated = taskRepository.claimTask(task.getId(), nodeId, leaseExpiresAt,
+                fire.getNextExecutionTime(), now);
+        if (updated != 1) {
+            return Optional.empty();
+        }
+        fire.setOwnerNode(nodeId);
+        fire.setLeaseExpiresAt(leaseExpiresAt);
+        // Executions bump the version; the in-memory task the copy was made from may predate the last one
+        fire.setVersion(taskRepository.findVersion(task.getId()));
+        return Optional.of(fire);
+    }
+
+    /**
+     * Decide how a due task fires and advance it to its following fire time.
+     * Sets the fire being run as scheduledFireTime and, for FIRE_ALL catch-up, the further missed fires.
+     *
+     * @return false if the task should not run now (misfired with SKIP_TO_NEXT)
+     */
+    private boolean planFire(Task task, LocalDateTime now) {
+        LocalDateTime dueAt = task.getNextExecutionTime();
+        LocalDateTime following = nextExecutionTime(task, dueAt);
+        boolean misfired = !following.isAfter(now)
+                || Duration.between(dueAt, now).toMillis() > properties.getMisfire().getThresholdMs();
+
+        task.setScheduledFireTime(dueAt);
+        task.setMisfired(misfired);
+        task.setMissedFireTimes(List.of());
+        if (!misfired) {
+            task.setNextExecutionTime(following);
+            return true;
+        }
+
+        // Continue from the first fire after now rather than from each missed one
+        task.setNextExecutionTime(nextExecutionTime(task, now));
+        MisfirePolicy policy = MisfirePolicy.from(task.getMisfirePolicy());
+        switch (policy) {
+            case SKIP_TO_NEXT -> {
+                log.info("⏭️ Task {} missed its fire at {}, skipping to {}", task.getId(), dueAt, task.getNextExecutionTime());
+                return false;
+            }
+            case FIRE_ALL -> task.setMissedFireTimes(missedFireTimes(task, dueAt, now));
+            case FIRE_ONCE -> {
+                // Coalesced into the one execution below
+            }
+        }
+        log.info("Task {} missed its fire at {}, catching up with {} execution(s) ({})",
+                task.getId(), dueAt, 1 + task.getMissedFireTimes().size(), policy);
+        return true;
+    }
+
+    /**
+     * Fire times after the overdue one that have passed too, capped so the overdue one plus these stay within max-catch-up
+     */
+    private List<LocalDateTime> missedFireTimes(Task task, LocalDateTime dueAt, LocalDateTime now) {
+        int cap = properties.getMisfire().getMaxCatchUp() - 1;
+        if (cap <= 0) {
+            return List.of();
+        }
+        try {
+            return CronExpressionUtil.getNextExecutionTimes(task.getCronExpression(), dueAt, cap).stream()
+                    .filter(fireTime -> !fireTime.isAfter(now))
+                    .toList();
+        } catch (Exception e) {
+            log.error("Failed to calculate missed fire times for task {}: {}", task.getId(), e.getMessage());
+            return List.of();
+        }
+    }
+
+    private LocalDateTime nextExecutionTime(Task task, LocalDateTime now) {
+        try {
+            return CronExpressionUtil.getNextExecutionTime(task.getCronExpression(), now);
+        } catch (Exception e) {
+            log.error("Failed to calculate next execution time for task {}: {}", task.getId(), e.getMessage());
+            return now.plusHours(1);
+        }
+    }
+}
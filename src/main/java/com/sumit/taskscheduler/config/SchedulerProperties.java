@@ -0,0 +1,364 @@
+package com.sumit.taskscheduler.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Externalized configuration for the scheduler, bound from the "scheduler.*" properties
+ */
+@Data
+@ConfigurationProperties(prefix = "scheduler")
+public class SchedulerProperties {
+
+    /**
+     * How due tasks are discovered: "polling" queries the database on a fixed delay,
+     * "in-memory" keeps every ACTIVE task in a next-fire queue and fires it at its due instant
+     */
+    private String mode = "polling";
+
+    /**
+     * Longest sleep between two database polls in polling mode. The poller wakes earlier for the
+     * next known fire time and for tasks created or rescheduled on this node.
+     */
+    private long pollIntervalMs = 30000;
+
+    /**
+     * Delay before the first poll after startup
+     */
+    private long pollInitialDelayMs = 10000;
+
+    private final Cluster cluster = new Cluster();
+
+    private final Executor executor = new Executor();
+
+    private final Dispatch dispatch = new Dispatch();
+
+    private final History history = new History();
+
+    private final Metrics metrics = new Metrics();
+
+    private final Retry retry = new Retry();
+
+    private final Timeout timeout = new Timeout();
+
+    private final Misfire misfire = new Misfire();
+
+    private final Cache cache = new Cache();
+
+    private final Recovery recovery = new Recovery();
+
+    /**
+     * Bulkheads keyed by task type, e.g. scheduler.bulkheads.REPORT.max-concurrency=2.
+     * Each gets its own concurrency limit and queue; other types share the executor pool.
+     */
+    private final Map<String, Bulkhead> bulkheads = new LinkedHashMap<>();
+
+    @Data
+    public static class Cluster {
+
+        /**
+         * Unique id of this node; generated from host name and PID when blank
+         */
+        private String nodeId;
+
+        /**
+         * Maximum number of due tasks claimed in one transaction
+         */
+        private int claimBatchSize = 100;
+
+        /**
+         * How long a claimed task stays reserved for its owner node
+         */
+        private long leaseSeconds = 300;
+
+        /**
+         * Split the tasks between live nodes by consistent hashing, so each node polls only its own
+         * shard instead of the whole table. Nodes announce themselves in cluster_nodes with heartbeats.
+         */
+        private boolean shardingEnabled = false;
+
+        /**
+         * How often a node renews its heartbeat and re-reads the live node list
+         */
+        private long heartbeatIntervalMs = 5000;
+
+        /**
+         * A node whose last heartbeat is older than this is considered dead and its shard is
+         * taken over by the remaining nodes
+         */
+        private long nodeTimeoutMs = 15000;
+
+        /**
+         * Points per node on the hash ring; more points spread the shards more evenly
+         */
+        private int virtualNodes = 64;
+
+        /**
+         * How long the leader lease lasts without renewal; a dead leader is replaced within about this long.
+         * Singleton duty transactions time out after this minus two renew intervals.
+         */
+        private long leaderLeaseMs = 10000;
+
+        /**
+         * How often the leader renews its lease and the other nodes try to take over an expired one
+         */
+        private long leaderRenewIntervalMs = 2000;
+
+        /**
+         * Poll for due tasks on the leader only, instead of on every node. Ignored with sharding,
+         * where each node polls its own shard.
+         */
+        private boolean leaderOnlyPolling = false;
+    }
+
+    @Data
+    public static class Executor {
+
+        /**
+         * "platform" runs tasks on a fixed pool of pool-size threads,
+         * "virtual" starts one virtual thread per task, limited to max-concurrency running at once
+         */
+        private String mode = "platform";
+
+        /**
+         * Number of worker threads in platform mode
+         */
+        private int poolSize = 10;
+
+        /**
+         * Maximum number of tasks running at the same time in virtual mode
+         */
+        private int maxConcurrency = 1000;
+
+        /**
+         * Maximum number of tasks waiting for a worker. The engine admits at most this many
+         * plus its worker slots; the poller claims only what fits and leaves the rest in the database.
+         */
+        private int queueCapacity = 1000;
+
+        /**
+         * Delay before a retry, catch-up or DAG task turned away at the admission limit or by a full
+         * bulkhead is offered again. Claimed tasks turned away are handed back to the database instead.
+         */
+        private long rejectedRetryDelayMs = 1000;
+    }
+
+    @Data
+    public static class Dispatch {
+
+        /**
+         * "strict" always starts the most urgent waiting task first,
+         * "weighted" shares worker slots between priority classes by weight
+         */
+        private String policy = "weighted";
+
+        /**
+         * Dispatch weights for HIGH, MEDIUM and LOW in weighted mode
+         */
+        private int[] weights = {8, 4, 1};
+
+        /**
+         * A waiting task is promoted one priority class per aging interval; 0 disables aging
+         */
+        private long agingMs = 10000;
+    }
+
+    @Data
+    public static class History {
+
+        /**
+         * Maximum number of execution records written in one JDBC batch
+         */
+        private int batchSize = 200;
+
+        /**
+         * Maximum time a record waits in memory before it is flushed
+         */
+        private long flushIntervalMs = 500;
+
+        /**
+         * Maximum number of pending records; when full, writers flush synchronously
+         */
+        private int queueCapacity = 10000;
+
+        /**
+         * Failed writes after which a record that fails on its own, while others are written, is given up
+         */
+        private int maxWriteAttempts = 5;
+
+        /**
+         * Delay before writing again after a failed flush; doubles with every further failure
+         */
+        private long retryInitialDelayMs = 1000;
+
+        /**
+         * Upper bound of the delay between two failed flushes
+         */
+        private long retryMaxDelayMs = 30000;
+
+        /**
+         * On PostgreSQL, store history in one partition per day so old days are dropped in bulk
+         */
+        private boolean partitioned = true;
+
+        /**
+         * Number of future days whose partitions are created ahead of time
+         */
+        private int partitionsAhead = 3;
+
+        /**
+         * Days of raw history kept; older days are compacted into hourly and daily rollups
+         * and then removed. 0 keeps raw history forever.
+         */
+        private int retentionDays = 30;
+
+        /**
+         * Delay between two partition and retention maintenance runs
+         */
+        private long maintenanceIntervalMs = 3600000;
+    }
+
+    @Data
+    public static class Metrics {
+
+        /**
+         * Also tag task timers with the task id; one time series per task, so only for small task counts
+         */
+        private boolean perTaskTags = false;
+
+        /**
+         * Publish histogram buckets with the timers, for percentile queries in Prometheus
+         */
+        private boolean percentileHistogram = true;
+    }
+
+    @Data
+    public static class Retry {
+
+        /**
+         * Retry failed executions up to the task's maxRetries before waiting for the next fire time
+         */
+        private boolean enabled = true;
+
+        /**
+         * Delay before the first retry
+         */
+        private long initialDelayMs = 1000;
+
+        /**
+         * Factor applied to the delay for every further retry
+         */
+        private double multiplier = 2.0;
+
+        /**
+         * Upper bound for a single retry delay
+         */
+        private long maxDelayMs = 300000;
+
+        /**
+         * Random spread of each delay, as a fraction of it (0.2 = +/-20%)
+         */
+        private double jitter = 0.2;
+    }
+
+    @Data
+    public static class Timeout {
+
+        /**
+         * Execution timeout for tasks without one of their own or of their type; 0 means none
+         */
+        private long defaultMs = 0;
+
+        /**
+         * Execution timeouts by task type, e.g. scheduler.timeout.task-types.EMAIL=30000
+         */
+        private Map<String, Long> taskTypes = new LinkedHashMap<>();
+    }
+
+    @Data
+    public static class Misfire {
+
+        /**
+         * A fire claimed later than this after its due time is a misfire, as is one whose
+         * following fire time has already passed
+         */
+        private long thresholdMs = 60000;
+
+        /**
+         * Maximum number of missed fires run for a FIRE_ALL task, the overdue fire included
+         */
+        private int maxCatchUp = 10;
+
+        /**
+         * Misfired executions start at a random point within this window instead of all at once; 0 disables the ramp
+         */
+        private long rampWindowMs = 30000;
+    }
+
+    @Data
+    public static class Cache {
+
+        /**
+         * Maximum number of tasks whose details are cached for the API; 0 disables caching
+         */
+        private long maxSize = 10000;
+
+        /**
+         * How long a cached task is served; bounds how late edits and executions made by other nodes show up
+         */
+        private long ttlMs = 5000;
+    }
+
+    @Data
+    public static class Recovery {
+
+        /**
+         * Detect executions left RUNNING by a node that died and recover their tasks (on the leader)
+         */
+        private boolean enabled = true;
+
+        /**
+         * How often each node renews the heartbeat of the executions it is running
+         */
+        private long heartbeatIntervalMs = 10000;
+
+        /**
+         * A RUNNING execution whose heartbeat is older than this is marked ABANDONED.
+         * Keep it well above heartbeat-interval-ms plus the history flush interval.
+         */
+        private long staleAfterMs = 60000;
+
+        /**
+         * How often the leader looks for abandoned executions
+         */
+        private long sweepIntervalMs = 15000;
+
+        /**
+         * Maximum number of abandoned executions read per query
+         */
+        private int batchSize = 100;
+    }
+
+    @Data
+    public static class Bulkhead {
+
+        /**
+         * Maximum number of tasks of this type running at the same time
+         */
+        private int maxConcurrency = 2;
+
+        /**
+         * Maximum number of tasks of this type waiting for a slot; 0 means unbounded
+         */
+        private int queueCapacity = 100;
+
+        /**
+         * When the queue is full, "reject" skips the arriving execution and
+         * "discard-oldest" skips the one that has waited longest instead
+         */
+        private String overflowPolicy = "reject";
+    }
+}
@@ -0,0 +1,42 @@
+package com.sumit.taskscheduler.controller;
+
+import com.sumit.taskscheduler.cluster.LeaderElection;
+import com.sumit.taskscheduler.dto.LeaderResponse;
+import com.sumit.taskscheduler.entity.LeaderLease;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/cluster")
+@RequiredArgsConstructor
+@Slf4j
+public class ClusterController {
+
+    private final LeaderElection leaderElection;
+
+    /**
+     * Current leader and its fencing token, as recorded in the database
+     * GET /api/cluster/leader
+     */
+    @GetMapping("/leader")
+    public ResponseEntity<LeaderResponse> getLeader() {
+        log.info("REST request to get the cluster leader");
+        Optional<LeaderLease> lease = leaderElection.currentLease();
+        boolean held = lease.isPresent() && lease.get().getExpiresAt().isAfter(LocalDateTime.now());
+        return ResponseEntity.ok(LeaderResponse.builder()
+                .leaderNodeId(held ? lease.get().getHolderNode() : null)
+                .fencingToken(lease.map(LeaderLease::getFencingToken).orElse(null))
+                .acquiredAt(lease.map(LeaderLease::getAcquiredAt).orElse(null))
+                .expiresAt(lease.map(LeaderLease::getExpiresAt).orElse(null))
+                .nodeId(leaderElection.getNodeId())
+                .leader(leaderElection.isLeader())
+                .build());
+    }
+}
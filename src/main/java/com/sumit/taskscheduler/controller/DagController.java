@@ -0,0 +1,70 @@
+package com.sumit.taskscheduler.controller;
+
+import com.sumit.taskscheduler.dto.DagRunResponse;
+import com.sumit.taskscheduler.dto.DependencyResponse;
+import com.sumit.taskscheduler.service.DagService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api")
+@RequiredArgsConstructor
+@Slf4j
+public class DagController {
+
+    private final DagService dagService;
+
+    /**
+     * Upstream and downstream tasks of a task
+     * GET /api/tasks/{id}/dependencies
+     */
+    @GetMapping("/tasks/{id}/dependencies")
+    public ResponseEntity<DependencyResponse> getDependencies(@PathVariable Long id) {
+        log.info("REST request to get dependencies of task: {}", id);
+        return ResponseEntity.ok(dagService.getDependencies(id));
+    }
+
+    /**
+     * Make task {id} run after task {upstreamId} completes; rejected if it would create a cycle
+     * PUT /api/tasks/{id}/dependencies/{upstreamId}
+     */
+    @PutMapping("/tasks/{id}/dependencies/{upstreamId}")
+    public ResponseEntity<DependencyResponse> addDependency(@PathVariable Long id, @PathVariable Long upstreamId) {
+        log.info("REST request to make task {} depend on task {}", id, upstreamId);
+        return ResponseEntity.ok(dagService.addDependency(id, upstreamId));
+    }
+
+    /**
+     * DELETE /api/tasks/{id}/dependencies/{upstreamId}
+     */
+    @DeleteMapping("/tasks/{id}/dependencies/{upstreamId}")
+    public ResponseEntity<DependencyResponse> removeDependency(@PathVariable Long id, @PathVariable Long upstreamId) {
+        log.info("REST request to remove dependency of task {} on task {}", id, upstreamId);
+        return ResponseEntity.ok(dagService.removeDependency(id, upstreamId));
+    }
+
+    /**
+     * Recent DAG runs started by a root task
+     * GET /api/tasks/{id}/dag-runs?limit=20
+     */
+    @GetMapping("/tasks/{id}/dag-runs")
+    public ResponseEntity<List<DagRunResponse>> getDagRuns(@PathVariable Long id,
+                                                           @RequestParam(defaultValue = "20") int limit) {
+        log.info("REST request to get DAG runs of task: {}", id);
+        return ResponseEntity.ok(dagService.getDagRuns(id, limit));
+    }
+
+    /**
+     * A DAG run with the state of each of its tasks
+     * GET /api/dag-runs/{runId}
+     */
+    @GetMapping("/dag-runs/{runId}")
+    public ResponseEntity<DagRunResponse> getDagRun(@PathVariable Long runId) {
+        log.info("REST request to get DAG run: {}", runId);
+        return ResponseEntity.ok(dagService.getDagRun(runId));
+    }
+}
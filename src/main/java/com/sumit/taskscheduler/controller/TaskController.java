@@ -1,22 +1,51 @@
 package com.sumit.taskscheduler.controller;
 
+import com.sumit.taskscheduler.dto.BulkItem;
+import com.sumit.taskscheduler.dto.BulkItemResult;
+import com.sumit.taskscheduler.dto.BulkTaskResponse;
+import com.sumit.taskscheduler.dto.BulkUpdateTaskRequest;
 import com.sumit.taskscheduler.dto.CreateTaskRequest;
+import com.sumit.taskscheduler.dto.CursorPage;
 import com.sumit.taskscheduler.dto.ExecutionHistoryResponse;
+import com.sumit.taskscheduler.dto.ExecutionRollupResponse;
 import com.sumit.taskscheduler.dto.TaskResponse;
 import com.sumit.taskscheduler.dto.UpdateTaskRequest;
+import com.sumit.taskscheduler.executor.RunningExecution;
 import com.sumit.taskscheduler.executor.TaskExecutionEngine;
 import com.sumit.taskscheduler.service.TaskService;
+import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/tasks")
@@ -26,6 +55,14 @@ public class TaskController {
 
     private final TaskService taskService;
     private final TaskExecutionEngine executionEngine;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    // Items per transaction of a bulk request
+    private static final int BULK_CHUNK_SIZE = 1000;
+
+    private static final String HISTORY_CSV_HEADER =
+            "id,executionId,taskId,executionTime,status,errorMessage,executionDurationMs,createdAt\n";
 
     @PostMapping
     public ResponseEntity<TaskResponse> createTask(@Valid @RequestBody CreateTaskRequest request) {
@@ -34,6 +71,27 @@ public class TaskController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    /**
+     * Create many tasks from a JSON array of task definitions. The body is read as a stream and
+     * committed in chunks; each item gets its own result and an invalid item does not stop the others.
+     * POST /api/tasks/bulk
+     */
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BulkTaskResponse> createTasks(InputStream body) {
+        log.info("Request received to create tasks in bulk");
+        return toResponse(processBulk(body, CreateTaskRequest.class, taskService::createTasks));
+    }
+
+    /**
+     * Update many tasks from a JSON array of updates, each carrying the id of its task
+     * PUT /api/tasks/bulk
+     */
+    @PutMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BulkTaskResponse> updateTasks(InputStream body) {
+        log.info("Request received to update tasks in bulk");
+        return toResponse(processBulk(body, BulkUpdateTaskRequest.class, taskService::updateTasks));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<TaskResponse> getTaskById(@PathVariable Long id) {
         log.info("Received request to get task: {}", id);
@@ -51,6 +109,43 @@ public class TaskController {
         return ResponseEntity.ok(tasks);
     }
 
+    /**
+     * Keyset-paginated listing; pass the returned nextCursor as "after" to get the following page
+     * GET /api/tasks/cursor?sort=id|nextExecutionTime&status=&after=&size=
+     */
+    @GetMapping("/cursor")
+    public ResponseEntity<CursorPage<TaskResponse>> getTasksAfter(
+            @RequestParam(required = false) String status,
+            @RequestParam(defaultValue = "id") String sort,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "100") int size) {
+        log.info("Received request to get tasks after cursor: {}, size: {}", after, size);
+        return ResponseEntity.ok(taskService.getTasksAfter(status, sort, after, size));
+    }
+
+    /**
+     * Stream all matching tasks as newline-delimited JSON, written as they are read
+     * GET /api/tasks/stream?sort=id|nextExecutionTime&status=
+     */
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamTasks(
+            @RequestParam(required = false) String status,
+            @RequestParam(defaultValue = "id") String sort) {
+        log.info("Received request to stream tasks by {}", sort);
+        StreamingResponseBody body = outputStream -> {
+            taskService.streamTasks(status, sort, task -> {
+                try {
+                    outputStream.write(objectMapper.writeValueAsBytes(task));
+                    outputStream.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            outputStream.flush();
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
     @GetMapping("/status/{status}")
     public ResponseEntity<List<TaskResponse>> getTasksByStatus(@PathVariable String status) {
         log.info("Received request to get tasks by status: {}", status);
@@ -95,6 +190,62 @@ public class TaskController {
         return ResponseEntity.ok(history);
     }
 
+    /**
+     * Hourly or daily execution rollups of a task, kept after its raw history ages out
+     * GET /api/tasks/{id}/rollups?granularity=HOUR|DAY&from=&to=
+     */
+    @GetMapping("/{id}/rollups")
+    public ResponseEntity<List<ExecutionRollupResponse>> getExecutionRollups(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "DAY") String granularity,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("REST request to get {} rollups for task: {}", granularity, id);
+        LocalDateTime end = to == null ? LocalDateTime.now() : to;
+        return ResponseEntity.ok(taskService.getExecutionRollups(id, granularity, from, end));
+    }
+
+    /**
+     * Stream the executions of a time range as newline-delimited JSON or CSV, written as they are read
+     * GET /api/tasks/history?from=&to=&status=&taskId=&format=ndjson|csv
+     */
+    @GetMapping("/history")
+    public ResponseEntity<StreamingResponseBody> exportExecutionHistory(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) Long taskId,
+            @RequestParam(defaultValue = "ndjson") String format) {
+        log.info("REST request to export execution history from {} to {} as {}", from, to, format);
+        LocalDateTime end = to == null ? LocalDateTime.now() : to;
+        boolean csv = "csv".equalsIgnoreCase(format);
+        if (!csv && !"ndjson".equalsIgnoreCase(format)) {
+            throw new IllegalArgumentException("Unsupported format: " + format + ". Use 'ndjson' or 'csv'");
+        }
+        // Checked here: once the body streams, the 200 is already sent and an error can only cut it short
+        if (!from.isBefore(end)) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+
+        StreamingResponseBody body = outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            if (csv) {
+                writer.write(HISTORY_CSV_HEADER);
+            }
+            taskService.streamExecutionHistory(from, end, status, taskId, history -> {
+                try {
+                    writer.write(csv ? toCsvLine(history) : objectMapper.writeValueAsString(history));
+                    writer.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.flush();
+        };
+        MediaType contentType = csv ? MediaType.parseMediaType("text/csv") : MediaType.APPLICATION_NDJSON;
+        return ResponseEntity.ok().contentType(contentType).body(body);
+    }
+
     @GetMapping("/executor/stats")
     public ResponseEntity<TaskExecutionEngine.ExecutorStats> getExecutorStats() {
         log.info("REST request to get executor statistics");
@@ -102,4 +253,121 @@ public class TaskController {
         return ResponseEntity.ok(stats);
     }
 
+    /**
+     * Get per-bulkhead statistics
+     * GET /api/tasks/executor/bulkheads
+     */
+    @GetMapping("/executor/bulkheads")
+    public ResponseEntity<List<TaskExecutionEngine.BulkheadStats>> getBulkheadStats() {
+        log.info("REST request to get bulkhead statistics");
+        return ResponseEntity.ok(executionEngine.getBulkheadStats());
+    }
+
+    /**
+     * List executions currently running on this node
+     * GET /api/tasks/executions/running?taskId=
+     */
+    @GetMapping("/executions/running")
+    public ResponseEntity<List<RunningExecution>> getRunningExecutions(@RequestParam(required = false) Long taskId) {
+        log.info("REST request to get running executions");
+        List<RunningExecution> executions = executionEngine.getRunningExecutions().stream()
+                .filter(execution -> taskId == null || execution.getTaskId() == taskId)
+                .toList();
+        return ResponseEntity.ok(executions);
+    }
+
+    /**
+     * Cancel an execution running on this node; its handler is interrupted and it is not retried
+     * POST /api/tasks/executions/{executionId}/cancel
+     */
+    @PostMapping("/executions/{executionId}/cancel")
+    public ResponseEntity<RunningExecution> cancelExecution(@PathVariable String executionId) {
+        log.info("Received request to cancel execution: {}", executionId);
+        RunningExecution execution = executionEngine.cancelExecution(executionId);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(execution);
+    }
+
+    private static String toCsvLine(ExecutionHistoryResponse history) {
+        return String.join(",",
+                csvField(history.getId()),
+                csvField(history.getExecutionId()),
+                csvField(history.getTaskId()),
+                csvField(history.getExecutionTime()),
+                csvField(history.getStatus()),
+                csvField(history.getErrorMessage()),
+                csvField(history.getExecutionDurationMs()),
+                csvField(history.getCreatedAt()));
+    }
+
+    // RFC 4180: quote fields containing separators, quotes or line breaks, doubling embedded quotes
+    private static String csvField(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.contains(",") || text.contains("\"") || text.contains("\n") || text.contains("\r")) {
+            return "\"" + text.replace("\"", "\"\"") + "\"";
+        }
+        return text;
+    }
+
+    /**
+     * Read a JSON array one element at a time, so memory holds at most one chunk of items,
+     * and hand each chunk of valid items to the handler
+     */
+    private <T> BulkTaskResponse processBulk(InputStream body, Class<T> type,
+                                             Function<List<BulkItem<T>>, List<BulkItemResult>> handler) {
+        List<BulkItemResult> results = new ArrayList<>();
+        List<BulkItem<T>> chunk = new ArrayList<>();
+        String error = null;
+        int index = 0;
+        try (JsonParser parser = objectMapper.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("Request body must be a JSON array");
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                JsonNode node = parser.readValueAsTree();
+                int position = index++;
+                try {
+                    T item = objectMapper.treeToValue(node, type);
+                    String violations = validator.validate(item).stream()
+                            .map(ConstraintViolation::getMessage)
+                            .sorted()
+                            .collect(Collectors.joining("; "));
+                    if (violations.isEmpty()) {
+                        chunk.add(new BulkItem<>(position, item));
+                    } else {
+                        results.add(BulkItemResult.failed(position, null, violations));
+                    }
+                } catch (JacksonException e) {
+                    results.add(BulkItemResult.failed(position, null, "Invalid item: " + e.getOriginalMessage()));
+                }
+                if (chunk.size() == BULK_CHUNK_SIZE) {
+                    results.addAll(handler.apply(chunk));
+                    chunk = new ArrayList<>();
+                }
+            }
+            if (parser.currentToken() != JsonToken.END_ARRAY) {
+                error = "Expected a JSON object or the end of the array after item " + index;
+            }
+        } catch (JacksonException e) {
+            if (index == 0) {
+                throw new IllegalArgumentException("Malformed request body: " + e.getOriginalMessage());
+            }
+            error = "Malformed request body after item " + index + ": " + e.getOriginalMessage();
+        }
+        if (!chunk.isEmpty()) {
+            results.addAll(handler.apply(chunk));
+        }
+
+        results.sort(Comparator.comparingInt(BulkItemResult::getIndex));
+        int failed = (int) results.stream().filter(result -> "FAILED".equals(result.getStatus())).count();
+        return new BulkTaskResponse(results.size() - failed, failed, results, error);
+    }
+
+    private static ResponseEntity<BulkTaskResponse> toResponse(BulkTaskResponse response) {
+        // Items read before a malformed part of the body were processed and are reported either way
+        HttpStatus status = response.getError() == null ? HttpStatus.OK : HttpStatus.BAD_REQUEST;
+        return ResponseEntity.status(status).body(response);
+    }
 }
@@ -0,0 +1,175 @@
+package com.sumit.taskscheduler.dag;
+
+import com.sumit.taskscheduler.entity.DagRun;
+import com.sumit.taskscheduler.entity.DagRunTask;
+import com.sumit.taskscheduler.entity.Task;
+import com.sumit.taskscheduler.entity.TaskDependency;
+import com.sumit.taskscheduler.repository.DagRunRepository;
+import com.sumit.taskscheduler.repository.DagRunTaskRepository;
+import com.sumit.taskscheduler.repository.TaskDependencyRepository;
+import com.sumit.taskscheduler.repository.TaskRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Moves DAG runs forward as executions finish.
+ *
+ * An execution of a root task starts a run covering every task reachable from it. When a task
+ * of the run completes, each child's count of pending parents is decremented and the children
+ * that reach zero are returned for the engine to start, so independent branches fan out in
+ * parallel and a join task starts only after its last parent. A failed task skips everything
+ * downstream of it. Runs are kept in the database, so parents finishing on different nodes
+ * still start a join task exactly once.
+ */
+@Component
+@Slf4j
+public class DagCoordinator {
+
+    // How long the set of tasks with downstream tasks is trusted before it is read again
+    private static final long UPSTREAM_REFRESH_MS = 10_000;
+    private static final List<String> OPEN_STATES = List.of("PENDING", "RUNNING");
+
+    private final TaskDependencyRepository dependencyRepository;
+    private final DagRunRepository runRepository;
+    private final DagRunTaskRepository runTaskRepository;
+    private final TaskRepository taskRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private volatile Set<Long> upstreamTaskIds = Set.of();
+    private volatile long upstreamLoadedAt = 0;
+
+    public DagCoordinator(TaskDependencyRepository dependencyRepository, DagRunRepository runRepository,
+                          DagRunTaskRepository runTaskRepository, TaskRepository taskRepository,
+                          TransactionTemplate transactionTemplate) {
+        this.dependencyRepository = dependencyRepository;
+        this.runRepository = runRepository;
+        this.runTaskRepository = runTaskRepository;
+        this.taskRepository = taskRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Record the final outcome of an execution, after any retries
+     *
+     * @return Downstream tasks that are now ready, each tagged with its DAG run; empty for tasks outside any DAG
+     */
+    public List<Task> onExecutionFinished(Task task, boolean success) {
+        Long runId = task.getDagRunId();
+        if (runId == null && !hasDownstream(task.getId())) {
+            return List.of();
+        }
+        return transactionTemplate.execute(status -> runId == null
+                ? startRun(task, success)
+                : advance(runId, task.getId(), success));
+    }
+
+    /**
+     * Forget the cached dependency edges after a change on this node
+     */
+    public void dependenciesChanged() {
+        upstreamLoadedAt = 0;
+    }
+
+    private boolean hasDownstream(long taskId) {
+        long now = System.currentTimeMillis();
+        if (now - upstreamLoadedAt > UPSTREAM_REFRESH_MS) {
+            upstreamTaskIds = dependencyRepository.findUpstreamTaskIds();
+            upstreamLoadedAt = now;
+        }
+        return upstreamTaskIds.contains(taskId);
+    }
+
+    private List<Task> startRun(Task root, boolean success) {
+        LocalDateTime now = LocalDateTime.now();
+        List<TaskDependency> dependencies = dependencyRepository.findAll();
+        DagGraph graph = new DagGraph(dependencies);
+        if (!graph.parents(root.getId()).isEmpty()) {
+            // Started outside its DAG, e.g. a dependent task run by hand: it does not start a run of its own
+            return List.of();
+        }
+        Set<Long> members = graph.descendants(root.getId());
+
+        DagRun run = runRepository.save(new DagRun(null, root.getId(), "RUNNING", now, null));
+        List<DagRunTask> rows = new ArrayList<>(members.size() + 1);
+        rows.add(new DagRunTask(null, run.getId(), root.getId(), "RUNNING", 0, now, null));
+        for (Long taskId : members) {
+            int parents = (int) graph.parents(taskId).stream()
+                    .filter(parent -> parent == root.getId() || members.contains(parent))
+                    .count();
+            rows.add(new DagRunTask(null, run.getId(), taskId, "PENDING", parents, null, null));
+        }
+        runTaskRepository.saveAll(rows);
+        log.info("🧬 Task {} started DAG run {} with {} downstream task(s)", root.getId(), run.getId(), members.size());
+        return advance(run.getId(), root.getId(), success);
+    }
+
+    private List<Task> advance(long runId, long taskId, boolean success) {
+        LocalDateTime now = LocalDateTime.now();
+        String outcome = success ? "SUCCESS" : "FAILED";
+        if (runTaskRepository.transition(runId, taskId, "RUNNING", outcome, now) == 0) {
+            log.debug("Task {} of DAG run {} was already finished", taskId, runId);
+            return List.of();
+        }
+
+        List<Task> ready = new ArrayList<>();
+        if (success) {
+            for (TaskDependency edge : dependencyRepository.findByUpstreamTaskId(taskId)) {
+                release(runId, edge.getDownstreamTaskId(), now).ifPresent(ready::add);
+            }
+        } else {
+            skipDownstream(runId, taskId, now);
+        }
+        finishIfDone(runId, now);
+        return ready;
+    }
+
+    /**
+     * One parent of the task completed; start it if that was the last one
+     */
+    private Optional<Task> release(long runId, long taskId, LocalDateTime now) {
+        if (runTaskRepository.releaseParent(runId, taskId) == 0
+                || runTaskRepository.startIfReady(runId, taskId, now) == 0) {
+            return Optional.empty();
+        }
+        Optional<Task> task = taskRepository.findById(taskId).filter(t -> "ACTIVE".equals(t.getStatus()));
+        if (task.isEmpty()) {
+            log.info("⏭️ Task {} of DAG run {} is no longer active, skipping it and its downstream tasks", taskId, runId);
+            runTaskRepository.transition(runId, taskId, "RUNNING", "SKIPPED", now);
+            skipDownstream(runId, taskId, now);
+            return Optional.empty();
+        }
+        Task next = task.get();
+        next.setDagRunId(runId);
+        log.debug("Task {} of DAG run {} is ready", taskId, runId);
+        return Optional.of(next);
+    }
+
+    private void skipDownstream(long runId, long taskId, LocalDateTime now) {
+        ArrayDeque<Long> queue = new ArrayDeque<>(List.of(taskId));
+        while (!queue.isEmpty()) {
+            for (TaskDependency edge : dependencyRepository.findByUpstreamTaskId(queue.poll())) {
+                if (runTaskRepository.transition(runId, edge.getDownstreamTaskId(), "PENDING", "SKIPPED", now) == 1) {
+                    queue.add(edge.getDownstreamTaskId());
+                }
+            }
+        }
+    }
+
+    private void finishIfDone(long runId, LocalDateTime now) {
+        if (runTaskRepository.countByDagRunIdAndStatusIn(runId, OPEN_STATES) > 0) {
+            return;
+        }
+        boolean failed = runTaskRepository.countByDagRunIdAndStatusIn(runId, List.of("FAILED", "SKIPPED")) > 0;
+        if (runRepository.finish(runId, failed ? "FAILED" : "SUCCEEDED", now) == 1) {
+            log.info("{} DAG run {} {}", failed ? "❌" : "✅", runId, failed ? "failed" : "succeeded");
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.sumit.taskscheduler.dag;
+
+import com.sumit.taskscheduler.entity.TaskDependency;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * In-memory view of the task dependency edges, for reachability questions
+ */
+public class DagGraph {
+
+    private final Map<Long, List<Long>> downstream = new HashMap<>();
+    private final Map<Long, List<Long>> upstream = new HashMap<>();
+
+    public DagGraph(Collection<TaskDependency> dependencies) {
+        for (TaskDependency dependency : dependencies) {
+            downstream.computeIfAbsent(dependency.getUpstreamTaskId(), id -> new ArrayList<>())
+                    .add(dependency.getDownstreamTaskId());
+            upstream.computeIfAbsent(dependency.getDownstreamTaskId(), id -> new ArrayList<>())
+                    .add(dependency.getUpstreamTaskId());
+        }
+    }
+
+    public List<Long> children(long taskId) {
+        return downstream.getOrDefault(taskId, List.of());
+    }
+
+    public List<Long> parents(long taskId) {
+        return upstream.getOrDefault(taskId, List.of());
+    }
+
+    /**
+     * Every task reachable from the given one, in breadth-first order, excluding the task itself
+     */
+    public Set<Long> descendants(long taskId) {
+        Set<Long> seen = new LinkedHashSet<>();
+        ArrayDeque<Long> queue = new ArrayDeque<>(children(taskId));
+        while (!queue.isEmpty()) {
+            Long next = queue.poll();
+            if (seen.add(next)) {
+                queue.addAll(children(next));
+            }
+        }
+        seen.remove(taskId);
+        return seen;
+    }
+
+    /**
+     * Whether adding the edge upstream -> downstream would close a cycle
+     */
+    public boolean wouldCreateCycle(long upstreamTaskId, long downstreamTaskId) {
+        return upstreamTaskId == downstreamTaskId || descendants(downstreamTaskId).contains(upstreamTaskId);
+    }
+}
@@ -0,0 +1,7 @@
+package com.sumit.taskscheduler.dto;
+
+/**
+ * One element of a bulk request, with its position in the submitted array
+ */
+public record BulkItem<T>(int index, T request) {
+}
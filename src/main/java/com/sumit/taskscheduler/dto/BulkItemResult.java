@@ -0,0 +1,25 @@
+package com.sumit.taskscheduler.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkItemResult {
+    private int index; // Position of the item in the submitted array
+    private Long id;
+    private String status; // CREATED, UPDATED or FAILED
+    private String error;
+
+    public static BulkItemResult succeeded(int index, long id, String status) {
+        return BulkItemResult.builder().index(index).id(id).status(status).build();
+    }
+
+    public static BulkItemResult failed(int index, Long id, String error) {
+        return BulkItemResult.builder().index(index).id(id).status("FAILED").error(error).build();
+    }
+}
@@ -0,0 +1,17 @@
+package com.sumit.taskscheduler.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkTaskResponse {
+    private int succeeded;
+    private int failed;
+    private List<BulkItemResult> results; // One per item read, in submission order
+    private String error; // Set when the body could not be read to the end; later items were not processed
+}
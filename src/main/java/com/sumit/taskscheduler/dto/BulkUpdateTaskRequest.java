@@ -0,0 +1,15 @@
+package com.sumit.taskscheduler.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+public class BulkUpdateTaskRequest extends UpdateTaskRequest {
+
+    @NotNull(message = "Task id is required")
+    private Long id;
+}
@@ -1,6 +1,8 @@
 package com.sumit.taskscheduler.dto;
 
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -24,4 +26,13 @@ public class CreateTaskRequest {
     private String priority = "MEDIUM"; // HIGH, MEDIUM, LOW
 
     private Integer maxRetries = 3;
+
+    @PositiveOrZero(message = "Timeout must not be negative")
+    private Long timeoutMs; // null or 0 uses the task type's timeout
+
+    @Pattern(regexp = "(?i)SKIP|QUEUE_ONE|ALLOW", message = "Overlap policy must be SKIP, QUEUE_ONE or ALLOW")
+    private String overlapPolicy = "SKIP"; // What to do when the task fires while still running
+
+    @Pattern(regexp = "(?i)FIRE_ONCE|FIRE_ALL|SKIP_TO_NEXT", message = "Misfire policy must be FIRE_ONCE, FIRE_ALL or SKIP_TO_NEXT")
+    private String misfirePolicy = "FIRE_ONCE"; // What to do with fires missed during downtime
 }
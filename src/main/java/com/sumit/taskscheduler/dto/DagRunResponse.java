@@ -0,0 +1,33 @@
+package com.sumit.taskscheduler.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DagRunResponse {
+    private Long id;
+    private Long rootTaskId;
+    private String status; // RUNNING, SUCCEEDED, FAILED
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private List<TaskState> tasks;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TaskState {
+        private Long taskId;
+        private String status; // PENDING, RUNNING, SUCCESS, FAILED, SKIPPED
+        private int pendingParents;
+        private LocalDateTime startedAt;
+        private LocalDateTime finishedAt;
+    }
+}
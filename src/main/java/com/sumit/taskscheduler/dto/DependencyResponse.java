@@ -0,0 +1,16 @@
+package com.sumit.taskscheduler.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DependencyResponse {
+    private Long taskId;
+    private List<Long> upstreamTaskIds; // Tasks that must complete before this one starts
+    private List<Long> downstreamTaskIds; // Tasks waiting on this one
+}
@@ -13,6 +13,7 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class ExecutionHistoryResponse {
     private Long id;
+    private String executionId;
     private Long taskId;
     private LocalDateTime executionTime;
     private String status;
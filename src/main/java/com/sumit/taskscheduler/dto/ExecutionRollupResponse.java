@@ -0,0 +1,24 @@
+package com.sumit.taskscheduler.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExecutionRollupResponse {
+    private Long taskId;
+    private String granularity;
+    private LocalDateTime bucketStart;
+    private long executions;
+    private long failures;
+    private Double p50Ms;
+    private Double p95Ms;
+    private Double p99Ms;
+    private Long maxMs;
+}
@@ -0,0 +1,21 @@
+package com.sumit.taskscheduler.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaderResponse {
+    private String leaderNodeId; // Null while no node holds an unexpired lease
+    private Long fencingToken;
+    private LocalDateTime acquiredAt;
+    private LocalDateTime expiresAt;
+    private String nodeId; // Node answering the request
+    private boolean leader; // Whether the answering node is the leader
+}
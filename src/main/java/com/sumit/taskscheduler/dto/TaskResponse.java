@@ -21,6 +21,9 @@ public class TaskResponse {
     private String status;
     private Integer retryCount;
     private Integer maxRetries;
+    private Long timeoutMs;
+    private String overlapPolicy;
+    private String misfirePolicy;
     private LocalDateTime nextExecutionTime;
     private LocalDateTime lastExecutionTime;
     private LocalDateTime createdAt;
@@ -1,5 +1,7 @@
 package com.sumit.taskscheduler.dto;
 
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -13,4 +15,13 @@ public class UpdateTaskRequest {
     private String cronExpression;
     private String priority;
     private Integer maxRetries;
+
+    @PositiveOrZero(message = "Timeout must not be negative")
+    private Long timeoutMs; // 0 clears the task's own timeout
+
+    @Pattern(regexp = "(?i)SKIP|QUEUE_ONE|ALLOW", message = "Overlap policy must be SKIP, QUEUE_ONE or ALLOW")
+    private String overlapPolicy;
+
+    @Pattern(regexp = "(?i)FIRE_ONCE|FIRE_ALL|SKIP_TO_NEXT", message = "Misfire policy must be FIRE_ONCE, FIRE_ALL or SKIP_TO_NEXT")
+    private String misfirePolicy;
 }
@@ -0,0 +1,36 @@
+package com.sumit.taskscheduler.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One pass through a task DAG, started by an execution of a root task (one with downstream
+ * tasks but no upstream ones) and covering every task reachable from it
+ */
+@Entity
+@Table(name = "dag_runs", indexes = @Index(name = "idx_dag_runs_root", columnList = "root_task_id, id"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DagRun {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "root_task_id", nullable = false)
+    private Long rootTaskId;
+
+    @Column(nullable = false, length = 20)
+    private String status; // RUNNING, SUCCEEDED, FAILED
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,43 @@
+package com.sumit.taskscheduler.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * State of one task within a DAG run. pendingParents counts the upstream tasks of the run
+ * that have not completed yet; the task starts when it reaches zero.
+ */
+@Entity
+@Table(name = "dag_run_tasks",
+        uniqueConstraints = @UniqueConstraint(name = "uk_dag_run_task", columnNames = {"dag_run_id", "task_id"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DagRunTask {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "dag_run_id", nullable = false)
+    private Long dagRunId;
+
+    @Column(name = "task_id", nullable = false)
+    private Long taskId;
+
+    @Column(nullable = false, length = 20)
+    private String status; // PENDING, RUNNING, SUCCESS, FAILED, SKIPPED
+
+    @Column(name = "pending_parents", nullable = false)
+    private int pendingParents;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+}
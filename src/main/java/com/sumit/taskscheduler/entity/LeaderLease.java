@@ -0,0 +1,37 @@
+package com.sumit.taskscheduler.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Cluster-wide leadership, held by one node at a time until expiresAt unless renewed.
+ * The fencing token grows by one on every change of holder, so work done under an old
+ * leadership can be told apart from the current one.
+ */
+@Entity
+@Table(name = "leader_leases")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaderLease {
+
+    @Id
+    @Column(length = 100)
+    private String name;
+
+    @Column(name = "holder_node", nullable = false)
+    private String holderNode;
+
+    @Column(name = "fencing_token", nullable = false)
+    private long fencingToken;
+
+    @Column(name = "acquired_at", nullable = false)
+    private LocalDateTime acquiredAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,28 @@
+package com.sumit.taskscheduler.entity;
+
+/**
+ * What happens when a task is claimed after missing its fire time, e.g. after downtime or a long pause.
+ * Stored on {@link Task} as its name.
+ */
+public enum MisfirePolicy {
+    // Run once for all missed fires, then continue from the next fire time after now
+    FIRE_ONCE,
+    // Run every missed fire, one after the other, up to the configured cap
+    FIRE_ALL,
+    // Run none of the missed fires and wait for the next fire time after now
+    SKIP_TO_NEXT;
+
+    /**
+     * Parse a stored policy, falling back to FIRE_ONCE for null or unknown values
+     */
+    public static MisfirePolicy from(String misfirePolicy) {
+        if (misfirePolicy == null) {
+            return FIRE_ONCE;
+        }
+        try {
+            return valueOf(misfirePolicy.trim().toUpperCase().replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            return FIRE_ONCE;
+        }
+    }
+}
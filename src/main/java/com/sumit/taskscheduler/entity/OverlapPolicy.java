@@ -0,0 +1,28 @@
+package com.sumit.taskscheduler.entity;
+
+/**
+ * What happens when a task fires again while an earlier execution of it is still queued or running.
+ * Stored on {@link Task} as its name.
+ */
+public enum OverlapPolicy {
+    // Drop the new fire
+    SKIP,
+    // Keep one follow-up execution, started when the current one finishes; further fires are dropped
+    QUEUE_ONE,
+    // Run the executions in parallel
+    ALLOW;
+
+    /**
+     * Parse a stored policy, falling back to SKIP for null or unknown values
+     */
+    public static OverlapPolicy from(String overlapPolicy) {
+        if (overlapPolicy == null) {
+            return SKIP;
+        }
+        try {
+            return valueOf(overlapPolicy.trim().toUpperCase().replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            return SKIP;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.sumit.taskscheduler.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A named row whose only purpose is to be locked, serializing one kind of cluster-wide change
+ * without locking the rows that change. Rows are created on first use.
+ */
+@Entity
+@Table(name = "scheduler_locks")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SchedulerLock {
+
+    @Id
+    @Column(length = 100)
+    private String name;
+}
@@ -4,18 +4,27 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Entity
-@Table(name = "tasks")
+@Table(name = "tasks", indexes = {
+        // Keyset listing in fire time order, and the due task scan
+        @Index(name = "idx_tasks_next_execution", columnList = "next_execution_time, id"),
+        @Index(name = "idx_tasks_status", columnList = "status, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-
+@DynamicUpdate
 public class Task {
+    // Pooled sequence: one round trip reserves 50 ids, so inserts can be sent as JDBC batches
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tasks_seq")
+    @SequenceGenerator(name = "tasks_seq", sequenceName = "tasks_seq", allocationSize = 50)
     private long id;
 
     @Column(nullable = false)
@@ -42,18 +51,63 @@ public class Task {
     @Column(name = "max_retries")
     private Integer maxRetries = 3;
 
+    // SKIP, QUEUE_ONE or ALLOW; see OverlapPolicy
+    @Column(name = "overlap_policy", length = 20)
+    private String overlapPolicy = "SKIP";
+
+    // FIRE_ONCE, FIRE_ALL or SKIP_TO_NEXT; see MisfirePolicy
+    @Column(name = "misfire_policy", length = 20)
+    private String misfirePolicy = "FIRE_ONCE";
+
+    // Execution timeout in milliseconds; null falls back to the task type's timeout
+    @Column(name = "timeout_ms")
+    private Long timeoutMs;
+
     @Column(name = "next_execution_time")
     private LocalDateTime nextExecutionTime;
 
     @Column(name = "last_execution_time")
     private LocalDateTime lastExecutionTime;
 
+    // Node currently holding the execution lease, null when unclaimed
+    @Column(name = "owner_node", length = 100)
+    private String ownerNode;
+
+    @Column(name = "lease_expires_at")
+    private LocalDateTime leaseExpiresAt;
+
+    // Fire time the current execution was due at, captured when the task is claimed
+    @Transient
+    private LocalDateTime scheduledFireTime;
+
+    // Retry number of the current execution, 0 for a regular fire
+    @Transient
+    private int retryAttempt;
+
+    // Whether the current execution was claimed as a misfire, so its start is ramped
+    @Transient
+    private boolean misfired;
+
+    // Further missed fire times still to run after the current execution (FIRE_ALL catch-up)
+    @Transient
+    private List<LocalDateTime> missedFireTimes = List.of();
+
+    // DAG run the current execution belongs to, null unless it was started by its upstream tasks
+    @Transient
+    private Long dagRunId;
+
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
 
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // Optimistic lock; bumped by API edits and by the engine's post-execution update
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long version;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -65,5 +119,15 @@ public class Task {
         updatedAt = LocalDateTime.now();
     }
 
+    /**
+     * Detached copy of the task, execution fields included, for handing one fire to another thread
+     */
+    public Task copy() {
+        return new Task(id, name, description, cronExpression, taskType, priority, status, retryCount, maxRetries,
+                overlapPolicy, misfirePolicy, timeoutMs, nextExecutionTime, lastExecutionTime, ownerNode,
+                leaseExpiresAt, scheduledFireTime, retryAttempt, misfired, missedFireTimes, dagRunId, createdAt,
+                updatedAt, version);
+    }
+
 
 }
@@ -0,0 +1,42 @@
+package com.sumit.taskscheduler.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Edge of the task DAG: the downstream task runs once every one of its upstream tasks has
+ * completed in the same DAG run. A task with upstream tasks is only ever started by its parents.
+ */
+@Entity
+@Table(name = "task_dependencies",
+        uniqueConstraints = @UniqueConstraint(name = "uk_task_dependency",
+                columnNames = {"upstream_task_id", "downstream_task_id"}),
+        indexes = @Index(name = "idx_task_dependency_downstream", columnList = "downstream_task_id"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskDependency {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "upstream_task_id", nullable = false)
+    private Long upstreamTaskId;
+
+    @Column(name = "downstream_task_id", nullable = false)
+    private Long downstreamTaskId;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    public TaskDependency(Long upstreamTaskId, Long downstreamTaskId) {
+        this.upstreamTaskId = upstreamTaskId;
+        this.downstreamTaskId = downstreamTaskId;
+        this.createdAt = LocalDateTime.now();
+    }
+}
@@ -9,7 +9,14 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "task_execution_history")
+@Table(name = "task_execution_history",
+        indexes = {
+                @Index(name = "idx_history_execution_id", columnList = "execution_id"),
+                // Range exports scan history in execution time order
+                @Index(name = "idx_history_execution_time", columnList = "execution_time, id"),
+                // The recovery sweep looks for RUNNING rows whose heartbeat has gone stale
+                @Index(name = "idx_history_status_heartbeat", columnList = "status, heartbeat_at")
+        })
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -20,6 +27,10 @@ public class TaskExecutionHistory {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // Client-generated id correlating the start and completion writes of one execution
+    @Column(name = "execution_id", length = 36)
+    private String executionId;
+
     @Column(name = "task_id", nullable = false)
     private Long taskId;
 
@@ -27,7 +38,18 @@ public class TaskExecutionHistory {
     private LocalDateTime executionTime;
 
     @Column(nullable = false, length = 20)
-    private String status; // SUCCESS, FAILED, RUNNING
+    private String status; // SUCCESS, FAILED, RUNNING, TIMED_OUT, CANCELLED, ABANDONED
+
+    // Node running the execution, and when it last reported it still running
+    @Column(name = "owner_node")
+    private String ownerNode;
+
+    @Column(name = "heartbeat_at")
+    private LocalDateTime heartbeatAt;
+
+    // DAG run the execution belongs to, if any
+    @Column(name = "dag_run_id")
+    private Long dagRunId;
 
     @Column(name = "error_message", columnDefinition = "TEXT")
     private String errorMessage;
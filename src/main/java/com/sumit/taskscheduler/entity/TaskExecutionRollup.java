@@ -0,0 +1,56 @@
+package com.sumit.taskscheduler.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Aggregate of one task's executions over an hour or a day, kept after the raw history rows age out
+ */
+@Entity
+@Table(name = "task_execution_rollup",
+        uniqueConstraints = @UniqueConstraint(name = "uk_rollup_task_bucket",
+                columnNames = {"task_id", "granularity", "bucket_start"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskExecutionRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "task_id", nullable = false)
+    private Long taskId;
+
+    @Column(nullable = false, length = 10)
+    private String granularity; // HOUR, DAY
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(nullable = false)
+    private long executions;
+
+    // FAILED, TIMED_OUT and ABANDONED executions
+    @Column(nullable = false)
+    private long failures;
+
+    @Column(name = "p50_ms")
+    private Double p50Ms;
+
+    @Column(name = "p95_ms")
+    private Double p95Ms;
+
+    @Column(name = "p99_ms")
+    private Double p99Ms;
+
+    @Column(name = "max_ms")
+    private Long maxMs;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+}
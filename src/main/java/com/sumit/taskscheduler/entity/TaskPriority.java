@@ -0,0 +1,25 @@
+package com.sumit.taskscheduler.entity;
+
+/**
+ * Priority classes for tasks, ordered from most to least urgent.
+ * Stored on {@link Task} as its name.
+ */
+public enum TaskPriority {
+    HIGH,
+    MEDIUM,
+    LOW;
+
+    /**
+     * Parse a stored priority, falling back to MEDIUM for null or unknown values
+     */
+    public static TaskPriority from(String priority) {
+        if (priority == null) {
+            return MEDIUM;
+        }
+        try {
+            return valueOf(priority.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return MEDIUM;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.sumit.taskscheduler.executor;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs short dispatch actions after a delay.
+ *
+ * Waiting work sits in a single timer thread's delay queue rather than on a worker, so
+ * thousands of pending retries cost no threads. Once due, an action is handed to a small
+ * dispatch pool, where it may re-read its task or advance a DAG run without holding up the
+ * actions behind it. Actions must still only hand work on (e.g. to executeAsync) and never
+ * run a task themselves. Execution timeouts have their own timer, see {@link TimeoutWatchdog}.
+ */
+@Component
+@Slf4j
+public class DelayedTaskDispatcher {
+
+    private static final int DISPATCH_THREADS = 2;
+
+    private final ScheduledThreadPoolExecutor timer;
+    private final ThreadPoolExecutor dispatchPool;
+
+    public DelayedTaskDispatcher() {
+        timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "TaskDelayedDispatcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer.setRemoveOnCancelPolicy(true);
+
+        AtomicInteger counter = new AtomicInteger();
+        dispatchPool = new ThreadPoolExecutor(DISPATCH_THREADS, DISPATCH_THREADS, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "TaskDelayedDispatch-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Run the action on the dispatch pool once the delay has passed
+     */
+    public ScheduledFuture<?> schedule(Runnable action, Duration delay) {
+        return timer.schedule(() -> dispatchPool.execute(() -> {
+            try {
+                action.run();
+            } catch (Exception e) {
+                log.error("Delayed dispatch failed: {}", e.getMessage(), e);
+            }
+        }), delay.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Number of actions waiting for their delay to pass or for a dispatch thread
+     */
+    public int pendingCount() {
+        return timer.getQueue().size() + dispatchPool.getQueue().size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        int dropped = timer.shutdownNow().size() + dispatchPool.shutdownNow().size();
+        if (dropped > 0) {
+            log.warn("Dropped {} delayed dispatch(es) on shutdown", dropped);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.sumit.taskscheduler.executor;
+
+import com.sumit.taskscheduler.entity.OverlapPolicy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Executions of each task accepted by this node and not yet finished, whether still queued
+ * or already running. The engine consults it before queuing a task so a fire arriving while
+ * the previous one is in flight is handled by the task's {@link OverlapPolicy} instead of
+ * being queued twice.
+ */
+class InFlightRegistry {
+
+    enum Decision {
+        // Dispatch now
+        DISPATCH,
+        // Held until the execution in flight finishes
+        DEFERRED,
+        // Dropped
+        SKIPPED
+    }
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Register a new execution of the item's task, deciding by policy if one is already in flight
+     */
+    Decision admit(TaskExecutionEngine.DispatchItem item, OverlapPolicy policy) {
+        Decision[] decision = new Decision[1];
+        entries.compute(item.task().getId(), (taskId, entry) -> {
+            if (entry == null) {
+                entry = new Entry();
+            }
+            if (entry.active == 0 || policy == OverlapPolicy.ALLOW) {
+                entry.active++;
+                decision[0] = Decision.DISPATCH;
+            } else if (policy == OverlapPolicy.QUEUE_ONE && entry.deferred == null) {
+                entry.deferred = item;
+                decision[0] = Decision.DEFERRED;
+            } else {
+                decision[0] = Decision.SKIPPED;
+            }
+            return entry;
+        });
+        return decision[0];
+    }
+
+    /**
+     * Unregister a finished execution of the task
+     *
+     * @return The deferred follow-up, now registered as in flight and due to be dispatched, or null
+     */
+    TaskExecutionEngine.DispatchItem finish(long taskId) {
+        TaskExecutionEngine.DispatchItem[] next = new TaskExecutionEngine.DispatchItem[1];
+        entries.computeIfPresent(taskId, (id, entry) -> {
+            entry.active--;
+            if (entry.deferred != null) {
+                next[0] = entry.deferred;
+                entry.deferred = null;
+                entry.active++;
+            }
+            return entry.active > 0 ? entry : null;
+        });
+        return next[0];
+    }
+
+    boolean isInFlight(long taskId) {
+        return entries.containsKey(taskId);
+    }
+
+    /**
+     * Number of tasks with at least one execution in flight
+     */
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * Remove and return every deferred follow-up
+     */
+    List<TaskExecutionEngine.DispatchItem> drainDeferred() {
+        List<TaskExecutionEngine.DispatchItem> drained = new ArrayList<>();
+        entries.forEach((taskId, entry) -> entries.computeIfPresent(taskId, (id, current) -> {
+            if (current.deferred != null) {
+                drained.add(current.deferred);
+                current.deferred = null;
+            }
+            return current;
+        }));
+        return drained;
+    }
+
+    private static final class Entry {
+        int active;
+        TaskExecutionEngine.DispatchItem deferred;
+    }
+}
@@ -0,0 +1,224 @@
+package com.sumit.taskscheduler.executor;
+
+import com.sumit.taskscheduler.entity.TaskPriority;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Blocking queue with one FIFO lane per {@link TaskPriority}.
+ *
+ * STRICT always serves the most urgent non-empty lane; WEIGHTED shares dispatches between
+ * non-empty lanes in proportion to their weights (smooth weighted round-robin).
+ * In both policies a waiting item is promoted one priority class for every agingMillis
+ * it has waited, and items aged up to HIGH are served first, so LOW work cannot starve.
+ */
+public class PriorityDispatchQueue<T> {
+
+    public enum Policy {
+        STRICT,
+        WEIGHTED
+    }
+
+    private static final TaskPriority[] PRIORITIES = TaskPriority.values();
+
+    private final Policy policy;
+    private final int[] weights;
+    private final long agingNanos;
+
+    private final List<ArrayDeque<Entry<T>>> lanes = new ArrayList<>();
+    private final int[] currentWeights;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private int size = 0;
+
+    /**
+     * @param policy      Lane selection policy
+     * @param weights     Weight per priority class in {@link TaskPriority} order (WEIGHTED only)
+     * @param agingMillis Wait time after which an item is promoted one class; 0 disables aging
+     */
+    public PriorityDispatchQueue(Policy policy, int[] weights, long agingMillis) {
+        if (weights.length != PRIORITIES.length) {
+            throw new IllegalArgumentException("Expected " + PRIORITIES.length + " weights, got " + weights.length);
+        }
+        this.policy = policy;
+        this.weights = weights.clone();
+        this.agingNanos = agingMillis * 1_000_000L;
+        this.currentWeights = new int[PRIORITIES.length];
+        for (int i = 0; i < PRIORITIES.length; i++) {
+            lanes.add(new ArrayDeque<>());
+        }
+    }
+
+    public void offer(T item, TaskPriority priority) {
+        lock.lock();
+        try {
+            lanes.get(priority.ordinal()).addLast(new Entry<>(item, System.nanoTime()));
+            size++;
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Wait for an item and remove the one the policy selects
+     */
+    public T take() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (size == 0) {
+                notEmpty.await();
+            }
+            return removeNext();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Remove the next item, or return null if the queue is empty
+     */
+    public T poll() {
+        lock.lock();
+        try {
+            return size == 0 ? null : removeNext();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Remove the item that has waited longest regardless of priority, or return null if the queue is empty
+     */
+    public T pollOldest() {
+        lock.lock();
+        try {
+            ArrayDeque<Entry<T>> oldestLane = null;
+            for (ArrayDeque<Entry<T>> lane : lanes) {
+                Entry<T> head = lane.peekFirst();
+                if (head != null && (oldestLane == null || head.enqueuedAt < oldestLane.peekFirst().enqueuedAt)) {
+                    oldestLane = lane;
+                }
+            }
+            if (oldestLane == null) {
+                return null;
+            }
+            size--;
+            return oldestLane.pollFirst().item;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Remove every queued item, in lane order
+     */
+    public List<T> drain() {
+        lock.lock();
+        try {
+            List<T> drained = new ArrayList<>(size);
+            for (ArrayDeque<Entry<T>> lane : lanes) {
+                lane.forEach(entry -> drained.add(entry.item));
+                lane.clear();
+            }
+            size = 0;
+            return drained;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size(TaskPriority priority) {
+        lock.lock();
+        try {
+            return lanes.get(priority.ordinal()).size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private T removeNext() {
+        int lane = selectLane(System.nanoTime());
+        size--;
+        return lanes.get(lane).pollFirst().item;
+    }
+
+    private int selectLane(long now) {
+        // Heads are the oldest item of each lane; serve any head that has aged up to HIGH first
+        int agedLane = -1;
+        long oldest = Long.MAX_VALUE;
+        for (int i = 1; i < lanes.size(); i++) {
+            Entry<T> head = lanes.get(i).peekFirst();
+            if (head != null && effectiveClass(i, head, now) == 0 && head.enqueuedAt < oldest) {
+                agedLane = i;
+                oldest = head.enqueuedAt;
+            }
+        }
+        if (agedLane >= 0) {
+            Entry<T> highHead = lanes.get(0).peekFirst();
+            if (highHead == null || highHead.enqueuedAt > oldest) {
+                return agedLane;
+            }
+        }
+
+        return policy == Policy.STRICT ? selectStrict(now) : selectWeighted();
+    }
+
+    private int selectStrict(long now) {
+        int best = -1;
+        int bestClass = Integer.MAX_VALUE;
+        for (int i = 0; i < lanes.size(); i++) {
+            Entry<T> head = lanes.get(i).peekFirst();
+            if (head == null) {
+                continue;
+            }
+            int effective = effectiveClass(i, head, now);
+            if (effective < bestClass) {
+                best = i;
+                bestClass = effective;
+            }
+        }
+        return best;
+    }
+
+    private int selectWeighted() {
+        int best = -1;
+        int total = 0;
+        for (int i = 0; i < lanes.size(); i++) {
+            if (lanes.get(i).isEmpty()) {
+                continue;
+            }
+            currentWeights[i] += weights[i];
+            total += weights[i];
+            if (best < 0 || currentWeights[i] > currentWeights[best]) {
+                best = i;
+            }
+        }
+        currentWeights[best] -= total;
+        return best;
+    }
+
+    private int effectiveClass(int lane, Entry<T> head, long now) {
+        if (agingNanos <= 0) {
+            return lane;
+        }
+        long promotions = (now - head.enqueuedAt) / agingNanos;
+        return (int) Math.max(0, lane - promotions);
+    }
+
+    private record Entry<T>(T item, long enqueuedAt) {
+    }
+}
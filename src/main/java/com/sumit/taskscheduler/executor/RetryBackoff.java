@@ -0,0 +1,37 @@
+package com.sumit.taskscheduler.executor;
+
+import com.sumit.taskscheduler.config.SchedulerProperties;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Exponential backoff with jitter: retry n waits initialDelay * multiplier^(n-1), capped at
+ * maxDelay, then spread by up to +/- jitter of itself so that tasks failing together do not
+ * all come back at the same instant.
+ */
+public class RetryBackoff {
+
+    private final long initialDelayMs;
+    private final double multiplier;
+    private final long maxDelayMs;
+    private final double jitter;
+
+    public RetryBackoff(SchedulerProperties.Retry retry) {
+        this.initialDelayMs = Math.max(0, retry.getInitialDelayMs());
+        this.multiplier = Math.max(1.0, retry.getMultiplier());
+        this.maxDelayMs = Math.max(initialDelayMs, retry.getMaxDelayMs());
+        this.jitter = Math.clamp(retry.getJitter(), 0.0, 1.0);
+    }
+
+    /**
+     * Delay before the given retry
+     *
+     * @param attempt Retry number, starting at 1
+     */
+    public Duration delayFor(int attempt) {
+        double base = Math.min(maxDelayMs, initialDelayMs * Math.pow(multiplier, Math.max(0, attempt - 1)));
+        double spread = base * jitter * (2 * ThreadLocalRandom.current().nextDouble() - 1);
+        return Duration.ofMillis(Math.round(Math.min(maxDelayMs, base + spread)));
+    }
+}
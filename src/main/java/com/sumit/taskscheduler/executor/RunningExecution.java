@@ -0,0 +1,79 @@
+package com.sumit.taskscheduler.executor;
+
+import com.sumit.taskscheduler.entity.Task;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * A handler invocation in progress on this node.
+ *
+ * Timeouts and cancellation interrupt the worker thread; handlers are expected to respond
+ * to interrupts (blocking I/O, sleeps, waits). The interrupt is only delivered while the
+ * handler is still running, never once the engine has moved on to record the outcome.
+ */
+@Getter
+public class RunningExecution {
+
+    public enum State {
+        RUNNING,
+        FINISHED,
+        TIMED_OUT,
+        CANCELLED
+    }
+
+    private final String executionId;
+    private final long taskId;
+    private final String taskType;
+    private final String threadName;
+    private final LocalDateTime startedAt;
+    // Null when the execution has no timeout
+    private final LocalDateTime deadline;
+
+    @Getter(AccessLevel.NONE)
+    private final Thread worker;
+
+    @Getter(AccessLevel.NONE)
+    private State state = State.RUNNING;
+
+    RunningExecution(String executionId, Task task, Thread worker, LocalDateTime startedAt, LocalDateTime deadline) {
+        this.executionId = executionId;
+        this.taskId = task.getId();
+        this.taskType = task.getTaskType();
+        this.threadName = worker.getName();
+        this.worker = worker;
+        this.startedAt = startedAt;
+        this.deadline = deadline;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * Stop the handler for the given reason by interrupting its thread
+     *
+     * @return false if the handler had already returned or was stopped before
+     */
+    synchronized boolean terminate(State reason) {
+        if (state != State.RUNNING) {
+            return false;
+        }
+        state = reason;
+        worker.interrupt();
+        return true;
+    }
+
+    /**
+     * Mark the handler as returned, after which it can no longer be interrupted
+     *
+     * @return Final state: FINISHED, or the reason it was terminated
+     */
+    synchronized State finish() {
+        if (state == State.RUNNING) {
+            state = State.FINISHED;
+        }
+        return state;
+    }
+}
@@ -0,0 +1,176 @@
+package com.sumit.taskscheduler.executor;
+
+import com.sumit.taskscheduler.entity.TaskPriority;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Isolated dispatch lane for one or more task types: its own priority queue, its own
+ * concurrency permits and its own dispatcher thread, so a burst of one type cannot
+ * hold the workers or the queue slots of another.
+ *
+ * When the queue is at capacity the overflow policy decides which task is given up:
+ * REJECT refuses the arriving task, DISCARD_OLDEST drops the one that has waited longest.
+ */
+@Slf4j
+class TaskBulkhead {
+
+    enum OverflowPolicy {
+        REJECT,
+        DISCARD_OLDEST;
+
+        static OverflowPolicy from(String value) {
+            return valueOf(value.trim().toUpperCase().replace('-', '_'));
+        }
+    }
+
+    private final String name;
+    private final int maxConcurrency;
+    private final int queueCapacity;
+    private final OverflowPolicy overflowPolicy;
+    private final PriorityDispatchQueue<TaskExecutionEngine.DispatchItem> queue;
+    private final Semaphore permits;
+    private final ExecutorService executor;
+    private final Consumer<TaskExecutionEngine.DispatchItem> runner;
+    private final Consumer<TaskExecutionEngine.DispatchItem> rejectionHandler;
+
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private Thread dispatcherThread;
+
+    /**
+     * @param queueCapacity    Maximum number of waiting tasks; 0 means unbounded
+     * @param executor         Executor running the tasks, possibly shared with other bulkheads
+     * @param runner           Runs one dispatched task on a worker
+     * @param rejectionHandler Called with every task given up on overflow
+     */
+    TaskBulkhead(String name, int maxConcurrency, int queueCapacity, OverflowPolicy overflowPolicy,
+                 PriorityDispatchQueue<TaskExecutionEngine.DispatchItem> queue, ExecutorService executor,
+                 Consumer<TaskExecutionEngine.DispatchItem> runner,
+                 Consumer<TaskExecutionEngine.DispatchItem> rejectionHandler) {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("Bulkhead " + name + " needs a positive max concurrency");
+        }
+        this.name = name;
+        this.maxConcurrency = maxConcurrency;
+        this.queueCapacity = queueCapacity;
+        this.overflowPolicy = overflowPolicy;
+        this.queue = queue;
+        this.permits = new Semaphore(maxConcurrency);
+        this.executor = executor;
+        this.runner = runner;
+        this.rejectionHandler = rejectionHandler;
+    }
+
+    void start() {
+        dispatcherThread = new Thread(this::dispatchLoop, "TaskDispatcher-" + name);
+        dispatcherThread.setDaemon(true);
+        dispatcherThread.start();
+    }
+
+    /**
+     * Queue a task, applying the overflow policy if the queue is full
+     */
+    void submit(TaskExecutionEngine.DispatchItem item, TaskPriority priority) {
+        TaskExecutionEngine.DispatchItem discarded = null;
+        synchronized (this) {
+            if (queueCapacity > 0 && queue.size() >= queueCapacity) {
+                if (overflowPolicy == OverflowPolicy.REJECT) {
+                    discarded = item;
+                } else {
+                    discarded = queue.pollOldest();
+                    queue.offer(item, priority);
+                }
+            } else {
+                queue.offer(item, priority);
+            }
+        }
+
+        if (discarded != null) {
+            rejected.incrementAndGet();
+            rejectionHandler.accept(discarded);
+        }
+    }
+
+    /**
+     * Hand queued tasks to the executor, one per free concurrency permit
+     */
+    private void dispatchLoop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            TaskExecutionEngine.DispatchItem item;
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            try {
+                item = queue.take();
+            } catch (InterruptedException e) {
+                permits.release();
+                Thread.currentThread().interrupt();
+                break;
+            }
+
+            try {
+                executor.execute(() -> run(item));
+            } catch (RejectedExecutionException e) {
+                // Executor shut down or saturated: give the task up like an overflow
+                permits.release();
+                rejected.incrementAndGet();
+                rejectionHandler.accept(item);
+            }
+        }
+        log.debug("Task dispatcher {} stopped", name);
+    }
+
+    private void run(TaskExecutionEngine.DispatchItem item) {
+        running.incrementAndGet();
+        try {
+            runner.accept(item);
+        } finally {
+            running.decrementAndGet();
+            completed.incrementAndGet();
+            permits.release();
+        }
+    }
+
+    /**
+     * Stop dispatching and return the tasks still waiting
+     */
+    List<TaskExecutionEngine.DispatchItem> stop() {
+        if (dispatcherThread != null) {
+            dispatcherThread.interrupt();
+        }
+        return queue.drain();
+    }
+
+    String getName() {
+        return name;
+    }
+
+    int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    int getRunning() {
+        return running.get();
+    }
+
+    int getQueued() {
+        return queue.size();
+    }
+
+    TaskExecutionEngine.BulkheadStats getStats() {
+        return new TaskExecutionEngine.BulkheadStats(name, maxConcurrency, running.get(), queue.size(),
+                queueCapacity, overflowPolicy.name(), completed.get(), rejected.get());
+    }
+}
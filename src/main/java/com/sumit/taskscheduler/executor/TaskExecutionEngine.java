@@ -1,19 +1,35 @@
 package com.sumit.taskscheduler.executor;
 
+import com.sumit.taskscheduler.cache.TaskCache;
+import com.sumit.taskscheduler.config.SchedulerProperties;
+import com.sumit.taskscheduler.dag.DagCoordinator;
+import com.sumit.taskscheduler.entity.OverlapPolicy;
 import com.sumit.taskscheduler.entity.Task;
 import com.sumit.taskscheduler.entity.TaskExecutionHistory;
+import com.sumit.taskscheduler.entity.TaskPriority;
 import com.sumit.taskscheduler.handler.TaskHandler;
-import com.sumit.taskscheduler.repository.TaskExecutionHistoryRepository;
+import com.sumit.taskscheduler.history.ExecutionHistoryWriter;
+import com.sumit.taskscheduler.metrics.SchedulerMetrics;
 import com.sumit.taskscheduler.repository.TaskRepository;
+import com.sumit.taskscheduler.repository.TaskStateRepository;
 import com.sumit.taskscheduler.util.CronExpressionUtil;
+import io.micrometer.core.instrument.Tags;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
 import java.util.concurrent.*;
 
 @Component
@@ -21,25 +37,178 @@ import java.util.concurrent.*;
 public class TaskExecutionEngine {
 
     private final TaskRepository taskRepository;
-    private final TaskExecutionHistoryRepository executionHistoryRepository;
+    private final TaskStateRepository taskStateRepository;
+    private final ExecutionHistoryWriter historyWriter;
+    private final SchedulerMetrics metrics;
+    private final DelayedTaskDispatcher delayedDispatcher;
+    private final TimeoutWatchdog timeoutWatchdog;
+    private final TaskCache taskCache;
+    private final DagCoordinator dagCoordinator;
     private final List<TaskHandler> taskHandlers;
+    private final SchedulerProperties.Executor executorProperties;
+    private final SchedulerProperties.Dispatch dispatchProperties;
+    private final Map<String, SchedulerProperties.Bulkhead> bulkheadProperties;
+    private final SchedulerProperties.Retry retryProperties;
+    private final SchedulerProperties.Timeout timeoutProperties;
+    private final SchedulerProperties.Misfire misfireProperties;
+    private final long heartbeatIntervalMs;
+    private final Map<String, Long> timeoutsByType = new HashMap<>();
+    private final RetryBackoff retryBackoff;
+
+    private static final int MAX_STATE_UPDATE_ATTEMPTS = 3;
+    private static final String DEFAULT_BULKHEAD = "default";
+
+    // Handlers by upper-case task type; types without one fall back to the first handler that supports them
+    private final Map<String, TaskHandler> handlersByType = new HashMap<>();
 
     private ExecutorService executorService;
-    private static final int THREAD_POOL_SIZE = 10;
+    private int maxConcurrency;
+
+    // Admission: tasks accepted and not yet finished (ramping, queued or running) across all bulkheads
+    private Semaphore admission;
+    private int admissionLimit;
+
+    // Own pools of the configured bulkheads in platform mode; virtual threads are shared
+    private final List<ExecutorService> bulkheadExecutors = new ArrayList<>();
+
+    // Tasks wait in their type's bulkhead, ordered by priority class, until one of its permits frees up
+    private TaskBulkhead defaultBulkhead;
+    private final Map<String, TaskBulkhead> bulkheadsByType = new HashMap<>();
+
+    // Executions accepted and not yet finished, by task, so a task is never queued twice by accident
+    private final InFlightRegistry inFlight = new InFlightRegistry();
+
+    // Handlers running on this node and the timeouts armed for them, by executionId
+    private final Map<String, RunningExecution> runningExecutions = new ConcurrentHashMap<>();
+    private final Map<String, ScheduledFuture<?>> watchdogs = new ConcurrentHashMap<>();
+
+    // Own thread for execution heartbeats, so no other scheduled job can delay them past stale-after-ms
+    private ScheduledExecutorService heartbeatThread;
 
     public TaskExecutionEngine(
             TaskRepository taskRepository,
-            TaskExecutionHistoryRepository executionHistoryRepository,
-            List<TaskHandler> taskHandlers) {
+            TaskStateRepository taskStateRepository,
+            ExecutionHistoryWriter historyWriter,
+            SchedulerMetrics metrics,
+            DelayedTaskDispatcher delayedDispatcher,
+            TimeoutWatchdog timeoutWatchdog,
+            TaskCache taskCache,
+            DagCoordinator dagCoordinator,
+            List<TaskHandler> taskHandlers,
+            SchedulerProperties properties) {
         this.taskRepository = taskRepository;
-        this.executionHistoryRepository = executionHistoryRepository;
+        this.taskStateRepository = taskStateRepository;
+        this.historyWriter = historyWriter;
+        this.metrics = metrics;
+        this.delayedDispatcher = delayedDispatcher;
+        this.timeoutWatchdog = timeoutWatchdog;
+        this.taskCache = taskCache;
+        this.dagCoordinator = dagCoordinator;
         this.taskHandlers = taskHandlers;
+        this.executorProperties = properties.getExecutor();
+        this.dispatchProperties = properties.getDispatch();
+        this.bulkheadProperties = properties.getBulkheads();
+        this.retryProperties = properties.getRetry();
+        this.retryBackoff = new RetryBackoff(retryProperties);
+        this.timeoutProperties = properties.getTimeout();
+        this.misfireProperties = properties.getMisfire();
+        this.heartbeatIntervalMs = properties.getRecovery().getHeartbeatIntervalMs();
+        timeoutProperties.getTaskTypes().forEach((taskType, timeoutMs) -> timeoutsByType.put(taskType.toUpperCase(), timeoutMs));
+        for (TaskHandler handler : taskHandlers) {
+            handlersByType.putIfAbsent(handler.getTaskType().toUpperCase(), handler);
+        }
     }
 
     @PostConstruct
     public void init() {
-        log.info("Initializing Task Execution Engine with thread pool size: {}", THREAD_POOL_SIZE);
+        if (isVirtualThreadMode()) {
+            initVirtualThreadExecutor();
+        } else {
+            initPlatformThreadPool();
+        }
+
+        PriorityDispatchQueue.Policy policy =
+                PriorityDispatchQueue.Policy.valueOf(dispatchProperties.getPolicy().toUpperCase());
+
+        // Task types without a bulkhead of their own share the executor's pool
+        defaultBulkhead = newBulkhead(DEFAULT_BULKHEAD, maxConcurrency, executorProperties.getQueueCapacity(),
+                TaskBulkhead.OverflowPolicy.REJECT, policy, executorService);
+        bulkheadProperties.forEach((taskType, config) -> {
+            ExecutorService bulkheadExecutor = executorService;
+            if (!isVirtualThreadMode()) {
+                bulkheadExecutor = newFixedPool(config.getMaxConcurrency(), "TaskExecutor-" + taskType.toUpperCase() + "-");
+                bulkheadExecutors.add(bulkheadExecutor);
+            }
+            TaskBulkhead bulkhead = newBulkhead(taskType.toUpperCase(), config.getMaxConcurrency(),
+                    config.getQueueCapacity(), TaskBulkhead.OverflowPolicy.from(config.getOverflowPolicy()),
+                    policy, bulkheadExecutor);
+            bulkheadsByType.put(taskType.toUpperCase(), bulkhead);
+            log.info("Bulkhead for {} tasks: max concurrency {}, queue capacity {}, overflow {}",
+                    bulkhead.getName(), config.getMaxConcurrency(), config.getQueueCapacity(),
+                    config.getOverflowPolicy());
+        });
+
+        // Room for every worker slot plus the waiting queue, misfired tasks waiting out their ramp included;
+        // beyond that due tasks stay in the database
+        admissionLimit = executorProperties.getQueueCapacity() + maxConcurrency
+                + bulkheadsByType.values().stream().mapToInt(TaskBulkhead::getMaxConcurrency).sum();
+        admission = new Semaphore(admissionLimit);
+        metrics.gauge("scheduler.admission.admitted", "Tasks admitted to the engine and not yet finished",
+                () -> admissionLimit - admission.availablePermits());
+        metrics.gauge("scheduler.admission.capacity", "Tasks the engine can still admit", this::availableCapacity);
+        metrics.gauge("scheduler.tasks.inflight", "Tasks with an execution queued or running on this node", inFlight::size);
+
+        heartbeatThread = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ExecutionHeartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeatThread.scheduleWithFixedDelay(this::heartbeatRunningExecutions,
+                heartbeatIntervalMs, heartbeatIntervalMs, TimeUnit.MILLISECONDS);
+
+        log.info("Task Execution Engine initialized successfully ({} dispatch, aging after {}ms, admission limit {})",
+                policy, dispatchProperties.getAgingMs(), admissionLimit);
+    }
+
+    private TaskBulkhead newBulkhead(String name, int concurrency, int queueCapacity,
+                                     TaskBulkhead.OverflowPolicy overflowPolicy,
+                                     PriorityDispatchQueue.Policy policy, ExecutorService executor) {
+        PriorityDispatchQueue<DispatchItem> queue = new PriorityDispatchQueue<>(policy,
+                dispatchProperties.getWeights(), dispatchProperties.getAgingMs());
+        TaskBulkhead bulkhead = new TaskBulkhead(name, concurrency, queueCapacity, overflowPolicy, queue,
+                executor, this::runDispatched, item -> rejectDispatched(item, "bulkhead " + name + " is full"));
+        bulkhead.start();
+
+        Tags tags = Tags.of("bulkhead", name);
+        metrics.gauge("scheduler.dispatch.queue.size", "Tasks waiting for a worker", tags, bulkhead::getQueued);
+        metrics.gauge("scheduler.tasks.running", "Tasks currently executing", tags, bulkhead::getRunning);
+        return bulkhead;
+    }
+
+    private boolean isVirtualThreadMode() {
+        return "virtual".equalsIgnoreCase(executorProperties.getMode());
+    }
+
+    /**
+     * One virtual thread per task; the concurrency permits cap how many run handlers at once
+     */
+    private void initVirtualThreadExecutor() {
+        maxConcurrency = executorProperties.getMaxConcurrency();
+        log.info("Initializing Task Execution Engine with virtual threads, max concurrency: {}", maxConcurrency);
 
+        executorService = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("TaskExecutor-v", 1).factory());
+    }
+
+    private void initPlatformThreadPool() {
+        int poolSize = executorProperties.getPoolSize();
+        maxConcurrency = poolSize;
+        log.info("Initializing Task Execution Engine with thread pool size: {}", poolSize);
+
+        executorService = newFixedPool(poolSize, "TaskExecutor-");
+    }
+
+    private static ExecutorService newFixedPool(int poolSize, String threadNamePrefix) {
         // Create thread pool with custom thread factory for better debugging
         ThreadFactory threadFactory = new ThreadFactory() {
             private int counter = 0;
@@ -47,38 +216,180 @@ public class TaskExecutionEngine {
             @Override
             public Thread newThread(Runnable r) {
                 Thread thread = new Thread(r);
-                thread.setName("TaskExecutor-" + (++counter));
+                thread.setName(threadNamePrefix + (++counter));
                 thread.setDaemon(false);
                 return thread;
             }
         };
 
-        executorService = new ThreadPoolExecutor(
-                THREAD_POOL_SIZE,           // Core pool size
-                THREAD_POOL_SIZE,           // Maximum pool size
+        // Bulkhead permits keep at most poolSize tasks submitted; the queue only absorbs the hand-over
+        // between a task releasing its permit and its thread returning to the pool
+        return new ThreadPoolExecutor(
+                poolSize,                   // Core pool size
+                poolSize,                   // Maximum pool size
                 60L,                        // Keep alive time
                 TimeUnit.SECONDS,
-                new LinkedBlockingQueue<>(),
+                new LinkedBlockingQueue<>(poolSize),
                 threadFactory,
-                new ThreadPoolExecutor.CallerRunsPolicy() // Rejection policy
+                new ThreadPoolExecutor.AbortPolicy() // Rejection policy
         );
-
-        log.info("Task Execution Engine initialized successfully");
     }
 
     /**
-     * Execute task asynchronously using thread pool
+     * Queue task for asynchronous execution in its type's bulkhead; it starts as soon as
+     * one of the bulkhead's slots is free and no more urgent task of the bulkhead is waiting.
+     * The task holds one admission permit from this call until its execution finishes.
+     * If the engine is at its admission limit or the bulkhead's queue is full, the returned
+     * future completes with a RejectedExecutionException and the fire is kept for later, see
+     * {@link #rejectDispatched}.
+     *
+     * If an execution of the task is already queued or running, the task's overlap policy decides:
+     * SKIP completes the returned future at once, QUEUE_ONE holds the execution until the one in
+     * flight finishes (dropping it if one is already held) and ALLOW queues it anyway.
+     *
+     * A misfired task is queued at a random point within the misfire ramp window, so catch-up
+     * after downtime arrives as a ramp rather than all at once. It keeps its admission permit
+     * while it waits, so the poller does not claim more than the engine can run.
      */
     public CompletableFuture<Void> executeAsync(Task task) {
-        return CompletableFuture.runAsync(() -> {
-            try {
-                executeTask(task);
-            } catch (Exception e) {
-                log.error("Error in async task execution for task {}: {}",
-                        task.getId(), e.getMessage(), e);
-                throw new CompletionException(e);
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        if (!admission.tryAcquire()) {
+            rejectDispatched(new DispatchItem(task, future, System.nanoTime()),
+                    "engine is at its admission limit of " + admissionLimit);
+            return future;
+        }
+        future.whenComplete((result, error) -> admission.release());
+        long rampWindowMs = misfireProperties.getRampWindowMs();
+        if (task.isMisfired() && rampWindowMs > 0) {
+            Duration delay = Duration.ofMillis(ThreadLocalRandom.current().nextLong(rampWindowMs));
+            log.debug("Task {} misfired, starting its catch-up in {}ms", task.getId(), delay.toMillis());
+            delayedDispatcher.schedule(() -> admit(task, future), delay);
+        } else {
+            admit(task, future);
+        }
+        return future;
+    }
+
+    private void admit(Task task, CompletableFuture<Void> future) {
+        DispatchItem item = new DispatchItem(task, future, System.nanoTime());
+        OverlapPolicy overlapPolicy = OverlapPolicy.from(task.getOverlapPolicy());
+
+        switch (inFlight.admit(item, overlapPolicy)) {
+            case DISPATCH -> dispatch(item);
+            case DEFERRED -> {
+                log.debug("Task {} is still in flight, holding its next execution", task.getId());
+                metrics.recordOverlap(task, "deferred");
+            }
+            case SKIPPED -> {
+                log.info("⏭️ Task {} is still in flight, skipping this fire (overlap policy {})",
+                        task.getId(), overlapPolicy);
+                metrics.recordOverlap(task, "skipped");
+                future.complete(null);
+                if (task.getDagRunId() != null) {
+                    advanceDag(task, false);
+                }
+            }
+        }
+    }
+
+    /**
+     * Hand an execution registered as in flight, and holding its admission permit, to its bulkhead
+     */
+    private void dispatch(DispatchItem item) {
+        long taskId = item.task().getId();
+        item.future().whenComplete((result, error) -> {
+            DispatchItem next = inFlight.finish(taskId);
+            if (next != null) {
+                dispatch(next);
+            }
+            if (error == null && !item.task().getMissedFireTimes().isEmpty()) {
+                // FIRE_ALL catch-up: the missed fires run one after the other
+                List<LocalDateTime> missed = item.task().getMissedFireTimes();
+                delayedDispatcher.schedule(() -> dispatchCatchUp(taskId, missed), Duration.ZERO);
+            }
+        });
+        bulkheadFor(item.task()).submit(item, TaskPriority.from(item.task().getPriority()));
+    }
+
+    /**
+     * Whether an execution of the task is queued or running on this node
+     */
+    public boolean isInFlight(long taskId) {
+        return inFlight.isInFlight(taskId);
+    }
+
+    /**
+     * Number of tasks the engine can admit right now; callers should fetch no more than this
+     */
+    public int availableCapacity() {
+        return admission.availablePermits();
+    }
+
+    /**
+     * Block until the engine can admit at least one task
+     */
+    public void awaitCapacity() throws InterruptedException {
+        admission.acquire();
+        admission.release();
+    }
+
+    private TaskBulkhead bulkheadFor(Task task) {
+        String taskType = task.getTaskType() == null ? "" : task.getTaskType().toUpperCase();
+        return bulkheadsByType.getOrDefault(taskType, defaultBulkhead);
+    }
+
+    private void runDispatched(DispatchItem item) {
+        Task task = item.task();
+        metrics.recordQueueWait(task, System.nanoTime() - item.dispatchedAt());
+        try {
+            executeTask(task);
+            item.future().complete(null);
+        } catch (Exception e) {
+            log.error("Error in async task execution for task {}: {}",
+                    task.getId(), e.getMessage(), e);
+            item.future().completeExceptionally(e);
+        }
+    }
+
+    /**
+     * A task the engine cannot take right now. A claimed fire goes back to the database, due at
+     * its scheduled time again, for the next poll on this or another node. A retry, catch-up or
+     * DAG task exists only on this node, so it is offered again after rejected-retry-delay-ms.
+     */
+    private void rejectDispatched(DispatchItem item, String reason) {
+        Task task = item.task();
+        metrics.recordRejection(task, bulkheadFor(task).getName());
+        item.future().completeExceptionally(new RejectedExecutionException("Task " + task.getId() + " rejected: " + reason));
+        if (task.getOwnerNode() != null) {
+            log.warn("⚠️ Returning task {} to the database: {}", task.getId(), reason);
+            returnClaim(task);
+            return;
+        }
+        Duration delay = Duration.ofMillis(executorProperties.getRejectedRetryDelayMs());
+        log.warn("⚠️ Offering task {} again in {}ms: {}", task.getId(), delay.toMillis(), reason);
+        try {
+            delayedDispatcher.schedule(() -> executeAsync(task), delay);
+        } catch (RejectedExecutionException e) {
+            // Shutting down
+            log.warn("Dropping execution of task {}: the engine is shutting down", task.getId());
+            if (task.getDagRunId() != null) {
+                advanceDag(task, false);
             }
-        }, executorService);
+        }
+    }
+
+    private void returnClaim(Task task) {
+        try {
+            if (task.getScheduledFireTime() != null && task.getNextExecutionTime() != null) {
+                taskStateRepository.returnClaim(task.getId(), task.getOwnerNode(), task.getNextExecutionTime(),
+                        task.getScheduledFireTime());
+            } else {
+                taskStateRepository.releaseLease(task.getId(), task.getOwnerNode());
+            }
+        } catch (Exception e) {
+            // The lease still expires on its own, but this fire is skipped
+            log.error("Failed to return rejected task {} to the database: {}", task.getId(), e.getMessage());
+        }
     }
 
     /**
@@ -90,23 +401,47 @@ public class TaskExecutionEngine {
                 threadName, task.getId(), task.getName(), task.getTaskType());
 
         long startTime = System.currentTimeMillis();
+        // Database precision, so updates and heartbeats keyed on execution_time match the stored row
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        if (task.getScheduledFireTime() != null) {
+            metrics.recordSchedulingLag(task, Duration.between(task.getScheduledFireTime(), now));
+        }
         TaskExecutionHistory history = TaskExecutionHistory.builder()
+                .executionId(UUID.randomUUID().toString())
                 .taskId(task.getId())
-                .executionTime(LocalDateTime.now())
+                .executionTime(now)
                 .status("RUNNING")
+                .dagRunId(task.getDagRunId())
+                .createdAt(now)
                 .build();
 
+        RunningExecution execution = null;
         try {
-            // Save execution start
-            history = executionHistoryRepository.save(history);
-            log.debug("[{}] Execution history record created with ID: {}", threadName, history.getId());
+            // Record execution start (written behind, in batches)
+            historyWriter.recordStart(history);
+            log.debug("[{}] Execution {} recorded as RUNNING", threadName, history.getExecutionId());
 
             // Find appropriate handler
             TaskHandler handler = findHandler(task);
             log.debug("[{}] Using handler: {}", threadName, handler.getClass().getSimpleName());
 
-            // Execute task using handler
-            handler.execute(task);
+            // Execute task using handler, interruptible by its timeout or a cancel request
+            execution = startExecution(history.getExecutionId(), task, now);
+            long runStart = System.nanoTime();
+            try {
+                handler.execute(task);
+            } catch (Exception e) {
+                metrics.recordRunTime(task, System.nanoTime() - runStart, outcomeOf(execution.finish(), false));
+                throw e;
+            } finally {
+                endExecution(execution);
+            }
+            RunningExecution.State state = execution.getState();
+            metrics.recordRunTime(task, System.nanoTime() - runStart, outcomeOf(state, true));
+            if (state != RunningExecution.State.FINISHED) {
+                // The handler swallowed the interrupt, but it still missed its deadline or was cancelled
+                throw new CancellationException("Handler returned after being stopped");
+            }
 
             // Calculate execution duration
             long duration = System.currentTimeMillis() - startTime;
@@ -114,113 +449,389 @@ public class TaskExecutionEngine {
             // Mark as successful
             history.setStatus("SUCCESS");
             history.setExecutionDurationMs(duration);
-            executionHistoryRepository.save(history);
+            historyWriter.recordCompletion(history);
 
-            // Update task for next execution
-            updateTaskAfterExecution(task, true);
+            // Update task for next execution, then start the downstream tasks it unblocks
+            updateTaskAfterExecution(task, true, false);
+            advanceDag(task, true);
 
             log.info("✅ [{}] Task {} executed successfully in {}ms",
                     threadName, task.getId(), duration);
 
         } catch (Exception e) {
             long duration = System.currentTimeMillis() - startTime;
-
-            // Mark as failed
-            history.setStatus("FAILED");
-            history.setErrorMessage(e.getMessage());
+            RunningExecution.State state = execution != null ? execution.getState() : RunningExecution.State.FINISHED;
+
+            // Mark as failed, timed out or cancelled; a cancelled execution is not retried
+            switch (state) {
+                case TIMED_OUT -> {
+                    history.setStatus("TIMED_OUT");
+                    history.setErrorMessage("Execution exceeded its timeout of "
+                            + Duration.between(execution.getStartedAt(), execution.getDeadline()).toMillis() + "ms");
+                }
+                case CANCELLED -> {
+                    history.setStatus("CANCELLED");
+                    history.setErrorMessage("Execution cancelled on request");
+                }
+                default -> {
+                    history.setStatus("FAILED");
+                    history.setErrorMessage(e.getMessage());
+                }
+            }
             history.setExecutionDurationMs(duration);
-            executionHistoryRepository.save(history);
+            historyWriter.recordCompletion(history);
+
+            // Update task after failure; only a final failure is reported to its DAG run
+            if (!updateTaskAfterExecution(task, false, state != RunningExecution.State.CANCELLED)) {
+                advanceDag(task, false);
+            }
+
+            log.error("❌ [{}] Task {} execution {} after {}ms: {}",
+                    threadName, task.getId(), history.getStatus().toLowerCase().replace('_', ' '),
+                    duration, history.getErrorMessage());
+        }
+    }
 
-            // Update task after failure
-            updateTaskAfterExecution(task, false);
+    /**
+     * Register the execution as running and arm its timeout, if it has one
+     */
+    private RunningExecution startExecution(String executionId, Task task, LocalDateTime startedAt) {
+        Duration timeout = resolveTimeout(task);
+        RunningExecution execution = new RunningExecution(executionId, task, Thread.currentThread(), startedAt,
+                timeout != null ? startedAt.plus(timeout) : null);
+        runningExecutions.put(executionId, execution);
+        if (timeout != null) {
+            watchdogs.put(executionId, timeoutWatchdog.arm(() -> {
+                if (execution.terminate(RunningExecution.State.TIMED_OUT)) {
+                    log.warn("⏱️ Task {} exceeded its timeout of {}ms, interrupting execution {} on {}",
+                            execution.getTaskId(), timeout.toMillis(), executionId, execution.getThreadName());
+                }
+            }, timeout));
+        }
+        return execution;
+    }
 
-            log.error("❌ [{}] Task {} execution failed after {}ms: {}",
-                    threadName, task.getId(), duration, e.getMessage());
+    private void endExecution(RunningExecution execution) {
+        execution.finish();
+        // Clear an interrupt delivered while the handler ran, so it cannot abort the writes that follow
+        Thread.interrupted();
+        ScheduledFuture<?> watchdog = watchdogs.remove(execution.getExecutionId());
+        if (watchdog != null) {
+            watchdog.cancel(false);
         }
+        runningExecutions.remove(execution.getExecutionId());
+    }
+
+    /**
+     * Timeout of the task itself, else of its type, else the default; null for none
+     */
+    private Duration resolveTimeout(Task task) {
+        long timeoutMs = Objects.requireNonNullElse(task.getTimeoutMs(), 0L);
+        if (timeoutMs <= 0) {
+            String taskType = task.getTaskType() == null ? "" : task.getTaskType().toUpperCase();
+            timeoutMs = timeoutsByType.getOrDefault(taskType, timeoutProperties.getDefaultMs());
+        }
+        return timeoutMs > 0 ? Duration.ofMillis(timeoutMs) : null;
+    }
+
+    private static String outcomeOf(RunningExecution.State state, boolean returned) {
+        return switch (state) {
+            case TIMED_OUT -> "timed_out";
+            case CANCELLED -> "cancelled";
+            default -> returned ? "success" : "failure";
+        };
+    }
+
+    /**
+     * Tell the cluster the executions running on this node are still alive; runs on the ExecutionHeartbeat thread
+     */
+    public void heartbeatRunningExecutions() {
+        try {
+            historyWriter.heartbeat(getRunningExecutions());
+        } catch (Exception e) {
+            // Keep the heartbeat thread alive; an exception escaping it would cancel all later heartbeats
+            log.error("❌ Execution heartbeat failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Executions currently running on this node
+     */
+    public List<RunningExecution> getRunningExecutions() {
+        return List.copyOf(runningExecutions.values());
+    }
+
+    /**
+     * Interrupt a running execution on this node; it is recorded as CANCELLED and not retried
+     *
+     * @return The execution, in state CANCELLED unless it had already finished or timed out
+     */
+    public RunningExecution cancelExecution(String executionId) {
+        RunningExecution execution = runningExecutions.get(executionId);
+        if (execution == null) {
+            throw new RuntimeException("No running execution with ID: " + executionId);
+        }
+        if (execution.terminate(RunningExecution.State.CANCELLED)) {
+            log.info("🛑 Cancelling execution {} of task {} on {}",
+                    executionId, execution.getTaskId(), execution.getThreadName());
+        }
+        return execution;
     }
 
     /**
      * Find appropriate handler for the task
      */
-    private TaskHandler findHandler(Task task) {
+    TaskHandler findHandler(Task task) {
+        String taskType = task.getTaskType() == null ? "" : task.getTaskType().toUpperCase();
+        TaskHandler handler = handlersByType.get(taskType);
+        if (handler != null) {
+            return handler;
+        }
         return taskHandlers.stream()
-                .filter(handler -> handler.supports(task))
+                .filter(candidate -> candidate.supports(task))
                 .findFirst()
                 .orElseThrow(() -> new IllegalStateException(
                         "No handler found for task type: " + task.getTaskType()));
     }
 
     /**
-     * Update task after execution
+     * Update task after execution with a single version-guarded UPDATE of its scheduler state.
+     * If the task was edited concurrently, reload it and recompute from the fresh row instead
+     * of overwriting the edit. A failed, retryable execution with retries left is then scheduled for retry.
+     *
+     * @return true if a retry was scheduled
      */
-    private void updateTaskAfterExecution(Task task, boolean success) {
+    private boolean updateTaskAfterExecution(Task task, boolean success, boolean retryable) {
         try {
-            // Reload task from database to avoid stale data
-            Task freshTask = taskRepository.findById(task.getId())
-                    .orElseThrow(() -> new RuntimeException("Task not found: " + task.getId()));
+            LocalDateTime now = LocalDateTime.now();
+            Task current = task;
+            int retryAttempt = task.getRetryAttempt();
+            // Schedules advance from the fire that ran, not from when it finished
+            LocalDateTime anchor = Objects.requireNonNullElse(task.getScheduledFireTime(), now);
+
+            for (int attempt = 1; attempt <= MAX_STATE_UPDATE_ATTEMPTS; attempt++) {
+                // Reset retry count on success; after a failure it counts the retries of this fire
+                boolean retry = !success && retryable && shouldRetry(current, retryAttempt);
+                int retryCount = success ? 0 : (retry ? retryAttempt + 1 : retryAttempt);
+                LocalDateTime nextExecution = nextExecutionAfter(current, anchor);
+
+                // The lease is released only if this execution's owner still holds it
+                TaskStateRepository.ExecutionStateUpdate update = new TaskStateRepository.ExecutionStateUpdate(
+                        current.getId(), current.getVersion(), now, retryCount, nextExecution, task.getOwnerNode());
+
+                long writeStart = System.nanoTime();
+                boolean updated = taskStateRepository.updateAfterExecution(update);
+                metrics.recordDbWrite(task, "task_state", System.nanoTime() - writeStart);
+                if (updated) {
+                    taskCache.invalidate(task.getId());
+                    task.setVersion(current.getVersion() + 1);
+                    task.setLastExecutionTime(now);
+                    task.setRetryCount(retryCount);
+                    task.setNextExecutionTime(nextExecution);
+                    log.debug("Task {} next execution scheduled for: {}", task.getId(), nextExecution);
+                    if (retry) {
+                        scheduleRetry(task, retryAttempt + 1);
+                    } else if (!success && retryAttempt > 0) {
+                        log.warn("Task {} failed after {} retries, waiting for its next fire time at {}",
+                                task.getId(), retryAttempt, nextExecution);
+                    }
+                    return retry;
+                }
 
-            // Update last execution time
-            freshTask.setLastExecutionTime(LocalDateTime.now());
+                log.debug("Task {} changed during execution, reloading (attempt {})", task.getId(), attempt);
+                Optional<Task> fresh = taskRepository.findById(task.getId());
+                if (fresh.isEmpty()) {
+                    log.info("Task {} was deleted during execution, skipping update", task.getId());
+                    return false;
+                }
+                current = fresh.get();
+            }
+            log.warn("Gave up updating task {} after {} concurrent modifications",
+                    task.getId(), MAX_STATE_UPDATE_ATTEMPTS);
+        } catch (Exception e) {
+            log.error("Error updating task after execution: {}", e.getMessage(), e);
+        }
+        return false;
+    }
+
+    private boolean shouldRetry(Task task, int retryAttempt) {
+        return retryProperties.isEnabled()
+                && "ACTIVE".equals(task.getStatus())
+                && retryAttempt < Objects.requireNonNullElse(task.getMaxRetries(), 0);
+    }
+
+    /**
+     * Dispatch the task again once its backoff delay has passed; no worker waits meanwhile
+     */
+    private void scheduleRetry(Task task, int retryAttempt) {
+        Duration delay = retryBackoff.delayFor(retryAttempt);
+        LocalDateTime dueAt = LocalDateTime.now().plus(delay);
+        metrics.recordRetry(task);
+        log.info("🔁 Retrying task {} in {}ms (retry {} of {})",
+                task.getId(), delay.toMillis(), retryAttempt, task.getMaxRetries());
+        Long dagRunId = task.getDagRunId();
+        delayedDispatcher.schedule(() -> dispatchRetry(task.getId(), retryAttempt, dueAt, dagRunId), delay);
+    }
 
-            // Reset retry count on success
-            if (success) {
-                freshTask.setRetryCount(0);
+    private void dispatchRetry(long taskId, int retryAttempt, LocalDateTime dueAt, Long dagRunId) {
+        // Re-read the task so a retry never runs for a task paused or deleted while it waited
+        Optional<Task> fresh = taskRepository.findById(taskId);
+        if (fresh.isEmpty() || !"ACTIVE".equals(fresh.get().getStatus())) {
+            log.info("Dropping retry {} of task {}: task is no longer active", retryAttempt, taskId);
+            if (dagRunId != null) {
+                Task dropped = fresh.orElseGet(Task::new);
+                dropped.setId(taskId);
+                dropped.setDagRunId(dagRunId);
+                advanceDag(dropped, false);
             }
+            return;
+        }
+        Task task = fresh.get();
+        task.setDagRunId(dagRunId);
+        // A retry runs outside any claim, so it must not release a lease another execution holds
+        task.setOwnerNode(null);
+        task.setRetryAttempt(retryAttempt);
+        task.setScheduledFireTime(dueAt);
+        executeAsync(task);
+    }
 
-            // Calculate next execution time from cron
-            try {
-                LocalDateTime nextExecution = CronExpressionUtil.getNextExecutionTime(
-                        freshTask.getCronExpression()
-                );
-                freshTask.setNextExecutionTime(nextExecution);
-                log.debug("Task {} next execution scheduled for: {}", freshTask.getId(), nextExecution);
-            } catch (Exception e) {
-                log.error("Failed to calculate next execution time for task {}: {}",
-                        freshTask.getId(), e.getMessage());
-                // Set to 1 hour from now as fallback
-                freshTask.setNextExecutionTime(LocalDateTime.now().plusHours(1));
+    /**
+     * Report the final outcome of an execution to its DAG, then queue the downstream tasks it made ready
+     */
+    private void advanceDag(Task task, boolean success) {
+        try {
+            for (Task ready : dagCoordinator.onExecutionFinished(task, success)) {
+                log.info("🔗 Task {} completed, starting downstream task {} of DAG run {}",
+                        task.getId(), ready.getId(), ready.getDagRunId());
+                executeAsync(ready);
             }
+        } catch (Exception e) {
+            log.error("❌ Failed to advance the DAG run of task {}: {}", task.getId(), e.getMessage(), e);
+        }
+    }
 
-            taskRepository.save(freshTask);
+    private void dispatchCatchUp(long taskId, List<LocalDateTime> missedFireTimes) {
+        Optional<Task> fresh = taskRepository.findById(taskId);
+        if (fresh.isEmpty() || !"ACTIVE".equals(fresh.get().getStatus())) {
+            log.info("Dropping {} missed fire(s) of task {}: task is no longer active", missedFireTimes.size(), taskId);
+            return;
+        }
+        Task task = fresh.get();
+        // Like a retry, a catch-up runs outside any claim
+        task.setOwnerNode(null);
+        task.setScheduledFireTime(missedFireTimes.getFirst());
+        task.setMissedFireTimes(missedFireTimes.subList(1, missedFireTimes.size()));
+        log.info("Catching up missed fire of task {} due at {} ({} more to go)",
+                taskId, task.getScheduledFireTime(), task.getMissedFireTimes().size());
+        executeAsync(task);
+    }
+
+    /**
+     * The task's following fire time: the one its claim already advanced it to, if still ahead
+     * of the fire that ran, otherwise the next cron time after that fire
+     */
+    private LocalDateTime nextExecutionAfter(Task task, LocalDateTime anchor) {
+        LocalDateTime next = task.getNextExecutionTime();
+        if (next != null && next.isAfter(anchor)) {
+            return next;
+        }
+        return calculateNextExecutionTime(task, anchor);
+    }
+
+    /**
+     * Calculate next execution time from cron
+     */
+    private LocalDateTime calculateNextExecutionTime(Task task, LocalDateTime now) {
+        try {
+            return CronExpressionUtil.getNextExecutionTime(task.getCronExpression(), now);
         } catch (Exception e) {
-            log.error("Error updating task after execution: {}", e.getMessage(), e);
+            log.error("Failed to calculate next execution time for task {}: {}",
+                    task.getId(), e.getMessage());
+            // Set to 1 hour from now as fallback
+            return now.plusHours(1);
         }
     }
 
     /**
-     * Get thread pool statistics
+     * Get executor statistics.
+     * Active is the number of running tasks, pool is the worker pool size (the concurrency
+     * limit in virtual-thread mode) and queue is the number of tasks waiting for dispatch.
      */
     public ExecutorStats getStats() {
-        if (executorService instanceof ThreadPoolExecutor) {
-            ThreadPoolExecutor tpe = (ThreadPoolExecutor) executorService;
-            return new ExecutorStats(
-                    tpe.getActiveCount(),
-                    tpe.getPoolSize(),
-                    tpe.getQueue().size(),
-                    tpe.getCompletedTaskCount()
-            );
+        int poolSize = executorService instanceof ThreadPoolExecutor tpe ? tpe.getPoolSize() : maxConcurrency;
+        int running = 0;
+        int queued = 0;
+        long completed = 0;
+        for (BulkheadStats stats : getBulkheadStats()) {
+            running += stats.activeTasks;
+            queued += stats.queueSize;
+            completed += stats.completedTasks;
+        }
+        for (TaskBulkhead bulkhead : bulkheadsByType.values()) {
+            poolSize += bulkhead.getMaxConcurrency();
+        }
+        return new ExecutorStats(running, poolSize, queued, completed, admissionLimit - availableCapacity(),
+                admissionLimit);
+    }
+
+    /**
+     * Statistics of each bulkhead, the shared default one first
+     */
+    public List<BulkheadStats> getBulkheadStats() {
+        List<BulkheadStats> stats = new ArrayList<>();
+        if (defaultBulkhead != null) {
+            stats.add(defaultBulkhead.getStats());
         }
-        return new ExecutorStats(0, 0, 0, 0);
+        bulkheadsByType.values().forEach(bulkhead -> stats.add(bulkhead.getStats()));
+        return stats;
     }
 
     @PreDestroy
     public void shutdown() {
         log.info("Shutting down Task Execution Engine...");
 
-        if (executorService != null && !executorService.isShutdown()) {
-            executorService.shutdown();
-            try {
-                if (!executorService.awaitTermination(30, TimeUnit.SECONDS)) {
-                    log.warn("Executor did not terminate in time, forcing shutdown...");
-                    executorService.shutdownNow();
-                }
-                log.info("Task Execution Engine shut down successfully");
-            } catch (InterruptedException e) {
-                log.error("Error during executor shutdown", e);
-                executorService.shutdownNow();
-                Thread.currentThread().interrupt();
+        // Drop held follow-ups first so finishing executions do not hand them to stopped bulkheads
+        inFlight.drainDeferred().forEach(item -> item.future().cancel(false));
+
+        List<TaskBulkhead> bulkheads = new ArrayList<>(bulkheadsByType.values());
+        if (defaultBulkhead != null) {
+            bulkheads.add(defaultBulkhead);
+        }
+        for (TaskBulkhead bulkhead : bulkheads) {
+            List<DispatchItem> pending = bulkhead.stop();
+            pending.forEach(item -> item.future().cancel(false));
+            if (!pending.isEmpty()) {
+                log.warn("Discarded {} queued task(s) of bulkhead {} on shutdown", pending.size(), bulkhead.getName());
             }
         }
+
+        List<ExecutorService> executors = new ArrayList<>(bulkheadExecutors);
+        executors.add(executorService);
+        for (ExecutorService executor : executors) {
+            shutdownExecutor(executor);
+        }
+        // Only now: executions finishing during the drain above still need their heartbeats
+        if (heartbeatThread != null) {
+            heartbeatThread.shutdownNow();
+        }
+        log.info("Task Execution Engine shut down successfully");
+    }
+
+    private static void shutdownExecutor(ExecutorService executor) {
+        if (executor == null || executor.isShutdown()) {
+            return;
+        }
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                log.warn("Executor did not terminate in time, forcing shutdown...");
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            log.error("Error during executor shutdown", e);
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
     }
 
     /**
@@ -231,18 +842,63 @@ public class TaskExecutionEngine {
         public final int poolSize;
         public final int queueSize;
         public final long completedTasks;
+        public final int admittedTasks;
+        public final int admissionLimit;
 
-        public ExecutorStats(int activeThreads, int poolSize, int queueSize, long completedTasks) {
+        public ExecutorStats(int activeThreads, int poolSize, int queueSize, long completedTasks,
+                             int admittedTasks, int admissionLimit) {
             this.activeThreads = activeThreads;
             this.poolSize = poolSize;
             this.queueSize = queueSize;
             this.completedTasks = completedTasks;
+            this.admittedTasks = admittedTasks;
+            this.admissionLimit = admissionLimit;
         }
 
         @Override
         public String toString() {
-            return String.format("Active: %d, Pool: %d, Queue: %d, Completed: %d",
-                    activeThreads, poolSize, queueSize, completedTasks);
+            return String.format("Active: %d, Pool: %d, Queue: %d, Completed: %d, Admitted: %d/%d",
+                    activeThreads, poolSize, queueSize, completedTasks, admittedTasks, admissionLimit);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Statistics of one bulkhead
+     */
+    public static class BulkheadStats {
+        public final String name;
+        public final int maxConcurrency;
+        public final int activeTasks;
+        public final int queueSize;
+        public final int queueCapacity;
+        public final String overflowPolicy;
+        public final long completedTasks;
+        public final long rejectedTasks;
+
+        public BulkheadStats(String name, int maxConcurrency, int activeTasks, int queueSize, int queueCapacity,
+                             String overflowPolicy, long completedTasks, long rejectedTasks) {
+            this.name = name;
+            this.maxConcurrency = maxConcurrency;
+            this.activeTasks = activeTasks;
+            this.queueSize = queueSize;
+            this.queueCapacity = queueCapacity;
+            this.overflowPolicy = overflowPolicy;
+            this.completedTasks = completedTasks;
+            this.rejectedTasks = rejectedTasks;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s - Active: %d/%d, Queue: %d/%s, Completed: %d, Rejected: %d",
+                    name, activeTasks, maxConcurrency, queueSize,
+                    queueCapacity > 0 ? String.valueOf(queueCapacity) : "unbounded", completedTasks, rejectedTasks);
+        }
+    }
+
+    /**
+     * Task waiting in a bulkhead's queue together with the future handed to its caller
+     * and the System.nanoTime() it was queued at
+     */
+    record DispatchItem(Task task, CompletableFuture<Void> future, long dispatchedAt) {
+    }
+}
@@ -0,0 +1,51 @@
+package com.sumit.taskscheduler.executor;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timer of execution timeouts.
+ *
+ * Kept apart from {@link DelayedTaskDispatcher} so a burst of retries or catch-up fires, or a
+ * slow database, can never make a timeout fire late. Actions only interrupt a worker thread.
+ */
+@Component
+@Slf4j
+public class TimeoutWatchdog {
+
+    private final ScheduledThreadPoolExecutor timer;
+
+    public TimeoutWatchdog() {
+        timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "TaskTimeoutWatchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Most executions finish in time, so cancelled watchdogs must not pile up in the queue
+        timer.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Run the action once the timeout has passed, unless cancelled before
+     */
+    public ScheduledFuture<?> arm(Runnable action, Duration timeout) {
+        return timer.schedule(() -> {
+            try {
+                action.run();
+            } catch (Exception e) {
+                log.error("Timeout watchdog failed: {}", e.getMessage(), e);
+            }
+        }, timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timer.shutdownNow();
+    }
+}
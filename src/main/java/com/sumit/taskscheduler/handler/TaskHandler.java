@@ -9,7 +9,9 @@ import com.sumit.taskscheduler.entity.Task;
 
 public interface TaskHandler {
     /**
-     * Execute the task
+     * Execute the task.
+     * The engine interrupts the calling thread when the execution times out or is cancelled,
+     * so long-running handlers should block interruptibly or check the interrupt flag.
      *
      * @param task Task to execute
      * @throws Exception if execution fails
@@ -0,0 +1,474 @@
+package com.sumit.taskscheduler.history;
+
+import com.sumit.taskscheduler.cluster.NodeIdentity;
+import com.sumit.taskscheduler.config.SchedulerProperties;
+import com.sumit.taskscheduler.entity.TaskExecutionHistory;
+import com.sumit.taskscheduler.executor.RunningExecution;
+import com.sumit.taskscheduler.metrics.SchedulerMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind sink for execution history.
+ *
+ * Worker threads only enqueue immutable snapshots; a background flusher writes them in
+ * JDBC batches once batch-size records are pending or flush-interval-ms has passed.
+ * The start and completion of an execution are correlated by executionId, and when both
+ * are still pending they are coalesced into a single insert of the final row.
+ * When the queue is full the calling thread flushes synchronously, which bounds memory.
+ *
+ * A batch is written in one transaction. If it fails, its records are written one by one so a
+ * single bad record cannot take the others down; records that still fail are kept and retried
+ * with backoff ahead of newer ones. A record is only given up, and logged, after failing
+ * max-write-attempts times while other records were written fine.
+ *
+ * Rows are tagged with this node, and the node renews the heartbeat of its running executions
+ * so the leader can tell an execution still in progress from one whose node has died.
+ * Completions and heartbeats only apply to rows still RUNNING: once the leader has closed an
+ * execution, a late write from its node leaves the row as it is.
+ */
+@Component
+@Slf4j
+public class ExecutionHistoryWriter {
+
+    private static final String INSERT_SQL = "INSERT INTO task_execution_history " +
+            "(execution_id, task_id, execution_time, status, error_message, execution_duration_ms, created_at, " +
+            "owner_node, heartbeat_at, dag_run_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // Only while still RUNNING, so a completion written after the sweeper abandoned the execution keeps it ABANDONED
+    private static final String UPDATE_SQL = "UPDATE task_execution_history " +
+            "SET status = ?, error_message = ?, execution_duration_ms = ? " +
+            "WHERE execution_id = ? AND execution_time = ? AND status = 'RUNNING'";
+
+    // Only while still RUNNING, so a late heartbeat never touches a finished or abandoned execution
+    private static final String HEARTBEAT_SQL = "UPDATE task_execution_history SET heartbeat_at = ? " +
+            "WHERE execution_id = ? AND execution_time = ? AND status = 'RUNNING'";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final String nodeId;
+    private final SchedulerMetrics metrics;
+    private final SchedulerProperties.History historyProperties;
+
+    private BlockingQueue<PendingWrite> queue;
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private Thread flusherThread;
+    private volatile boolean running;
+
+    // Records whose write failed, retried ahead of the queue; guarded by flushLock
+    private final Deque<PendingWrite> retryBacklog = new ArrayDeque<>();
+    private volatile int retryBacklogSize;
+    private int failedFlushes;
+
+    // Completions not yet written, by execution id; their rows are still RUNNING and keep their heartbeat
+    private final Map<String, LocalDateTime> pendingCompletions = new ConcurrentHashMap<>();
+
+    public ExecutionHistoryWriter(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                  NodeIdentity nodeIdentity, SchedulerMetrics metrics, SchedulerProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.nodeId = nodeIdentity.getNodeId();
+        this.metrics = metrics;
+        this.historyProperties = properties.getHistory();
+    }
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(historyProperties.getQueueCapacity());
+        running = true;
+        flusherThread = new Thread(this::flushLoop, "HistoryWriter");
+        flusherThread.setDaemon(true);
+        flusherThread.start();
+        metrics.gauge("scheduler.history.pending", "Execution history records waiting to be written",
+                () -> queue.size() + retryBacklogSize);
+        log.info("Execution history writer started (batch size: {}, flush interval: {}ms, capacity: {})",
+                historyProperties.getBatchSize(), historyProperties.getFlushIntervalMs(),
+                historyProperties.getQueueCapacity());
+    }
+
+    /**
+     * Record the start of an execution (inserted as a new row)
+     */
+    public void recordStart(TaskExecutionHistory history) {
+        enqueue(new PendingWrite(WriteType.INSERT, HistoryRecord.of(history), 0));
+    }
+
+    /**
+     * Record the final state of an execution previously passed to {@link #recordStart}
+     */
+    public void recordCompletion(TaskExecutionHistory history) {
+        pendingCompletions.put(history.getExecutionId(), history.getExecutionTime());
+        enqueue(new PendingWrite(WriteType.UPDATE, HistoryRecord.of(history), 0));
+    }
+
+    /**
+     * Renew the heartbeat of executions running on this node, in one JDBC batch.
+     * Executions that finished but whose completion is not written yet are renewed too, so the
+     * sweeper does not abandon and re-run them while their final state waits for a retry.
+     * An execution whose start is still queued is skipped; its row is inserted with a fresh heartbeat.
+     */
+    public void heartbeat(List<RunningExecution> executions) {
+        // execution_time of each row to renew, by execution id; an execution's start time is its row's execution_time
+        Map<String, LocalDateTime> rows = new LinkedHashMap<>(pendingCompletions);
+        for (RunningExecution execution : executions) {
+            rows.put(execution.getExecutionId(), execution.getStartedAt());
+        }
+        if (rows.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        long writeStart = System.nanoTime();
+        try {
+            jdbcTemplate.batchUpdate(HEARTBEAT_SQL, List.copyOf(rows.entrySet()), historyProperties.getBatchSize(),
+                    (ps, row) -> {
+                        ps.setTimestamp(1, now);
+                        ps.setString(2, row.getKey());
+                        ps.setTimestamp(3, Timestamp.valueOf(row.getValue()));
+                    });
+        } catch (Exception e) {
+            log.error("❌ Failed to renew the heartbeat of {} running execution(s): {}", rows.size(), e.getMessage());
+        } finally {
+            metrics.recordDbWrite("history_heartbeat", System.nanoTime() - writeStart);
+        }
+    }
+
+    /**
+     * Number of records waiting to be written
+     */
+    public int pendingCount() {
+        return queue.size() + retryBacklogSize;
+    }
+
+    /**
+     * Synchronously write everything enqueued so far, waiting for a batch the flusher is writing
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            List<PendingWrite> pending = new ArrayList<>();
+            queue.drainTo(pending);
+            if (!pending.isEmpty() || !retryBacklog.isEmpty()) {
+                writeBatch(pending);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void enqueue(PendingWrite write) {
+        if (running && queue.offer(write)) {
+            return;
+        }
+
+        // Queue full (or shutting down): write through on the caller, after everything queued before it
+        flushLock.lock();
+        try {
+            List<PendingWrite> batch = new ArrayList<>();
+            queue.drainTo(batch);
+            batch.add(write);
+            writeBatch(batch);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void flushLoop() {
+        while (running) {
+            try {
+                long backoffMs = 0;
+                flushLock.lockInterruptibly();
+                try {
+                    List<PendingWrite> batch = collectBatch();
+                    if ((!batch.isEmpty() || !retryBacklog.isEmpty()) && !writeBatch(batch)) {
+                        backoffMs = retryDelayMs(failedFlushes);
+                    }
+                } finally {
+                    flushLock.unlock();
+                }
+                if (backoffMs > 0) {
+                    // Outside the lock, so writers finding the queue full can still write through
+                    Thread.sleep(backoffMs);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.error("Error in execution history writer: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Wait up to one flush interval for records, returning early once a full batch is pending.
+     * Runs under the flush lock so that synchronous fallback writes keep queue order.
+     */
+    private List<PendingWrite> collectBatch() throws InterruptedException {
+        int batchSize = historyProperties.getBatchSize();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(historyProperties.getFlushIntervalMs());
+        List<PendingWrite> batch = new ArrayList<>(batchSize);
+
+        while (batch.size() < batchSize) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                break;
+            }
+            PendingWrite next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+            queue.drainTo(batch, batchSize - batch.size());
+        }
+        return batch;
+    }
+
+    /**
+     * Write the retry backlog followed by the given records
+     *
+     * @return true if every record was written, false if some were kept for a retry
+     */
+    private boolean writeBatch(List<PendingWrite> batch) {
+        List<PendingWrite> writes = new ArrayList<>(retryBacklog);
+        retryBacklog.clear();
+        retryBacklogSize = 0;
+        writes.addAll(batch);
+
+        // Coalesce by execution: an insert followed by its update becomes one insert of the final row
+        Map<String, PendingWrite> coalesced = new LinkedHashMap<>();
+        for (PendingWrite write : writes) {
+            PendingWrite previous = coalesced.get(write.record().executionId());
+            if (previous != null && previous.type() == WriteType.INSERT) {
+                coalesced.put(write.record().executionId(), new PendingWrite(WriteType.INSERT, write.record(),
+                        Math.max(previous.attempts(), write.attempts())));
+            } else {
+                coalesced.put(write.record().executionId(), write);
+            }
+        }
+
+        List<HistoryRecord> inserts = new ArrayList<>();
+        List<HistoryRecord> updates = new ArrayList<>();
+        for (PendingWrite write : coalesced.values()) {
+            (write.type() == WriteType.INSERT ? inserts : updates).add(write.record());
+        }
+
+        long writeStart = System.nanoTime();
+        try {
+            // One transaction, so a failed batch leaves nothing behind and can be written again
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!inserts.isEmpty()) {
+                    jdbcTemplate.batchUpdate(INSERT_SQL, inserts, historyProperties.getBatchSize(),
+                            (ps, record) -> bindInsert(ps, record));
+                }
+                if (!updates.isEmpty()) {
+                    int[][] counts = jdbcTemplate.batchUpdate(UPDATE_SQL, updates, historyProperties.getBatchSize(),
+                            (ps, record) -> bindUpdate(ps, record));
+                    logLateCompletions(updates, counts);
+                }
+            });
+            coalesced.values().forEach(this::written);
+            failedFlushes = 0;
+            log.debug("Flushed {} history insert(s) and {} update(s)", inserts.size(), updates.size());
+            return true;
+        } catch (Exception e) {
+            log.warn("⚠️ Failed to write a batch of {} execution history record(s), writing them one by one: {}",
+                    coalesced.size(), e.getMessage());
+            return writeEach(List.copyOf(coalesced.values()));
+        } finally {
+            metrics.recordDbWrite("history_batch", System.nanoTime() - writeStart);
+        }
+    }
+
+    /**
+     * Write records one statement at a time, isolating the ones that fail
+     */
+    private boolean writeEach(List<PendingWrite> writes) {
+        List<PendingWrite> failed = new ArrayList<>();
+        Exception lastError = null;
+        for (PendingWrite write : writes) {
+            try {
+                if (write.type() == WriteType.INSERT) {
+                    jdbcTemplate.update(INSERT_SQL, ps -> bindInsert(ps, write.record()));
+                } else if (jdbcTemplate.update(UPDATE_SQL, ps -> bindUpdate(ps, write.record())) == 0) {
+                    logLateCompletion(write.record());
+                }
+                written(write);
+            } catch (Exception e) {
+                failed.add(write);
+                lastError = e;
+            }
+        }
+        if (failed.isEmpty()) {
+            failedFlushes = 0;
+            return true;
+        }
+
+        // When other records went through the database is reachable, so the failures are the records' own
+        boolean recordsAtFault = failed.size() < writes.size();
+        failedFlushes++;
+        for (PendingWrite write : failed) {
+            int attempts = recordsAtFault ? write.attempts() + 1 : write.attempts();
+            if (attempts >= historyProperties.getMaxWriteAttempts()) {
+                giveUp(write, "failed " + attempts + " time(s): " + lastError.getMessage());
+            } else {
+                retryBacklog.add(new PendingWrite(write.type(), write.record(), attempts));
+            }
+        }
+        // Keep the backlog bounded like the queue; the oldest records go first
+        while (retryBacklog.size() > historyProperties.getQueueCapacity()) {
+            giveUp(retryBacklog.poll(), "retry backlog full");
+        }
+        retryBacklogSize = retryBacklog.size();
+        log.error("❌ Failed to write {} of {} execution history record(s), retrying in {}ms: {}",
+                failed.size(), writes.size(), retryDelayMs(failedFlushes), lastError.getMessage());
+        return false;
+    }
+
+    private void bindInsert(PreparedStatement ps, HistoryRecord record) throws SQLException {
+        ps.setString(1, record.executionId());
+        ps.setLong(2, record.taskId());
+        ps.setTimestamp(3, Timestamp.valueOf(record.executionTime()));
+        ps.setString(4, record.status());
+        ps.setString(5, record.errorMessage());
+        if (record.executionDurationMs() != null) {
+            ps.setLong(6, record.executionDurationMs());
+        } else {
+            ps.setNull(6, Types.BIGINT);
+        }
+        ps.setTimestamp(7, Timestamp.valueOf(record.createdAt()));
+        ps.setString(8, nodeId);
+        ps.setTimestamp(9, Timestamp.valueOf(record.createdAt()));
+        if (record.dagRunId() != null) {
+            ps.setLong(10, record.dagRunId());
+        } else {
+            ps.setNull(10, Types.BIGINT);
+        }
+    }
+
+    private void bindUpdate(PreparedStatement ps, HistoryRecord record) throws SQLException {
+        ps.setString(1, record.status());
+        ps.setString(2, record.errorMessage());
+        if (record.executionDurationMs() != null) {
+            ps.setLong(3, record.executionDurationMs());
+        } else {
+            ps.setNull(3, Types.BIGINT);
+        }
+        ps.setString(4, record.executionId());
+        // Lets a partitioned table prune the update to the execution's day
+        ps.setTimestamp(5, Timestamp.valueOf(record.executionTime()));
+    }
+
+    private void logLateCompletions(List<HistoryRecord> updates, int[][] counts) {
+        int index = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                // Drivers may report SUCCESS_NO_INFO; only an explicit zero means the guard skipped the row
+                if (count == 0) {
+                    logLateCompletion(updates.get(index));
+                }
+                index++;
+            }
+        }
+    }
+
+    private void logLateCompletion(HistoryRecord record) {
+        log.warn("⚠️ Execution {} of task {} was no longer RUNNING, its {} completion was not written",
+                record.executionId(), record.taskId(), record.status());
+    }
+
+    private void written(PendingWrite write) {
+        if (!"RUNNING".equals(write.record().status())) {
+            pendingCompletions.remove(write.record().executionId());
+        }
+    }
+
+    private void giveUp(PendingWrite write, String reason) {
+        pendingCompletions.remove(write.record().executionId());
+        metrics.recordHistoryDropped();
+        log.error("❌ Giving up on execution history {} of execution {} (task {}, status {}): {}",
+                write.type(), write.record().executionId(), write.record().taskId(), write.record().status(), reason);
+    }
+
+    private long retryDelayMs(int failures) {
+        long delay = historyProperties.getRetryInitialDelayMs() << Math.min(Math.max(0, failures - 1), 20);
+        return Math.min(delay, historyProperties.getRetryMaxDelayMs());
+    }
+
+    /**
+     * Stop the flusher and write everything still pending
+     */
+    @PreDestroy
+    public void shutdown() {
+        // Let the flusher finish its current batch rather than interrupting a JDBC write
+        running = false;
+        if (flusherThread != null) {
+            try {
+                flusherThread.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        if (!queue.isEmpty()) {
+            log.info("Flushing {} pending execution history record(s) on shutdown", queue.size());
+        }
+        flush();
+
+        flushLock.lock();
+        try {
+            if (!retryBacklog.isEmpty()) {
+                log.error("❌ {} execution history record(s) could not be written before shutdown", retryBacklog.size());
+                retryBacklog.forEach(write -> giveUp(write, "shutting down"));
+                retryBacklog.clear();
+                retryBacklogSize = 0;
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private enum WriteType {
+        INSERT,
+        UPDATE
+    }
+
+    /**
+     * @param attempts Failed writes of this record counted against max-write-attempts
+     */
+    private record PendingWrite(WriteType type, HistoryRecord record, int attempts) {
+    }
+
+    /**
+     * Immutable copy of a history row, so workers may keep mutating their entity
+     */
+    private record HistoryRecord(String executionId, Long taskId, LocalDateTime executionTime,
+                                 String status, String errorMessage, Long executionDurationMs,
+                                 LocalDateTime createdAt, Long dagRunId) {
+
+        static HistoryRecord of(TaskExecutionHistory history) {
+            return new HistoryRecord(history.getExecutionId(), history.getTaskId(), history.getExecutionTime(),
+                    history.getStatus(), history.getErrorMessage(), history.getExecutionDurationMs(),
+                    history.getCreatedAt(), history.getDagRunId());
+        }
+    }
+}
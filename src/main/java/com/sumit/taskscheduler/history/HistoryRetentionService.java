@@ -0,0 +1,225 @@
+package com.sumit.taskscheduler.history;
+
+import com.sumit.taskscheduler.cluster.LeaderElection;
+import com.sumit.taskscheduler.config.SchedulerProperties;
+import com.sumit.taskscheduler.repository.HistoryPartitionRepository;
+import com.sumit.taskscheduler.repository.HistoryRetentionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.sumit.taskscheduler.repository.HistoryRetentionRepository.HISTORY_TABLE;
+
+/**
+ * Keeps the execution history table bounded.
+ *
+ * On PostgreSQL history lives in daily partitions, created a few days ahead; once a partition
+ * is older than the retention period its rows are rolled up per task and hour/day and the
+ * partition is dropped. Elsewhere (H2 in tests and development) the same rollups are taken
+ * and the expired rows are deleted one day per transaction. Rows written before the table was
+ * partitioned stay in a catch-all partition that is trimmed the same way until it can be dropped.
+ *
+ * Scheduled maintenance runs on the cluster leader only. Each compaction transaction first
+ * confirms the leader lease under this node's fencing token, so a node that lost leadership
+ * while compacting stops at its next day or partition instead of overlapping the new leader.
+ *
+ * A day or partition that still holds RUNNING executions is left alone, and so is everything
+ * after it: those executions either complete or are closed as ABANDONED by the orphaned
+ * execution sweeper, and the next maintenance run picks the range up from there.
+ */
+@Component
+@Slf4j
+public class HistoryRetentionService implements SmartInitializingSingleton {
+
+    private final HistoryPartitionRepository partitionRepository;
+    private final HistoryRetentionRepository retentionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final SchedulerProperties.History historyProperties;
+    private final LeaderElection leaderElection;
+
+    private volatile boolean partitioned;
+
+    public HistoryRetentionService(HistoryPartitionRepository partitionRepository,
+                                   HistoryRetentionRepository retentionRepository,
+                                   TransactionTemplate transactionTemplate,
+                                   SchedulerProperties properties,
+                                   LeaderElection leaderElection) {
+        this.partitionRepository = partitionRepository;
+        this.retentionRepository = retentionRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.historyProperties = properties.getHistory();
+        this.leaderElection = leaderElection;
+    }
+
+    /**
+     * Partition the history table once Hibernate has created it, before any execution is recorded
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!historyProperties.isPartitioned() || !partitionRepository.isPostgres()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            partitionRepository.lock();
+            if (!partitionRepository.isPartitioned()) {
+                log.info("Converting {} to daily partitions", HISTORY_TABLE);
+                partitionRepository.convertToPartitioned(LocalDate.now().plusDays(1).atStartOfDay());
+            }
+        });
+        partitioned = true;
+        ensurePartitions();
+    }
+
+    @Scheduled(fixedDelayString = "${scheduler.history.maintenance-interval-ms:3600000}",
+            initialDelayString = "${scheduler.history.maintenance-initial-delay-ms:60000}")
+    public void maintain() {
+        leaderElection.runIfLeader("history maintenance", this::maintainNow);
+    }
+
+    private void maintainNow() {
+        try {
+            if (partitioned) {
+                ensurePartitions();
+            }
+            if (historyProperties.getRetentionDays() > 0) {
+                compactBefore(LocalDate.now().minusDays(historyProperties.getRetentionDays()).atStartOfDay());
+            }
+        } catch (Exception e) {
+            log.error("❌ Execution history maintenance failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Roll up and remove all raw history before the cutoff, which must be at midnight.
+     * Writes nothing unless this node holds the leader lease.
+     */
+    public void compactBefore(LocalDateTime cutoff) {
+        if (partitioned) {
+            dropPartitionsBefore(cutoff);
+        } else {
+            deleteDaysBefore(cutoff);
+        }
+    }
+
+    private void ensurePartitions() {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!partitionRepository.tryLock()) {
+                return;
+            }
+            List<HistoryPartitionRepository.HistoryPartition> partitions = partitionRepository.listPartitions();
+            LocalDate today = LocalDate.now();
+            for (int i = 0; i <= historyProperties.getPartitionsAhead(); i++) {
+                LocalDate day = today.plusDays(i);
+                if (partitions.stream().noneMatch(partition -> partition.covers(day))) {
+                    partitionRepository.createPartition(day);
+                    log.info("Created execution history partition for {}", day);
+                }
+            }
+        });
+    }
+
+    private void dropPartitionsBefore(LocalDateTime cutoff) {
+        for (HistoryPartitionRepository.HistoryPartition partition : partitionRepository.listPartitions()) {
+            if (partition.to().isAfter(cutoff)) {
+                if (partition.from() == null) {
+                    // The pre-partitioning table still spans the cutoff: trim its expired days in place
+                    deleteDaysBefore(cutoff);
+                }
+                break;
+            }
+            Step dropped = leaderElection.fencedTransactions().execute(status -> {
+                Step blocked = blocked();
+                if (blocked != null) {
+                    return blocked;
+                }
+                LocalDateTime from = partition.from() != null ? partition.from() : startOfOldestDay(partition.name());
+                if (from != null && hasRunning(partition.name(), from, partition.to())) {
+                    return Step.RUNNING;
+                }
+                int rollups = from == null ? 0 : retentionRepository.rollUp(partition.name(), from, partition.to());
+                partitionRepository.dropPartition(partition.name());
+                log.info("🗑️ Dropped execution history partition {} after writing {} rollup(s)", partition.name(), rollups);
+                return Step.DONE;
+            });
+            if (dropped != Step.DONE) {
+                logStopped(dropped);
+                return;
+            }
+        }
+    }
+
+    private void deleteDaysBefore(LocalDateTime cutoff) {
+        LocalDateTime dayStart;
+        while ((dayStart = startOfOldestDay(HISTORY_TABLE)) != null && dayStart.isBefore(cutoff)) {
+            LocalDateTime from = dayStart;
+            LocalDateTime to = dayStart.plusDays(1);
+            Step compacted = leaderElection.fencedTransactions().execute(status -> {
+                Step blocked = blocked();
+                if (blocked != null) {
+                    return blocked;
+                }
+                if (hasRunning(HISTORY_TABLE, from, to)) {
+                    return Step.RUNNING;
+                }
+                int rollups = retentionRepository.rollUp(HISTORY_TABLE, from, to);
+                int deleted = retentionRepository.deleteRaw(from, to);
+                log.info("🗑️ Compacted {} execution history row(s) of {} into {} rollup(s)",
+                        deleted, from.toLocalDate(), rollups);
+                return Step.DONE;
+            });
+            if (compacted != Step.DONE) {
+                logStopped(compacted);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Why the current compaction transaction must not write, or null if it may
+     */
+    private Step blocked() {
+        if (!leaderElection.holdsLease()) {
+            return Step.NOT_LEADER;
+        }
+        if (partitioned && !partitionRepository.tryLock()) {
+            return Step.LOCKED;
+        }
+        return null;
+    }
+
+    private boolean hasRunning(String table, LocalDateTime from, LocalDateTime to) {
+        int running = retentionRepository.countRunning(table, from, to);
+        if (running > 0) {
+            log.info("Keeping execution history of {} from {}: {} execution(s) still RUNNING",
+                    table, from.toLocalDate(), running);
+        }
+        return running > 0;
+    }
+
+    private void logStopped(Step step) {
+        if (step == Step.NOT_LEADER) {
+            log.warn("Stopped execution history compaction: node {} no longer holds the leader lease",
+                    leaderElection.getNodeId());
+        } else if (step == Step.LOCKED) {
+            log.debug("History maintenance is running on another node");
+        }
+    }
+
+    private LocalDateTime startOfOldestDay(String table) {
+        LocalDateTime oldest = retentionRepository.oldestExecutionTime(table);
+        return oldest == null ? null : oldest.toLocalDate().atStartOfDay();
+    }
+
+    private enum Step {
+        DONE,
+        LOCKED,
+        NOT_LEADER,
+        RUNNING
+    }
+}
@@ -0,0 +1,152 @@
+package com.sumit.taskscheduler.metrics;
+
+import com.sumit.taskscheduler.config.SchedulerProperties;
+import com.sumit.taskscheduler.entity.Task;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Micrometer timers for the life of an execution, so late firing can be attributed to its cause:
+ * <ul>
+ *   <li>scheduler.task.lag - actual start minus the fire time the task was due at</li>
+ *   <li>scheduler.task.queue.wait - time between dispatch and a worker picking the task up</li>
+ *   <li>scheduler.task.run - handler run time, tagged with the outcome</li>
+ *   <li>scheduler.db.write - claims, task state updates and history batches, tagged with the operation;
+ *       writes covering many tasks at once are tagged with taskType "none"</li>
+ *   <li>scheduler.bulkhead.rejected - executions given up by a full bulkhead</li>
+ *   <li>scheduler.task.retries - retries scheduled after failed executions</li>
+ *   <li>scheduler.history.dropped - execution history records given up after failed writes</li>
+ * </ul>
+ * Task timers are tagged with taskType, and with taskId when scheduler.metrics.per-task-tags is set.
+ */
+@Component
+public class SchedulerMetrics {
+
+    public static final String SCHEDULING_LAG = "scheduler.task.lag";
+    public static final String QUEUE_WAIT = "scheduler.task.queue.wait";
+    public static final String RUN_TIME = "scheduler.task.run";
+    public static final String DB_WRITE = "scheduler.db.write";
+    public static final String REJECTED = "scheduler.bulkhead.rejected";
+    public static final String RETRIES = "scheduler.task.retries";
+    public static final String OVERLAPS = "scheduler.task.overlaps";
+    public static final String HISTORY_DROPPED = "scheduler.history.dropped";
+
+    private final MeterRegistry registry;
+    private final SchedulerProperties.Metrics metricsProperties;
+
+    public SchedulerMetrics(MeterRegistry registry, SchedulerProperties properties) {
+        this.registry = registry;
+        this.metricsProperties = properties.getMetrics();
+    }
+
+    /**
+     * Record how late an execution started; early starts count as no lag
+     */
+    public void recordSchedulingLag(Task task, Duration lag) {
+        timer(SCHEDULING_LAG, "Delay between a task's due time and the start of its execution", taskTags(task))
+                .record(lag.isNegative() ? Duration.ZERO : lag);
+    }
+
+    public void recordQueueWait(Task task, long nanos) {
+        timer(QUEUE_WAIT, "Time a dispatched task waited for a worker", taskTags(task))
+                .record(Duration.ofNanos(nanos));
+    }
+
+    /**
+     * @param outcome success, failure, timed_out or cancelled
+     */
+    public void recordRunTime(Task task, long nanos, String outcome) {
+        timer(RUN_TIME, "Handler run time", taskTags(task).and("outcome", outcome))
+                .record(Duration.ofNanos(nanos));
+    }
+
+    /**
+     * Record a write that covers several tasks at once, such as a claim batch or a history batch
+     */
+    public void recordDbWrite(String operation, long nanos) {
+        recordDbWrite(operation, nanos, untaggedTask());
+    }
+
+    /**
+     * Record a write made on behalf of one task
+     */
+    public void recordDbWrite(Task task, String operation, long nanos) {
+        recordDbWrite(operation, nanos, taskTags(task));
+    }
+
+    private void recordDbWrite(String operation, long nanos, Tags tags) {
+        timer(DB_WRITE, "Time spent writing scheduler state to the database", tags.and("operation", operation))
+                .record(Duration.ofNanos(nanos));
+    }
+
+    public void recordRejection(Task task, String bulkhead) {
+        Counter.builder(REJECTED)
+                .description("Executions given up because their bulkhead's queue was full")
+                .tags(taskTags(task).and("bulkhead", bulkhead))
+                .register(registry)
+                .increment();
+    }
+
+    public void recordRetry(Task task) {
+        Counter.builder(RETRIES)
+                .description("Retries scheduled after failed executions")
+                .tags(taskTags(task))
+                .register(registry)
+                .increment();
+    }
+
+    public void recordHistoryDropped() {
+        Counter.builder(HISTORY_DROPPED)
+                .description("Execution history records given up after failed writes")
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * @param action skipped or deferred, as decided by the task's overlap policy
+     */
+    public void recordOverlap(Task task, String action) {
+        Counter.builder(OVERLAPS)
+                .description("Fires of tasks that still had an execution in flight")
+                .tags(taskTags(task).and("action", action))
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * Register a gauge sampled from the given supplier on every scrape
+     */
+    public void gauge(String name, String description, Supplier<Number> value) {
+        gauge(name, description, Tags.empty(), value);
+    }
+
+    public void gauge(String name, String description, Tags tags, Supplier<Number> value) {
+        Gauge.builder(name, value).description(description).tags(tags).register(registry);
+    }
+
+    private Tags taskTags(Task task) {
+        Tags tags = Tags.of("taskType", String.valueOf(task.getTaskType()));
+        return metricsProperties.isPerTaskTags() ? tags.and("taskId", String.valueOf(task.getId())) : tags;
+    }
+
+    // Same tag keys as taskTags(), which Prometheus requires of all series of one meter
+    private Tags untaggedTask() {
+        Tags tags = Tags.of("taskType", "none");
+        return metricsProperties.isPerTaskTags() ? tags.and("taskId", "none") : tags;
+    }
+
+    private Timer timer(String name, String description, Tags tags) {
+        return Timer.builder(name)
+                .description(description)
+                .tags(tags)
+                .publishPercentileHistogram(metricsProperties.isPercentileHistogram())
+                .register(registry);
+    }
+}
@@ -0,0 +1,160 @@
+package com.sumit.taskscheduler.recovery;
+
+import com.sumit.taskscheduler.cache.TaskCache;
+import com.sumit.taskscheduler.cluster.LeaderElection;
+import com.sumit.taskscheduler.config.SchedulerProperties;
+import com.sumit.taskscheduler.dag.DagCoordinator;
+import com.sumit.taskscheduler.entity.Task;
+import com.sumit.taskscheduler.executor.RetryBackoff;
+import com.sumit.taskscheduler.repository.HistoryRecoveryRepository;
+import com.sumit.taskscheduler.repository.HistoryRecoveryRepository.StaleExecution;
+import com.sumit.taskscheduler.repository.TaskRepository;
+import com.sumit.taskscheduler.repository.TaskStateRepository;
+import com.sumit.taskscheduler.scheduler.ScheduleChangeEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Recovers executions whose node died while running them.
+ *
+ * Every node renews the heartbeat of its running executions; on the leader, this sweeper finds
+ * RUNNING history rows whose heartbeat is older than stale-after-ms and marks them ABANDONED.
+ * The task is then recovered the way a failure would be: with retries left it is due again after
+ * the retry backoff, counting the abandoned run as one retry, and the dead node's lease on it is
+ * dropped so any node can claim it at once. Without retries left only the lease is dropped and the
+ * task waits for its next fire time. An execution inside a DAG run is reported to the run as failed,
+ * since its tasks are started by the run and never claimed on their own.
+ *
+ * Each recovery re-checks the leader lease in its transaction, so a node that has just lost
+ * leadership cannot recover an execution a second time.
+ */
+@Component
+@Slf4j
+public class OrphanedExecutionSweeper {
+
+    private enum Outcome {
+        LEADERSHIP_LOST,
+        ALREADY_FINISHED,
+        ABANDONED,
+        RESCHEDULED
+    }
+
+    private final HistoryRecoveryRepository recoveryRepository;
+    private final TaskRepository taskRepository;
+    private final TaskStateRepository taskStateRepository;
+    private final DagCoordinator dagCoordinator;
+    private final LeaderElection leaderElection;
+    private final TaskCache taskCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SchedulerProperties.Recovery recoveryProperties;
+    private final SchedulerProperties.Retry retryProperties;
+    private final RetryBackoff retryBackoff;
+
+    public OrphanedExecutionSweeper(HistoryRecoveryRepository recoveryRepository, TaskRepository taskRepository,
+                                    TaskStateRepository taskStateRepository, DagCoordinator dagCoordinator,
+                                    LeaderElection leaderElection, TaskCache taskCache,
+                                    ApplicationEventPublisher eventPublisher,
+                                    SchedulerProperties properties) {
+        this.recoveryRepository = recoveryRepository;
+        this.taskRepository = taskRepository;
+        this.taskStateRepository = taskStateRepository;
+        this.dagCoordinator = dagCoordinator;
+        this.leaderElection = leaderElection;
+        this.taskCache = taskCache;
+        this.eventPublisher = eventPublisher;
+        this.recoveryProperties = properties.getRecovery();
+        this.retryProperties = properties.getRetry();
+        this.retryBackoff = new RetryBackoff(retryProperties);
+    }
+
+    @Scheduled(fixedDelayString = "${scheduler.recovery.sweep-interval-ms:15000}",
+            initialDelayString = "${scheduler.recovery.sweep-interval-ms:15000}")
+    public void sweep() {
+        if (!recoveryProperties.isEnabled()) {
+            return;
+        }
+        try {
+            leaderElection.runIfLeader("orphaned execution recovery", this::recoverStaleExecutions);
+        } catch (Exception e) {
+            log.error("❌ Orphaned execution recovery failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Recover every execution whose heartbeat is older than stale-after-ms
+     *
+     * @return Number of executions marked ABANDONED
+     */
+    public int recoverStaleExecutions() {
+        int recovered = 0;
+        while (true) {
+            LocalDateTime cutoff = LocalDateTime.now().minusNanos(recoveryProperties.getStaleAfterMs() * 1_000_000L);
+            List<StaleExecution> stale = recoveryRepository.findStaleRunning(cutoff, recoveryProperties.getBatchSize());
+            for (StaleExecution execution : stale) {
+                Outcome outcome = leaderElection.fencedTransactions().execute(status -> recover(execution));
+                if (outcome == Outcome.LEADERSHIP_LOST) {
+                    log.info("Stopping orphaned execution recovery: this node is no longer the leader");
+                    return recovered;
+                }
+                if (outcome == Outcome.RESCHEDULED) {
+                    // Read after commit, so the poller sees the new fire time
+                    taskRepository.findById(execution.taskId())
+                            .ifPresent(task -> eventPublisher.publishEvent(ScheduleChangeEvent.changed(task)));
+                }
+                if (outcome != Outcome.ALREADY_FINISHED) {
+                    recovered++;
+                }
+            }
+            if (stale.size() < recoveryProperties.getBatchSize()) {
+                return recovered;
+            }
+        }
+    }
+
+    private Outcome recover(StaleExecution execution) {
+        if (!leaderElection.holdsLease()) {
+            return Outcome.LEADERSHIP_LOST;
+        }
+        String reason = "Node " + Objects.requireNonNullElse(execution.ownerNode(), "unknown")
+                + " stopped reporting this execution"
+                + (execution.heartbeatAt() != null ? " after " + execution.heartbeatAt() : "");
+        if (!recoveryRepository.markAbandoned(execution, reason)) {
+            return Outcome.ALREADY_FINISHED;
+        }
+        log.warn("🪦 Execution {} of task {} abandoned: {}", execution.executionId(), execution.taskId(), reason);
+
+        taskCache.invalidate(execution.taskId());
+        Optional<Task> task = taskRepository.findById(execution.taskId());
+        if (execution.dagRunId() != null) {
+            Task member = task.orElseGet(Task::new);
+            member.setId(execution.taskId());
+            member.setDagRunId(execution.dagRunId());
+            // A failure releases no downstream task, so nothing is returned to start
+            dagCoordinator.onExecutionFinished(member, false);
+        } else if (task.isPresent() && shouldRetry(task.get())) {
+            int retryAttempt = task.get().getRetryCount() + 1;
+            LocalDateTime retryAt = LocalDateTime.now().plus(retryBackoff.delayFor(retryAttempt));
+            if (taskStateRepository.rescheduleAbandoned(execution.taskId(), execution.ownerNode(), retryAt)) {
+                log.info("♻️ Task {} rescheduled for {} after its abandoned execution (retry {} of {})",
+                        execution.taskId(), retryAt, retryAttempt, task.get().getMaxRetries());
+                return Outcome.RESCHEDULED;
+            }
+        } else if (execution.ownerNode() != null) {
+            taskStateRepository.releaseLease(execution.taskId(), execution.ownerNode());
+        }
+        return Outcome.ABANDONED;
+    }
+
+    private boolean shouldRetry(Task task) {
+        return retryProperties.isEnabled()
+                && "ACTIVE".equals(task.getStatus())
+                && Objects.requireNonNullElse(task.getRetryCount(), 0) < Objects.requireNonNullElse(task.getMaxRetries(), 0);
+    }
+}
@@ -0,0 +1,28 @@
+package com.sumit.taskscheduler.repository;
+
+import com.sumit.taskscheduler.entity.ClusterNode;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ClusterNodeRepository extends JpaRepository<ClusterNode, String> {
+
+    // Renew a heartbeat; 0 when the node is not registered (first start, or removed as dead)
+    @Modifying
+    @Query("UPDATE ClusterNode n SET n.heartbeatAt = :now WHERE n.nodeId = :nodeId")
+    int touch(@Param("nodeId") String nodeId, @Param("now") LocalDateTime now);
+
+    @Query("SELECT n.nodeId FROM ClusterNode n WHERE n.heartbeatAt > :cutoff ORDER BY n.nodeId")
+    List<String> findLiveNodeIds(@Param("cutoff") LocalDateTime cutoff);
+
+    // Forget nodes that stopped without deregistering
+    @Modifying
+    @Query("DELETE FROM ClusterNode n WHERE n.heartbeatAt < :cutoff")
+    int deleteDeadNodes(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,23 @@
+package com.sumit.taskscheduler.repository;
+
+import com.sumit.taskscheduler.entity.DagRun;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface DagRunRepository extends JpaRepository<DagRun, Long> {
+
+    List<DagRun> findByRootTaskIdOrderByIdDesc(Long rootTaskId, Limit limit);
+
+    // Close a run once; a second caller finds it already finished
+    @Modifying
+    @Query("UPDATE DagRun r SET r.status = :status, r.finishedAt = :finishedAt WHERE r.id = :id AND r.status = 'RUNNING'")
+    int finish(@Param("id") Long id, @Param("status") String status, @Param("finishedAt") LocalDateTime finishedAt);
+}
@@ -0,0 +1,42 @@
+package com.sumit.taskscheduler.repository;
+
+import com.sumit.taskscheduler.entity.DagRunTask;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Run state changes are conditional single-row UPDATEs: the row lock serialises parents
+ * completing at the same time, on this node or another, and the status condition lets
+ * exactly one of them start a join task.
+ */
+@Repository
+public interface DagRunTaskRepository extends JpaRepository<DagRunTask, Long> {
+
+    List<DagRunTask> findByDagRunIdOrderById(Long dagRunId);
+
+    long countByDagRunIdAndStatusIn(Long dagRunId, Collection<String> statuses);
+
+    @Modifying
+    @Query("UPDATE DagRunTask t SET t.pendingParents = t.pendingParents - 1 " +
+            "WHERE t.dagRunId = :runId AND t.taskId = :taskId AND t.status = 'PENDING'")
+    int releaseParent(@Param("runId") Long runId, @Param("taskId") Long taskId);
+
+    @Modifying
+    @Query("UPDATE DagRunTask t SET t.status = 'RUNNING', t.startedAt = :now " +
+            "WHERE t.dagRunId = :runId AND t.taskId = :taskId AND t.status = 'PENDING' AND t.pendingParents = 0")
+    int startIfReady(@Param("runId") Long runId, @Param("taskId") Long taskId, @Param("now") LocalDateTime now);
+
+    // Move a task from one state to another, e.g. RUNNING to SUCCESS or PENDING to SKIPPED
+    @Modifying
+    @Query("UPDATE DagRunTask t SET t.status = :to, t.finishedAt = :now " +
+            "WHERE t.dagRunId = :runId AND t.taskId = :taskId AND t.status = :from")
+    int transition(@Param("runId") Long runId, @Param("taskId") Long taskId,
+                   @Param("from") String from, @Param("to") String to, @Param("now") LocalDateTime now);
+}
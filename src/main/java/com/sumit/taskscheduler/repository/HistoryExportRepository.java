@@ -0,0 +1,85 @@
+package com.sumit.taskscheduler.repository;
+
+import com.sumit.taskscheduler.entity.TaskExecutionHistory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Reads execution history ranges row by row from a forward-only, read-only cursor.
+ * Rows are fetched from the database fetchSize at a time and handed on as they arrive,
+ * without a persistence context, so memory does not grow with the size of the range.
+ *
+ * PostgreSQL only honours the fetch size inside a transaction; callers must run in one.
+ */
+@Repository
+@RequiredArgsConstructor
+public class HistoryExportRepository {
+
+    private static final int FETCH_SIZE = 1000;
+
+    private static final String SELECT_RANGE_SQL = "SELECT id, execution_id, task_id, execution_time, status, " +
+            "error_message, execution_duration_ms, created_at FROM task_execution_history " +
+            "WHERE execution_time >= ? AND execution_time < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Pass every execution in [from, to) to the sink, in execution time order
+     *
+     * @param status Only executions with this status, or all when null
+     * @param taskId Only executions of this task, or all when null
+     */
+    public void streamRange(LocalDateTime from, LocalDateTime to, String status, Long taskId,
+                            Consumer<TaskExecutionHistory> sink) {
+        StringBuilder sql = new StringBuilder(SELECT_RANGE_SQL);
+        List<Object> args = new ArrayList<>(List.of(Timestamp.valueOf(from), Timestamp.valueOf(to)));
+        if (status != null) {
+            sql.append(" AND status = ?");
+            args.add(status);
+        }
+        if (taskId != null) {
+            sql.append(" AND task_id = ?");
+            args.add(taskId);
+        }
+        sql.append(" ORDER BY execution_time, id");
+
+        PreparedStatementCreator statement = connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql.toString(),
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(FETCH_SIZE);
+            for (int i = 0; i < args.size(); i++) {
+                ps.setObject(i + 1, args.get(i));
+            }
+            return ps;
+        };
+        jdbcTemplate.query(statement, (RowCallbackHandler) rs -> sink.accept(mapRow(rs)));
+    }
+
+    private static TaskExecutionHistory mapRow(ResultSet rs) throws SQLException {
+        long durationMs = rs.getLong("execution_duration_ms");
+        Long executionDurationMs = rs.wasNull() ? null : durationMs;
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        return TaskExecutionHistory.builder()
+                .id(rs.getLong("id"))
+                .executionId(rs.getString("execution_id"))
+                .taskId(rs.getLong("task_id"))
+                .executionTime(rs.getTimestamp("execution_time").toLocalDateTime())
+                .status(rs.getString("status"))
+                .errorMessage(rs.getString("error_message"))
+                .executionDurationMs(executionDurationMs)
+                .createdAt(createdAt == null ? null : createdAt.toLocalDateTime())
+                .build();
+    }
+}
@@ -0,0 +1,157 @@
+package com.sumit.taskscheduler.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static com.sumit.taskscheduler.repository.HistoryRetentionRepository.HISTORY_TABLE;
+
+/**
+ * PostgreSQL declarative range partitioning of the execution history table, one partition per day.
+ * Partitions are named task_execution_history_pYYYYMMDD; dropping one removes a whole day
+ * without row-by-row deletes, dead tuples or vacuum work.
+ *
+ * DDL here must run inside a transaction, which PostgreSQL applies atomically.
+ */
+@Repository
+@RequiredArgsConstructor
+public class HistoryPartitionRepository {
+
+    private static final String LEGACY_TABLE = HISTORY_TABLE + "_legacy";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final Pattern BOUNDS = Pattern.compile("FROM \\((.+?)\\) TO \\((.+?)\\)");
+
+    // Serialises partition maintenance across nodes sharing the database
+    private static final long MAINTENANCE_LOCK_KEY = 0x7461736b68697374L;
+
+    // Mirrors the @Table indexes of TaskExecutionHistory, which Hibernate created on the unpartitioned table
+    private static final List<String> HISTORY_INDEXES = List.of(
+            "CREATE INDEX IF NOT EXISTS idx_history_execution_id ON " + HISTORY_TABLE + " (execution_id)",
+            "CREATE INDEX IF NOT EXISTS idx_history_execution_time ON " + HISTORY_TABLE + " (execution_time, id)",
+            "CREATE INDEX IF NOT EXISTS idx_history_status_heartbeat ON " + HISTORY_TABLE + " (status, heartbeat_at)");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public boolean isPostgres() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        return "PostgreSQL".equalsIgnoreCase(product);
+    }
+
+    public boolean isPartitioned() {
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM pg_partitioned_table " +
+                "WHERE partrelid = to_regclass(?)", Integer.class, HISTORY_TABLE);
+        return count != null && count > 0;
+    }
+
+    /**
+     * Wait for the cluster-wide maintenance lock, held until the current transaction ends
+     */
+    public void lock() {
+        jdbcTemplate.queryForObject("SELECT pg_advisory_xact_lock(?)::text", String.class, MAINTENANCE_LOCK_KEY);
+    }
+
+    /**
+     * Take the cluster-wide maintenance lock if it is free, holding it until the current transaction ends
+     */
+    public boolean tryLock() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)",
+                Boolean.class, MAINTENANCE_LOCK_KEY));
+    }
+
+    /**
+     * Replace the plain history table created by Hibernate with a range-partitioned one.
+     * Existing rows stay where they are: the old table is attached as the partition for
+     * everything before firstPartitionStart, and ages out as a whole like any other partition.
+     */
+    public void convertToPartitioned(LocalDateTime firstPartitionStart) {
+        boolean hasRows = Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM " + HISTORY_TABLE + ")", Boolean.class));
+
+        jdbcTemplate.execute("ALTER TABLE " + HISTORY_TABLE + " RENAME TO " + LEGACY_TABLE);
+        // Constraint and index names moved with the table; free them for the partitioned one
+        jdbcTemplate.queryForList("SELECT conname FROM pg_constraint WHERE conrelid = to_regclass(?) AND contype = 'p'",
+                String.class, LEGACY_TABLE).forEach(primaryKey ->
+                jdbcTemplate.execute("ALTER TABLE " + LEGACY_TABLE + " DROP CONSTRAINT " + primaryKey));
+        jdbcTemplate.queryForList("SELECT indexname FROM pg_indexes WHERE tablename = ? AND schemaname = current_schema()",
+                String.class, LEGACY_TABLE).forEach(index ->
+                jdbcTemplate.execute("ALTER INDEX " + index + " RENAME TO " + index + "_legacy"));
+
+        jdbcTemplate.execute("CREATE TABLE " + HISTORY_TABLE + " (LIKE " + LEGACY_TABLE +
+                " INCLUDING DEFAULTS INCLUDING IDENTITY) PARTITION BY RANGE (execution_time)");
+        // A partitioned table's primary key must contain the partition key
+        jdbcTemplate.execute("ALTER TABLE " + HISTORY_TABLE + " ADD PRIMARY KEY (id, execution_time)");
+
+        if (hasRows) {
+            jdbcTemplate.queryForObject("SELECT setval(pg_get_serial_sequence(?, 'id'), " +
+                    "(SELECT MAX(id) FROM " + LEGACY_TABLE + "))", Long.class, HISTORY_TABLE);
+            jdbcTemplate.execute("ALTER TABLE " + LEGACY_TABLE + " ALTER COLUMN id DROP IDENTITY IF EXISTS");
+            jdbcTemplate.execute("ALTER TABLE " + HISTORY_TABLE + " ATTACH PARTITION " + LEGACY_TABLE +
+                    " FOR VALUES FROM (MINVALUE) TO ('" + Timestamp.valueOf(firstPartitionStart) + "')");
+        } else {
+            jdbcTemplate.execute("DROP TABLE " + LEGACY_TABLE);
+        }
+        // Matching indexes of an attached partition are adopted rather than rebuilt
+        HISTORY_INDEXES.forEach(jdbcTemplate::execute);
+    }
+
+    /**
+     * Create the partition holding one day of history
+     */
+    public void createPartition(LocalDate day) {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + HISTORY_TABLE + "_p" + day.format(PARTITION_SUFFIX) +
+                " PARTITION OF " + HISTORY_TABLE + " FOR VALUES FROM ('" + Timestamp.valueOf(day.atStartOfDay()) +
+                "') TO ('" + Timestamp.valueOf(day.plusDays(1).atStartOfDay()) + "')");
+    }
+
+    /**
+     * Partitions of the history table with their bounds, oldest first
+     */
+    public List<HistoryPartition> listPartitions() {
+        return jdbcTemplate.query("SELECT c.relname, pg_get_expr(c.relpartbound, c.oid) FROM pg_inherits i " +
+                        "JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = to_regclass(?)",
+                        (rs, rowNum) -> HistoryPartition.of(rs.getString(1), rs.getString(2)), HISTORY_TABLE)
+                .stream()
+                .sorted((a, b) -> a.to().compareTo(b.to()))
+                .toList();
+    }
+
+    public void dropPartition(String name) {
+        jdbcTemplate.execute("DROP TABLE " + name);
+    }
+
+    /**
+     * @param from Inclusive lower bound, or null for a partition open towards the past
+     * @param to   Exclusive upper bound
+     */
+    public record HistoryPartition(String name, LocalDateTime from, LocalDateTime to) {
+
+        static HistoryPartition of(String name, String bounds) {
+            Matcher matcher = BOUNDS.matcher(bounds);
+            if (!matcher.find()) {
+                throw new IllegalStateException("Unexpected bounds of partition " + name + ": " + bounds);
+            }
+            return new HistoryPartition(name, parseBound(matcher.group(1)), parseBound(matcher.group(2)));
+        }
+
+        private static LocalDateTime parseBound(String bound) {
+            if ("MINVALUE".equalsIgnoreCase(bound)) {
+                return null;
+            }
+            return Timestamp.valueOf(bound.replace("'", "")).toLocalDateTime();
+        }
+
+        public boolean covers(LocalDate day) {
+            return (from == null || !from.isAfter(day.atStartOfDay())) && !to.isBefore(day.plusDays(1).atStartOfDay());
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.sumit.taskscheduler.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Finds executions left RUNNING by a node that stopped heartbeating and closes them as ABANDONED.
+ * Plain SQL understood by both PostgreSQL and H2.
+ */
+@Repository
+@RequiredArgsConstructor
+public class HistoryRecoveryRepository {
+
+    // Rows written before executions had heartbeats fall back to their start time
+    private static final String FIND_STALE_SQL = "SELECT execution_id, task_id, execution_time, owner_node, " +
+            "heartbeat_at, dag_run_id FROM task_execution_history WHERE status = 'RUNNING' " +
+            "AND (heartbeat_at < ? OR (heartbeat_at IS NULL AND execution_time < ?)) " +
+            "ORDER BY heartbeat_at LIMIT ?";
+
+    // Still guarded on RUNNING: an execution finishing right now keeps its real outcome
+    private static final String ABANDON_SQL = "UPDATE task_execution_history " +
+            "SET status = 'ABANDONED', error_message = ?, execution_duration_ms = ? " +
+            "WHERE execution_id = ? AND execution_time = ? AND status = 'RUNNING'";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public List<StaleExecution> findStaleRunning(LocalDateTime cutoff, int limit) {
+        Timestamp cutoffTs = Timestamp.valueOf(cutoff);
+        return jdbcTemplate.query(FIND_STALE_SQL, (rs, rowNum) -> {
+            Timestamp heartbeatAt = rs.getTimestamp("heartbeat_at");
+            long dagRunId = rs.getLong("dag_run_id");
+            boolean inDagRun = !rs.wasNull();
+            return new StaleExecution(
+                    rs.getString("execution_id"),
+                    rs.getLong("task_id"),
+                    rs.getTimestamp("execution_time").toLocalDateTime(),
+                    rs.getString("owner_node"),
+                    heartbeatAt != null ? heartbeatAt.toLocalDateTime() : null,
+                    inDagRun ? dagRunId : null);
+        }, cutoffTs, cutoffTs, limit);
+    }
+
+    /**
+     * @return true if the execution was still RUNNING and is now ABANDONED
+     */
+    public boolean markAbandoned(StaleExecution execution, String reason) {
+        // Last known alive, as the best estimate of how long it ran
+        LocalDateTime lastSeen = execution.heartbeatAt() != null ? execution.heartbeatAt() : execution.executionTime();
+        long durationMs = Math.max(0, Duration.between(execution.executionTime(), lastSeen).toMillis());
+        return jdbcTemplate.update(ABANDON_SQL, reason, durationMs, execution.executionId(),
+                Timestamp.valueOf(execution.executionTime())) == 1;
+    }
+
+    /**
+     * A RUNNING history row whose owner has stopped reporting it
+     *
+     * @param ownerNode   Null for rows written before executions were tagged with their node
+     * @param heartbeatAt Null for rows written before executions had heartbeats
+     */
+    public record StaleExecution(String executionId, long taskId, LocalDateTime executionTime, String ownerNode,
+                                 LocalDateTime heartbeatAt, Long dagRunId) {
+    }
+}
@@ -0,0 +1,86 @@
+package com.sumit.taskscheduler.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Compacts raw execution history into per-task hourly and daily rollups and removes raw rows.
+ * Plain SQL understood by both PostgreSQL and H2.
+ */
+@Repository
+@RequiredArgsConstructor
+public class HistoryRetentionRepository {
+
+    public static final String HISTORY_TABLE = "task_execution_history";
+
+    // %1$s: source table, %2$s: date_trunc unit; the unit is repeated as a literal so GROUP BY matches the select
+    private static final String ROLLUP_SQL = "INSERT INTO task_execution_rollup " +
+            "(task_id, granularity, bucket_start, executions, failures, p50_ms, p95_ms, p99_ms, max_ms, created_at) " +
+            "SELECT task_id, ?, DATE_TRUNC('%2$s', execution_time), COUNT(*), " +
+            "SUM(CASE WHEN status IN ('FAILED', 'TIMED_OUT', 'ABANDONED') THEN 1 ELSE 0 END), " +
+            "PERCENTILE_CONT(0.5) WITHIN GROUP (ORDER BY execution_duration_ms), " +
+            "PERCENTILE_CONT(0.95) WITHIN GROUP (ORDER BY execution_duration_ms), " +
+            "PERCENTILE_CONT(0.99) WITHIN GROUP (ORDER BY execution_duration_ms), " +
+            "MAX(execution_duration_ms), ? " +
+            "FROM %1$s WHERE execution_time >= ? AND execution_time < ? AND status <> 'RUNNING' " +
+            "GROUP BY task_id, DATE_TRUNC('%2$s', execution_time)";
+
+    private static final String DELETE_ROLLUPS_SQL = "DELETE FROM task_execution_rollup " +
+            "WHERE bucket_start >= ? AND bucket_start < ?";
+
+    private static final String DELETE_RAW_SQL = "DELETE FROM " + HISTORY_TABLE +
+            " WHERE execution_time >= ? AND execution_time < ?";
+
+    private static final String RUNNING_SQL = "SELECT COUNT(*) FROM %s " +
+            "WHERE status = 'RUNNING' AND execution_time >= ? AND execution_time < ?";
+
+    private static final String OLDEST_SQL = "SELECT MIN(execution_time) FROM %s";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Replace the rollups of [from, to) with fresh hourly and daily aggregates of the given table.
+     * Both bounds must be at midnight so every daily bucket is complete.
+     *
+     * @return Number of rollup rows written
+     */
+    public int rollUp(String table, LocalDateTime from, LocalDateTime to) {
+        Timestamp fromTs = Timestamp.valueOf(from);
+        Timestamp toTs = Timestamp.valueOf(to);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        // Rolling a range up again (e.g. after a crash before its raw rows were removed) must not double count
+        jdbcTemplate.update(DELETE_ROLLUPS_SQL, fromTs, toTs);
+        return jdbcTemplate.update(ROLLUP_SQL.formatted(table, "hour"), "HOUR", now, fromTs, toTs)
+                + jdbcTemplate.update(ROLLUP_SQL.formatted(table, "day"), "DAY", now, fromTs, toTs);
+    }
+
+    /**
+     * Delete the raw rows of [from, to) from the history table
+     *
+     * @return Number of rows deleted
+     */
+    public int deleteRaw(LocalDateTime from, LocalDateTime to) {
+        return jdbcTemplate.update(DELETE_RAW_SQL, Timestamp.valueOf(from), Timestamp.valueOf(to));
+    }
+
+    /**
+     * Number of executions of [from, to) in the given table that are still RUNNING
+     */
+    public int countRunning(String table, LocalDateTime from, LocalDateTime to) {
+        Integer running = jdbcTemplate.queryForObject(RUNNING_SQL.formatted(table), Integer.class,
+                Timestamp.valueOf(from), Timestamp.valueOf(to));
+        return running == null ? 0 : running;
+    }
+
+    /**
+     * Execution time of the oldest row in the given table, or null if it is empty
+     */
+    public LocalDateTime oldestExecutionTime(String table) {
+        Timestamp oldest = jdbcTemplate.queryForObject(OLDEST_SQL.formatted(table), Timestamp.class);
+        return oldest == null ? null : oldest.toLocalDateTime();
+    }
+}
@@ -0,0 +1,45 @@
+package com.sumit.taskscheduler.repository;
+
+import com.sumit.taskscheduler.entity.LeaderLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface LeaderLeaseRepository extends JpaRepository<LeaderLease, String> {
+
+    // Extend the lease, only while it is still held under the same token and has not expired
+    @Modifying
+    @Query("UPDATE LeaderLease l SET l.expiresAt = :expiresAt WHERE l.name = :name " +
+            "AND l.holderNode = :nodeId AND l.fencingToken = :token AND l.expiresAt > :now")
+    int renew(@Param("name") String name, @Param("nodeId") String nodeId, @Param("token") long token,
+              @Param("now") LocalDateTime now, @Param("expiresAt") LocalDateTime expiresAt);
+
+    // Take an expired lease over under the next fencing token
+    @Modifying
+    @Query("UPDATE LeaderLease l SET l.holderNode = :nodeId, l.fencingToken = l.fencingToken + 1, " +
+            "l.acquiredAt = :now, l.expiresAt = :expiresAt WHERE l.name = :name AND l.expiresAt <= :now")
+    int takeOver(@Param("name") String name, @Param("nodeId") String nodeId,
+                 @Param("now") LocalDateTime now, @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Query("SELECT l.fencingToken FROM LeaderLease l WHERE l.name = :name")
+    long findFencingToken(@Param("name") String name);
+
+    // Expire the lease at once so another node can take over without waiting
+    @Modifying
+    @Query("UPDATE LeaderLease l SET l.expiresAt = :now WHERE l.name = :name " +
+            "AND l.holderNode = :nodeId AND l.fencingToken = :token")
+    int release(@Param("name") String name, @Param("nodeId") String nodeId, @Param("token") long token,
+                @Param("now") LocalDateTime now);
+
+    // Plain read without a row lock, so it never holds up the holder's own renewal
+    @Query("SELECT COUNT(l) > 0 FROM LeaderLease l WHERE l.name = :name AND l.holderNode = :nodeId " +
+            "AND l.fencingToken = :token AND l.expiresAt > :heldUntil")
+    boolean isHeldUntil(@Param("name") String name, @Param("nodeId") String nodeId,
+                        @Param("token") long token, @Param("heldUntil") LocalDateTime heldUntil);
+}
@@ -0,0 +1,44 @@
+package com.sumit.taskscheduler.repository;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Cluster-wide locks on rows of scheduler_locks, held until the current transaction ends
+ */
+@Repository
+public class SchedulerLockRepository {
+
+    private static final String LOCK_SQL = "SELECT name FROM scheduler_locks WHERE name = ? FOR UPDATE";
+
+    private static final String CREATE_SQL = "INSERT INTO scheduler_locks (name) VALUES (?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    // Creates a missing row in a transaction of its own, so a lost insert race cannot abort the caller's
+    private final TransactionTemplate createTransaction;
+
+    public SchedulerLockRepository(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.createTransaction = new TransactionTemplate(transactionManager);
+        this.createTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Wait for the named lock, creating its row on first use
+     */
+    public void lock(String name) {
+        if (!jdbcTemplate.queryForList(LOCK_SQL, String.class, name).isEmpty()) {
+            return;
+        }
+        try {
+            createTransaction.executeWithoutResult(status -> jdbcTemplate.update(CREATE_SQL, name));
+        } catch (DataIntegrityViolationException e) {
+            // Another node created it first
+        }
+        jdbcTemplate.queryForList(LOCK_SQL, String.class, name);
+    }
+}
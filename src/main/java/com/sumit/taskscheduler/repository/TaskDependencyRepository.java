@@ -0,0 +1,30 @@
+package com.sumit.taskscheduler.repository;
+
+import com.sumit.taskscheduler.entity.TaskDependency;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+@Repository
+public interface TaskDependencyRepository extends JpaRepository<TaskDependency, Long> {
+
+    List<TaskDependency> findByUpstreamTaskId(Long upstreamTaskId);
+
+    List<TaskDependency> findByDownstreamTaskId(Long downstreamTaskId);
+
+    Optional<TaskDependency> findByUpstreamTaskIdAndDownstreamTaskId(Long upstreamTaskId, Long downstreamTaskId);
+
+    // Tasks that start DAG runs or are part of one as a parent
+    @Query("SELECT DISTINCT d.upstreamTaskId FROM TaskDependency d")
+    Set<Long> findUpstreamTaskIds();
+
+    @Modifying
+    @Query("DELETE FROM TaskDependency d WHERE d.upstreamTaskId = :taskId OR d.downstreamTaskId = :taskId")
+    int deleteByTaskId(@Param("taskId") Long taskId);
+}
@@ -8,7 +8,6 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -23,9 +22,6 @@ public interface TaskExecutionHistoryRepository extends JpaRepository<TaskExecut
     // Find recent executions (last N records)
     List<TaskExecutionHistory> findTop10ByTaskIdOrderByExecutionTimeDesc(Long taskId);
 
-    // Find failed executions
-    List<TaskExecutionHistory> findByStatusOrderByExecutionTimeDesc(String status);
-
     // Count executions for a task
     long countByTaskId(Long taskId);
 
@@ -33,6 +29,5 @@ public interface TaskExecutionHistoryRepository extends JpaRepository<TaskExecut
     @Query("SELECT COUNT(h) FROM TaskExecutionHistory h WHERE h.taskId = :taskId AND h.status = :status")
     long countByTaskIdAndStatus(@Param("taskId") Long taskId, @Param("status") String status);
 
-    // Find executions in a date range
-    List<TaskExecutionHistory> findByExecutionTimeBetween(LocalDateTime start, LocalDateTime end);
+    // Ranges of history are streamed by HistoryExportRepository rather than loaded into a list
 }
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.sumit.taskscheduler.repository;
+
+import com.sumit.taskscheduler.entity.TaskExecutionRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TaskExecutionRollupRepository extends JpaRepository<TaskExecutionRollup, Long> {
+
+    // Rollups of a task at one granularity with buckets starting in [from, to)
+    @Query("SELECT r FROM TaskExecutionRollup r WHERE r.taskId = :taskId AND r.granularity = :granularity " +
+            "AND r.bucketStart >= :from AND r.bucketStart < :to ORDER BY r.bucketStart")
+    List<TaskExecutionRollup> findRange(@Param("taskId") Long taskId,
+                                        @Param("granularity") String granularity,
+                                        @Param("from") LocalDateTime from,
+                                        @Param("to") LocalDateTime to);
+}
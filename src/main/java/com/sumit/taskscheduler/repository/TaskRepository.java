@@ -1,14 +1,18 @@
 package com.sumit.taskscheduler.repository;
 
+import com.sumit.taskscheduler.cluster.ShardRing;
 import com.sumit.taskscheduler.entity.Task;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.stereotype.Repository;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -17,11 +21,81 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
     // Find all tasks with a specific status
     List<Task> findByStatus(String status);
 
+    // Keyset page in id order, optionally of one status; no OFFSET scan and no COUNT query
+    @Query("SELECT t FROM Task t WHERE t.id > :afterId AND (:status IS NULL OR t.status = :status) ORDER BY t.id")
+    List<Task> findPageAfterId(@Param("afterId") long afterId, @Param("status") String status, Limit limit);
+
+    // Keyset page in fire time order, ties broken by id; tasks without a fire time are not listed
+    @Query("SELECT t FROM Task t WHERE (t.nextExecutionTime > :afterTime " +
+            "OR (t.nextExecutionTime = :afterTime AND t.id > :afterId)) " +
+            "AND (:status IS NULL OR t.status = :status) ORDER BY t.nextExecutionTime, t.id")
+    List<Task> findPageAfterNextExecutionTime(@Param("afterTime") LocalDateTime afterTime,
+                                              @Param("afterId") long afterId,
+                                              @Param("status") String status,
+                                              Limit limit);
+
     // Find tasks that are due for execution
     @Query("SELECT t FROM Task t WHERE t.nextExecutionTime <= :now AND t.status = 'ACTIVE' " +
-            "ORDER BY t.priority DESC, t.nextExecutionTime ASC")
+            "ORDER BY CASE t.priority WHEN 'HIGH' THEN 0 WHEN 'LOW' THEN 2 ELSE 1 END, t.nextExecutionTime ASC")
     List<Task> findDueTasks(@Param("now") LocalDateTime now);
 
+    // Earliest upcoming fire time of any cron-started active task; a range scan of idx_tasks_next_execution
+    @Query("SELECT MIN(t.nextExecutionTime) FROM Task t WHERE t.status = 'ACTIVE' AND t.nextExecutionTime > :now " +
+            "AND NOT EXISTS (SELECT 1 FROM TaskDependency d WHERE d.downstreamTaskId = t.id)")
+    LocalDateTime findEarliestNextExecutionTimeAfter(@Param("now") LocalDateTime now);
+
+    // Same, limited to the given shard slots; on PostgreSQL a scan of idx_tasks_shard_next_execution per slot
+    @Query(value = "SELECT MIN(t.next_execution_time) FROM tasks t WHERE t.status = 'ACTIVE' " +
+            "AND MOD(t.id, " + ShardRing.SLOT_COUNT + ") IN (:slots) AND t.next_execution_time > :now " +
+            "AND NOT EXISTS (SELECT 1 FROM task_dependencies d WHERE d.downstream_task_id = t.id)", nativeQuery = true)
+    LocalDateTime findEarliestNextExecutionTimeInSlotsAfter(@Param("slots") Collection<Integer> slots,
+                                                           @Param("now") LocalDateTime now);
+
+    // Lock a batch of due, unleased tasks; rows locked by other nodes are skipped instead of waited on.
+    // Tasks with upstream dependencies are started by their DAG runs, never by their cron expression.
+    @Query(value = "SELECT * FROM tasks t WHERE t.status = 'ACTIVE' AND t.next_execution_time <= :now " +
+            "AND (t.lease_expires_at IS NULL OR t.lease_expires_at < :now) " +
+            "AND NOT EXISTS (SELECT 1 FROM task_dependencies d WHERE d.downstream_task_id = t.id) " +
+            "ORDER BY CASE t.priority WHEN 'HIGH' THEN 0 WHEN 'LOW' THEN 2 ELSE 1 END, t.next_execution_time ASC " +
+            "LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Task> lockDueTasks(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    // lockDueTasks restricted to the shard slots owned by the calling node
+    @Query(value = "SELECT * FROM tasks t WHERE t.status = 'ACTIVE' " +
+            "AND MOD(t.id, " + ShardRing.SLOT_COUNT + ") IN (:slots) AND t.next_execution_time <= :now " +
+            "AND (t.lease_expires_at IS NULL OR t.lease_expires_at < :now) " +
+            "AND NOT EXISTS (SELECT 1 FROM task_dependencies d WHERE d.downstream_task_id = t.id) " +
+            "ORDER BY CASE t.priority WHEN 'HIGH' THEN 0 WHEN 'LOW' THEN 2 ELSE 1 END, t.next_execution_time ASC " +
+            "LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Task> lockDueTasksInSlots(@Param("slots") Collection<Integer> slots,
+                                   @Param("now") LocalDateTime now,
+                                   @Param("limit") int limit);
+
+    // Claim a single due task if no other node holds its lease
+    @Modifying
+    @Query("UPDATE Task t SET t.ownerNode = :nodeId, t.leaseExpiresAt = :leaseExpiresAt, " +
+            "t.nextExecutionTime = :nextExecutionTime " +
+            "WHERE t.id = :id AND t.status = 'ACTIVE' AND t.nextExecutionTime <= :now " +
+            "AND (t.leaseExpiresAt IS NULL OR t.leaseExpiresAt < :now) " +
+            "AND NOT EXISTS (SELECT 1 FROM TaskDependency d WHERE d.downstreamTaskId = t.id)")
+    int claimTask(@Param("id") Long id,
+                  @Param("nodeId") String nodeId,
+                  @Param("leaseExpiresAt") LocalDateTime leaseExpiresAt,
+                  @Param("nextExecutionTime") LocalDateTime nextExecutionTime,
+                  @Param("now") LocalDateTime now);
+
+    @Query("SELECT t.version FROM Task t WHERE t.id = :id")
+    long findVersion(@Param("id") Long id);
+
+    // Move an unleased, overdue task on to its next fire time without claiming it
+    @Modifying
+    @Query("UPDATE Task t SET t.nextExecutionTime = :nextExecutionTime " +
+            "WHERE t.id = :id AND t.status = 'ACTIVE' AND t.nextExecutionTime <= :now " +
+            "AND (t.leaseExpiresAt IS NULL OR t.leaseExpiresAt < :now)")
+    int skipMissedFires(@Param("id") Long id,
+                        @Param("nextExecutionTime") LocalDateTime nextExecutionTime,
+                        @Param("now") LocalDateTime now);
+
     // Find tasks by type
     List<Task> findByTaskType(String taskType);
 
@@ -0,0 +1,41 @@
+package com.sumit.taskscheduler.repository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Task ids come from the pooled tasks_seq sequence. A PostgreSQL database whose tasks were
+ * inserted with identity ids already holds rows the sequence knows nothing about, so once
+ * Hibernate has created the sequence it is moved past the highest existing id.
+ */
+@Repository
+@RequiredArgsConstructor
+@Slf4j
+public class TaskSequenceRepository implements SmartInitializingSingleton {
+
+    // Only ever moves the sequence forward, and only while it is behind the table
+    private static final String ALIGN_SQL = "SELECT setval('tasks_seq', t.max_id) " +
+            "FROM (SELECT MAX(id) AS max_id FROM tasks) t " +
+            "WHERE t.max_id >= (SELECT last_value FROM tasks_seq)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equalsIgnoreCase(product)) {
+            return;
+        }
+        List<Long> aligned = jdbcTemplate.queryForList(ALIGN_SQL, Long.class);
+        if (!aligned.isEmpty()) {
+            log.info("Moved tasks_seq past existing task ids to {}", aligned.getFirst());
+        }
+    }
+}
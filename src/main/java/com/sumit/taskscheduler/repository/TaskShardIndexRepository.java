@@ -0,0 +1,41 @@
+package com.sumit.taskscheduler.repository;
+
+import com.sumit.taskscheduler.cluster.ShardRing;
+import com.sumit.taskscheduler.config.SchedulerProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * With sharding enabled each node polls tasks by MOD(id, SLOT_COUNT). JPA cannot declare an
+ * expression index, so on PostgreSQL it is created here once Hibernate has created the table;
+ * it lets a node's poll read only its own slots instead of every due task in the table.
+ */
+@Repository
+@RequiredArgsConstructor
+@Slf4j
+public class TaskShardIndexRepository implements SmartInitializingSingleton {
+
+    private static final String CREATE_INDEX_SQL = "CREATE INDEX IF NOT EXISTS idx_tasks_shard_next_execution " +
+            "ON tasks (MOD(id, " + ShardRing.SLOT_COUNT + "), next_execution_time) WHERE status = 'ACTIVE'";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SchedulerProperties properties;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!properties.getCluster().isShardingEnabled()) {
+            return;
+        }
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equalsIgnoreCase(product)) {
+            return;
+        }
+        jdbcTemplate.execute(CREATE_INDEX_SQL);
+        log.info("Shard index idx_tasks_shard_next_execution is in place");
+    }
+}
@@ -0,0 +1,118 @@
+package com.sumit.taskscheduler.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Writes the scheduler-owned columns of a task in a single version-guarded UPDATE,
+ * without loading the entity. A row whose version has changed since it was read
+ * (for example by a concurrent API edit) is left untouched and reported as not updated.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TaskStateRepository {
+
+    // Columns are evaluated against the old row, so the lease is only released by its owner
+    private static final String UPDATE_AFTER_EXECUTION_SQL = "UPDATE tasks SET " +
+            "last_execution_time = ?, retry_count = ?, next_execution_time = ?, " +
+            "owner_node = CASE WHEN owner_node = ? THEN NULL ELSE owner_node END, " +
+            "lease_expires_at = CASE WHEN owner_node = ? THEN NULL ELSE lease_expires_at END, " +
+            "version = version + 1, updated_at = ? " +
+            "WHERE id = ? AND version = ?";
+
+    private static final String RELEASE_LEASE_SQL = "UPDATE tasks SET owner_node = NULL, lease_expires_at = NULL " +
+            "WHERE id = ? AND owner_node = ?";
+
+    // Moves the schedule back only if it is still where the claim left it, so a concurrent edit wins
+    private static final String RETURN_CLAIM_SQL = "UPDATE tasks SET owner_node = NULL, lease_expires_at = NULL, " +
+            "next_execution_time = CASE WHEN next_execution_time = ? THEN ? ELSE next_execution_time END " +
+            "WHERE id = ? AND owner_node = ?";
+
+    // Brings the next fire forward to the retry time (never later) and drops the dead owner's lease
+    private static final String RESCHEDULE_ABANDONED_SQL = "UPDATE tasks SET " +
+            "next_execution_time = CASE WHEN next_execution_time IS NULL OR next_execution_time > ? " +
+            "THEN ? ELSE next_execution_time END, retry_count = retry_count + 1, " +
+            "owner_node = CASE WHEN owner_node = ? THEN NULL ELSE owner_node END, " +
+            "lease_expires_at = CASE WHEN owner_node = ? THEN NULL ELSE lease_expires_at END, " +
+            "version = version + 1, updated_at = ? " +
+            "WHERE id = ? AND status = 'ACTIVE'";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Apply one post-execution update
+     *
+     * @return true if the row was updated, false if it was modified concurrently or deleted
+     */
+    public boolean updateAfterExecution(ExecutionStateUpdate update) {
+        return jdbcTemplate.update(UPDATE_AFTER_EXECUTION_SQL, ps -> bind(ps, update)) == 1;
+    }
+
+    /**
+     * Give up a lease without executing the task, so the next fire time can be claimed again.
+     * Not version-guarded: only the lease columns change, and only if the node still owns them.
+     *
+     * @return true if the lease was held by the node and is now released
+     */
+    public boolean releaseLease(long taskId, String ownerNode) {
+        return jdbcTemplate.update(RELEASE_LEASE_SQL, taskId, ownerNode) == 1;
+    }
+
+    /**
+     * Hand a claimed fire back without executing it: release the lease and move the task's next
+     * fire time back from where the claim advanced it to the fire that was claimed, so the fire
+     * is claimed again by the next poll on any node.
+     *
+     * @param claimedNext Next fire time the claim advanced the task to
+     * @param fireTime    Fire that was claimed and did not run
+     * @return true if the lease was held by the node and is now released
+     */
+    public boolean returnClaim(long taskId, String ownerNode, LocalDateTime claimedNext, LocalDateTime fireTime) {
+        return jdbcTemplate.update(RETURN_CLAIM_SQL, Timestamp.valueOf(claimedNext), Timestamp.valueOf(fireTime),
+                taskId, ownerNode) == 1;
+    }
+
+    /**
+     * Schedule a retry of an active task whose execution was abandoned by a dead node, counting it
+     * against the task's retries
+     *
+     * @param ownerNode Node that ran the abandoned execution; its lease on the task is released
+     * @return true if the task is active and was rescheduled
+     */
+    public boolean rescheduleAbandoned(long taskId, String ownerNode, LocalDateTime retryAt) {
+        Timestamp retryAtTs = Timestamp.valueOf(retryAt);
+        return jdbcTemplate.update(RESCHEDULE_ABANDONED_SQL, retryAtTs, retryAtTs, ownerNode, ownerNode,
+                Timestamp.valueOf(LocalDateTime.now()), taskId) == 1;
+    }
+
+    private static void bind(PreparedStatement ps, ExecutionStateUpdate update) throws SQLException {
+        ps.setTimestamp(1, Timestamp.valueOf(update.lastExecutionTime()));
+        ps.setInt(2, update.retryCount());
+        ps.setTimestamp(3, Timestamp.valueOf(update.nextExecutionTime()));
+        ps.setString(4, update.ownerNode());
+        ps.setString(5, update.ownerNode());
+        ps.setTimestamp(6, Timestamp.valueOf(LocalDateTime.now()));
+        ps.setLong(7, update.taskId());
+        ps.setLong(8, update.expectedVersion());
+    }
+
+    /**
+     * New scheduler state of a task after one execution
+     *
+     * @param expectedVersion Version the update was computed from
+     * @param ownerNode       Node releasing its lease, or null
+     */
+    public record ExecutionStateUpdate(long taskId,
+                                       long expectedVersion,
+                                       LocalDateTime lastExecutionTime,
+                                       int retryCount,
+                                       LocalDateTime nextExecutionTime,
+                                       String ownerNode) {
+    }
+}
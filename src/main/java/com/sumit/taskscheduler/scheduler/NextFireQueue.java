@@ -0,0 +1,170 @@
+package com.sumit.taskscheduler.scheduler;
+
+import com.sumit.taskscheduler.entity.Task;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Min-heap of tasks keyed by their next fire instant.
+ * Rescheduling or removing a task marks its old heap entry as cancelled instead of
+ * searching the heap, so every operation stays O(log n) even with 100k+ tasks.
+ */
+public class NextFireQueue {
+
+    private final PriorityQueue<Entry> heap = new PriorityQueue<>(
+            Comparator.comparingLong((Entry e) -> e.fireAtMillis).thenComparingLong(e -> e.sequence));
+    private final Map<Long, Entry> entriesByTaskId = new HashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition headChanged = lock.newCondition();
+
+    private long sequence = 0;
+    private int cancelledEntries = 0;
+
+    /**
+     * Schedule (or reschedule) a task to fire at the given instant
+     */
+    public void schedule(Task task, long fireAtMillis) {
+        lock.lock();
+        try {
+            Entry entry = new Entry(task, fireAtMillis, sequence++);
+            Entry previous = entriesByTaskId.put(task.getId(), entry);
+            if (previous != null && !previous.fired) {
+                cancel(previous);
+            }
+            heap.add(entry);
+            if (heap.peek() == entry) {
+                headChanged.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Queue the following fire time of a task returned by {@link #takeDue()}, unless the task
+     * was removed or rescheduled while it was being dispatched
+     *
+     * @return true if the task was rescheduled
+     */
+    public boolean scheduleNext(Task firedTask, long fireAtMillis) {
+        lock.lock();
+        try {
+            Entry current = entriesByTaskId.get(firedTask.getId());
+            if (current == null || !current.fired || current.task != firedTask) {
+                return false;
+            }
+            Entry entry = new Entry(firedTask, fireAtMillis, sequence++);
+            entriesByTaskId.put(firedTask.getId(), entry);
+            heap.add(entry);
+            if (heap.peek() == entry) {
+                headChanged.signalAll();
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Remove a task from the queue, if present
+     */
+    public void remove(Long taskId) {
+        lock.lock();
+        try {
+            Entry entry = entriesByTaskId.remove(taskId);
+            if (entry != null && !entry.fired) {
+                cancel(entry);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Block until the earliest task is due, then take it off the heap and return it
+     */
+    public Task takeDue() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (true) {
+                Entry head = heap.peek();
+                if (head == null) {
+                    headChanged.await();
+                    continue;
+                }
+                if (head.cancelled) {
+                    heap.poll();
+                    cancelledEntries--;
+                    continue;
+                }
+
+                long delayMillis = head.fireAtMillis - System.currentTimeMillis();
+                if (delayMillis <= 0) {
+                    // Keep the entry mapped so scheduleNext() can tell whether the task changed meanwhile
+                    heap.poll();
+                    head.fired = true;
+                    return head.task;
+                }
+                headChanged.await(delayMillis, TimeUnit.MILLISECONDS);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Number of tasks currently scheduled
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return entriesByTaskId.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void clear() {
+        lock.lock();
+        try {
+            heap.clear();
+            entriesByTaskId.clear();
+            cancelledEntries = 0;
+            headChanged.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void cancel(Entry entry) {
+        entry.cancelled = true;
+        cancelledEntries++;
+
+        // Rebuild the heap once cancelled entries dominate, so churn cannot grow it without bound
+        if (cancelledEntries > 1024 && cancelledEntries > heap.size() / 2) {
+            heap.removeIf(e -> e.cancelled);
+            cancelledEntries = 0;
+        }
+        headChanged.signalAll();
+    }
+
+    private static final class Entry {
+        private final Task task;
+        private final long fireAtMillis;
+        private final long sequence;
+        private boolean cancelled;
+        private boolean fired;
+
+        private Entry(Task task, long fireAtMillis, long sequence) {
+            this.task = task;
+            this.fireAtMillis = fireAtMillis;
+            this.sequence = sequence;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.sumit.taskscheduler.scheduler;
+
+import com.sumit.taskscheduler.entity.Task;
+
+/**
+ * Published by the task write paths when a task's schedule may have changed: it was created,
+ * edited, paused, resumed or deleted. Delivered once the writing transaction has committed.
+ *
+ * @param taskId ID of the changed task
+ * @param task   Task in its latest persisted state, or null if it was deleted
+ */
+public record ScheduleChangeEvent(long taskId, Task task) {
+
+    public static ScheduleChangeEvent changed(Task task) {
+        return new ScheduleChangeEvent(task.getId(), task);
+    }
+
+    public static ScheduleChangeEvent removed(long taskId) {
+        return new ScheduleChangeEvent(taskId, null);
+    }
+
+    public boolean isRemoval() {
+        return task == null;
+    }
+}
@@ -0,0 +1,25 @@
+package com.sumit.taskscheduler.scheduler;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Hands committed schedule changes to the active scheduler, so it never acts on a write
+ * that is later rolled back. Changes published outside a transaction are delivered at once.
+ */
+@Component
+@RequiredArgsConstructor
+public class ScheduleChangeListener {
+
+    private final TaskSchedulerService taskSchedulerService;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onScheduleChange(ScheduleChangeEvent event) {
+        if (event.isRemoval()) {
+            taskSchedulerService.onTaskRemoved(event.taskId());
+        } else {
+            taskSchedulerService.onTaskChanged(event.task());
+        }
+    }
+}
@@ -1,4 +1,23 @@
 package com.sumit.taskscheduler.scheduler;
 
+import com.sumit.taskscheduler.entity.Task;
+
+/**
+ * Discovers due tasks and hands them to the execution engine
+ */
 public interface TaskSchedulerService {
+
+    /**
+     * Notifies the scheduler that a task was created or changed
+     *
+     * @param task Task in its latest persisted state
+     */
+    void onTaskChanged(Task task);
+
+    /**
+     * Notifies the scheduler that a task was deleted
+     *
+     * @param taskId ID of the removed task
+     */
+    void onTaskRemoved(Long taskId);
 }
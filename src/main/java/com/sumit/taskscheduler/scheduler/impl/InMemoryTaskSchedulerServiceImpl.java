@@ -0,0 +1,152 @@
+package com.sumit.taskscheduler.scheduler.impl;
+
+import com.sumit.taskscheduler.cluster.NodeIdentity;
+import com.sumit.taskscheduler.cluster.TaskClaimService;
+import com.sumit.taskscheduler.entity.Task;
+import com.sumit.taskscheduler.executor.TaskExecutionEngine;
+import com.sumit.taskscheduler.metrics.SchedulerMetrics;
+import com.sumit.taskscheduler.repository.TaskRepository;
+import com.sumit.taskscheduler.scheduler.NextFireQueue;
+import com.sumit.taskscheduler.scheduler.TaskSchedulerService;
+import com.sumit.taskscheduler.util.CronExpressionUtil;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Scheduler that keeps every ACTIVE task in memory and fires it at its exact due instant.
+ * The database is read once at startup; afterwards the queue is kept in sync through the
+ * committed schedule changes of this node, and each fire is a
+ * single-row claim so that several nodes can run in this mode against one database.
+ *
+ * The queued task instances belong to the dispatcher thread: the queue holds copies of the
+ * tasks it is given, and the engine gets the claimed copy of each fire.
+ */
+@Service
+@ConditionalOnProperty(prefix = "scheduler", name = "mode", havingValue = "in-memory")
+@RequiredArgsConstructor
+@Slf4j
+public class InMemoryTaskSchedulerServiceImpl implements TaskSchedulerService {
+
+    private final TaskRepository taskRepository;
+    private final TaskExecutionEngine executionEngine;
+    private final TaskClaimService taskClaimService;
+    private final NodeIdentity nodeIdentity;
+    private final SchedulerMetrics metrics;
+
+    private final NextFireQueue nextFireQueue = new NextFireQueue();
+    private Thread dispatcherThread;
+
+    /**
+     * Load all ACTIVE tasks and start the dispatcher once the application is ready
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        List<Task> activeTasks = taskRepository.findByStatus("ACTIVE");
+        activeTasks.forEach(this::schedule);
+        log.info("⏱️ Loaded {} active task(s) into the in-memory scheduler", nextFireQueue.size());
+
+        dispatcherThread = new Thread(this::dispatchLoop, "TaskScheduler-Dispatcher");
+        dispatcherThread.setDaemon(true);
+        dispatcherThread.start();
+    }
+
+    @Override
+    public void onTaskChanged(Task task) {
+        if ("ACTIVE".equals(task.getStatus())) {
+            schedule(task);
+        } else {
+            nextFireQueue.remove(task.getId());
+            log.debug("Task {} removed from in-memory scheduler (status: {})", task.getId(), task.getStatus());
+        }
+    }
+
+    @Override
+    public void onTaskRemoved(Long taskId) {
+        nextFireQueue.remove(taskId);
+        log.debug("Task {} removed from in-memory scheduler", taskId);
+    }
+
+    /**
+     * Take each task as it becomes due, hand it to the engine and queue its following fire time
+     */
+    private void dispatchLoop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                // Hold due tasks here rather than claim them while the engine cannot take them
+                executionEngine.awaitCapacity();
+                Task task = nextFireQueue.takeDue();
+                // Claim in the database first so other nodes holding the same task in memory skip it
+                long claimStart = System.nanoTime();
+                Optional<Task> claimed = taskClaimService.claimTask(nodeIdentity.getNodeId(), task);
+                metrics.recordDbWrite(task, "claim", System.nanoTime() - claimStart);
+                if (claimed.isPresent()) {
+                    Task fire = claimed.get();
+                    log.debug("⏰ Task {} is due, dispatching", task.getId());
+                    // Read before the hand-over: from then on the copy belongs to the engine's workers
+                    task.setNextExecutionTime(fire.getNextExecutionTime());
+                    executionEngine.executeAsync(fire);
+                } else {
+                    log.debug("Task {} already claimed by another node or no longer due", task.getId());
+                }
+                scheduleNext(task);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                log.error("Error in in-memory scheduler dispatch loop: {}", e.getMessage(), e);
+            }
+        }
+        log.info("In-memory scheduler dispatcher stopped");
+    }
+
+    private void schedule(Task task) {
+        LocalDateTime fireAt = task.getNextExecutionTime();
+        if (fireAt == null) {
+            try {
+                fireAt = CronExpressionUtil.getNextExecutionTime(task.getCronExpression());
+            } catch (Exception e) {
+                log.error("Cannot schedule task {}: {}", task.getId(), e.getMessage());
+                return;
+            }
+        }
+        // A copy, so the caller's instance and the dispatcher's never share state
+        nextFireQueue.schedule(task.copy(), toEpochMillis(fireAt));
+    }
+
+    private void scheduleNext(Task task) {
+        try {
+            // A successful claim advanced the task to its following fire time, anchored on the fire just taken
+            LocalDateTime next = task.getNextExecutionTime();
+            if (next == null || !next.isAfter(LocalDateTime.now())) {
+                next = CronExpressionUtil.getNextExecutionTime(task.getCronExpression());
+                task.setNextExecutionTime(next);
+            }
+            if (!nextFireQueue.scheduleNext(task, toEpochMillis(next))) {
+                log.debug("Task {} changed while being dispatched, keeping its updated schedule", task.getId());
+            }
+        } catch (Exception e) {
+            log.error("Failed to calculate next execution time for task {}: {}", task.getId(), e.getMessage());
+        }
+    }
+
+    private static long toEpochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (dispatcherThread != null) {
+            dispatcherThread.interrupt();
+        }
+        nextFireQueue.clear();
+    }
+}
@@ -1,42 +1,180 @@
 package com.sumit.taskscheduler.scheduler.impl;
 
+import com.sumit.taskscheduler.cluster.ClusterMembership;
+import com.sumit.taskscheduler.cluster.LeaderElection;
+import com.sumit.taskscheduler.cluster.LeadershipChangedEvent;
+import com.sumit.taskscheduler.cluster.NodeIdentity;
+import com.sumit.taskscheduler.cluster.ShardRingChangedEvent;
+import com.sumit.taskscheduler.cluster.TaskClaimService;
+import com.sumit.taskscheduler.config.SchedulerProperties;
 import com.sumit.taskscheduler.entity.Task;
 import com.sumit.taskscheduler.executor.TaskExecutionEngine;
+import com.sumit.taskscheduler.metrics.SchedulerMetrics;
 import com.sumit.taskscheduler.repository.TaskRepository;
 import com.sumit.taskscheduler.scheduler.TaskSchedulerService;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * Scheduler that finds due tasks by polling the database.
+ *
+ * After each poll the poller sleeps until the earliest upcoming fire time, but never longer than
+ * scheduler.poll-interval-ms, which bounds how late it notices changes made on other nodes.
+ * Tasks created, resumed or rescheduled on this node wake it early if they are due sooner.
+ *
+ * With scheduler.cluster.sharding-enabled each node polls only the shard slots
+ * {@link ClusterMembership} assigns to it, and polls again at once when the shards rebalance.
+ * Otherwise, with scheduler.cluster.leader-only-polling, only the {@link LeaderElection} leader
+ * polls, and a node taking over leadership polls at once.
+ */
 @Service
+@ConditionalOnProperty(prefix = "scheduler", name = "mode", havingValue = "polling", matchIfMissing = true)
 @RequiredArgsConstructor
 @Slf4j
 public class TaskSchedulerServiceImpl implements TaskSchedulerService {
 
+    private final TaskClaimService taskClaimService;
     private final TaskRepository taskRepository;
+    private final NodeIdentity nodeIdentity;
+    private final SchedulerProperties properties;
     private final TaskExecutionEngine executionEngine;
+    private final SchedulerMetrics metrics;
+    private final ClusterMembership membership;
+    private final LeaderElection leaderElection;
+
+    private final ReentrantLock wakeUpLock = new ReentrantLock();
+    private final Condition wakeUpChanged = wakeUpLock.newCondition();
+    // Epoch millis the poller sleeps until, or an earlier wake-up requested while it was polling; guarded by wakeUpLock
+    private long wakeUpAt = Long.MAX_VALUE;
+    private volatile boolean started;
+    private Thread pollerThread;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        pollerThread = new Thread(this::pollLoop, "TaskScheduler-Poller");
+        pollerThread.setDaemon(true);
+        pollerThread.start();
+    }
+
+    private void pollLoop() {
+        try {
+            sleepUntil(System.currentTimeMillis() + properties.getPollInitialDelayMs());
+            started = true;
+            while (!Thread.currentThread().isInterrupted()) {
+                try {
+                    if (!pollsOnThisNode()) {
+                        sleepUntil(System.currentTimeMillis() + properties.getPollIntervalMs());
+                        continue;
+                    }
+                    pollAndExecuteTasks();
+                    if (executionEngine.availableCapacity() == 0) {
+                        // Due tasks may have been left unclaimed; poll again as soon as a slot frees up
+                        executionEngine.awaitCapacity();
+                        continue;
+                    }
+                } catch (InterruptedException e) {
+                    throw e;
+                } catch (Exception e) {
+                    log.error("❌ Error polling for due tasks: {}", e.getMessage(), e);
+                }
+                sleepUntil(nextPollAt());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.info("Task poller stopped");
+    }
+
+    /**
+     * Whether this node polls at all: with leader-only polling and no sharding, only the leader does
+     */
+    private boolean pollsOnThisNode() {
+        return membership.isEnabled() || !properties.getCluster().isLeaderOnlyPolling() || leaderElection.isLeader();
+    }
+
+    /**
+     * The earliest upcoming fire time, capped at one poll interval from now
+     */
+    private long nextPollAt() {
+        LocalDateTime now = LocalDateTime.now();
+        long latest = System.currentTimeMillis() + properties.getPollIntervalMs();
+        try {
+            LocalDateTime earliest = membership.isEnabled()
+                    ? earliestInOwnedSlots(now)
+                    : taskRepository.findEarliestNextExecutionTimeAfter(now);
+            return earliest == null ? latest : Math.min(latest, toEpochMillis(earliest));
+        } catch (Exception e) {
+            log.error("❌ Could not look up the next fire time: {}", e.getMessage());
+            return latest;
+        }
+    }
+
+    private LocalDateTime earliestInOwnedSlots(LocalDateTime now) {
+        Set<Integer> slots = membership.getOwnedSlots();
+        return slots.isEmpty() ? null : taskRepository.findEarliestNextExecutionTimeInSlotsAfter(slots, now);
+    }
+
+    private void sleepUntil(long epochMillis) throws InterruptedException {
+        wakeUpLock.lockInterruptibly();
+        try {
+            // Keep a wake-up that arrived during the poll, when the next fire time was already read
+            wakeUpAt = Math.min(wakeUpAt, epochMillis);
+            long remaining;
+            while ((remaining = wakeUpAt - System.currentTimeMillis()) > 0) {
+                wakeUpChanged.await(remaining, TimeUnit.MILLISECONDS);
+            }
+            wakeUpAt = Long.MAX_VALUE;
+        } finally {
+            wakeUpLock.unlock();
+        }
+    }
 
     /**
-     * Polls the database every 30 seconds to find and execute due tasks
+     * Bring the next poll forward to the given time if the poller would otherwise sleep past it
+     */
+    private void wakeUpBy(long epochMillis) {
+        wakeUpLock.lock();
+        try {
+            if (epochMillis < wakeUpAt) {
+                wakeUpAt = epochMillis;
+                wakeUpChanged.signal();
+            }
+        } finally {
+            wakeUpLock.unlock();
+        }
+    }
+
+    /**
+     * Claim and execute the tasks that are due now.
+     * Claimed tasks are leased to this node, so other instances polling the same database skip them.
      */
-    @Scheduled(fixedDelay = 30000, initialDelay = 10000)
     public void pollAndExecuteTasks() {
         log.debug("🔍 Polling for due tasks...");
 
         LocalDateTime now = LocalDateTime.now();
-        List<Task> dueTasks = taskRepository.findDueTasks(now);
+        List<Task> dueTasks = claimDueTasks();
 
         if (dueTasks.isEmpty()) {
             log.debug("No tasks due for execution at {}", now);
             return;
         }
 
-        log.info("📋 Found {} task(s) due for execution", dueTasks.size());
+        log.info("📋 Claimed {} task(s) due for execution", dueTasks.size());
 
         // Execute all due tasks in parallel using thread pool
         List<CompletableFuture<Void>> futures = dueTasks.stream()
@@ -55,4 +193,68 @@ public class TaskSchedulerServiceImpl implements TaskSchedulerService {
                     return null;
                 });
     }
+
+    /**
+     * Claim due tasks in batches until the due set is drained or the engine has no room left.
+     * Tasks beyond the engine's free capacity stay unclaimed in the database for the next poll
+     * or for another node.
+     */
+    private List<Task> claimDueTasks() {
+        int batchSize = properties.getCluster().getClaimBatchSize();
+        int capacity = executionEngine.availableCapacity();
+        List<Task> claimed = new ArrayList<>();
+        while (claimed.size() < capacity) {
+            int limit = Math.min(batchSize, capacity - claimed.size());
+            long claimStart = System.nanoTime();
+            List<Task> batch = taskClaimService.claimDueTasks(nodeIdentity.getNodeId(), limit,
+                    membership.isEnabled() ? membership.getOwnedSlots() : null);
+            metrics.recordDbWrite("claim", System.nanoTime() - claimStart);
+            claimed.addAll(batch);
+            if (batch.size() < limit) {
+                return claimed;
+            }
+        }
+        log.info("⏳ Execution engine is at capacity, leaving remaining due tasks in the database");
+        return claimed;
+    }
+
+    @Override
+    public void onTaskChanged(Task task) {
+        // The database is the source of truth in polling mode; only make sure the next poll is not too late for the task
+        if (started && "ACTIVE".equals(task.getStatus()) && task.getNextExecutionTime() != null
+                && pollsOnThisNode() && (!membership.isEnabled() || membership.owns(task.getId()))) {
+            wakeUpBy(toEpochMillis(task.getNextExecutionTime()));
+        }
+    }
+
+    @EventListener
+    public void onShardsRebalanced(ShardRingChangedEvent event) {
+        // Slots taken over from another node may already have due tasks
+        if (started) {
+            wakeUpBy(System.currentTimeMillis());
+        }
+    }
+
+    @EventListener
+    public void onLeadershipChanged(LeadershipChangedEvent event) {
+        if (started && event.leader() && properties.getCluster().isLeaderOnlyPolling()) {
+            wakeUpBy(System.currentTimeMillis());
+        }
+    }
+
+    @Override
+    public void onTaskRemoved(Long taskId) {
+        // Nothing cached in polling mode
+    }
+
+    private static long toEpochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (pollerThread != null) {
+            pollerThread.interrupt();
+        }
+    }
 }
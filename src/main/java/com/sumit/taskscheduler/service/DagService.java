@@ -0,0 +1,30 @@
+package com.sumit.taskscheduler.service;
+
+import com.sumit.taskscheduler.dto.DagRunResponse;
+import com.sumit.taskscheduler.dto.DependencyResponse;
+
+import java.util.List;
+
+/**
+ * Task dependencies and the DAG runs they produce
+ */
+public interface DagService {
+
+    DependencyResponse getDependencies(Long taskId);
+
+    /**
+     * Make the task wait for the upstream task in every DAG run
+     *
+     * @throws IllegalArgumentException if the dependency would create a cycle
+     */
+    DependencyResponse addDependency(Long taskId, Long upstreamTaskId);
+
+    DependencyResponse removeDependency(Long taskId, Long upstreamTaskId);
+
+    DagRunResponse getDagRun(Long runId);
+
+    /**
+     * Most recent DAG runs started by the task, newest first
+     */
+    List<DagRunResponse> getDagRuns(Long rootTaskId, int limit);
+}
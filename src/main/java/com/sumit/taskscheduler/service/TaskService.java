@@ -1,23 +1,60 @@
 package com.sumit.taskscheduler.service;
 
+import com.sumit.taskscheduler.dto.BulkItem;
+import com.sumit.taskscheduler.dto.BulkItemResult;
+import com.sumit.taskscheduler.dto.BulkUpdateTaskRequest;
 import com.sumit.taskscheduler.dto.CreateTaskRequest;
+import com.sumit.taskscheduler.dto.CursorPage;
 import com.sumit.taskscheduler.dto.ExecutionHistoryResponse;
+import com.sumit.taskscheduler.dto.ExecutionRollupResponse;
 import com.sumit.taskscheduler.dto.TaskResponse;
 import com.sumit.taskscheduler.dto.UpdateTaskRequest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface TaskService {
     TaskResponse createTask(CreateTaskRequest request);
 
+    /**
+     * Create a chunk of tasks in one transaction, with JDBC batched inserts
+     *
+     * @return One result per item, in the order given
+     */
+    List<BulkItemResult> createTasks(List<BulkItem<CreateTaskRequest>> items);
+
+    /**
+     * Update a chunk of existing tasks in one transaction
+     *
+     * @return One result per item, in the order given
+     */
+    List<BulkItemResult> updateTasks(List<BulkItem<BulkUpdateTaskRequest>> items);
+
     TaskResponse getTaskById(Long id);
 
     Page<TaskResponse> getAllTasks(Pageable pageable);
 
     List<TaskResponse> getTasksByStatus(String status);
 
+    /**
+     * Keyset-paginated listing
+     *
+     * @param status Only tasks with this status, or all when null
+     * @param sort   "id" or "nextExecutionTime"
+     * @param after  Cursor returned with the previous page, or null for the first page
+     * @param size   Maximum number of tasks in the page
+     */
+    CursorPage<TaskResponse> getTasksAfter(String status, String sort, String after, int size);
+
+    /**
+     * Pass every matching task to the sink in keyset order, fetching one batch at a time so
+     * memory stays constant however many tasks there are
+     */
+    void streamTasks(String status, String sort, Consumer<TaskResponse> sink);
+
     TaskResponse updateTask(Long id, UpdateTaskRequest request);
 
     void deleteTask(Long id);
@@ -28,4 +65,21 @@ public interface TaskService {
 
     List<ExecutionHistoryResponse> getTaskExecutionHistory(Long taskId);
 
+    /**
+     * Pass every execution in [from, to) to the sink in execution time order, read from a
+     * database cursor so memory stays constant however large the range is
+     *
+     * @param status Only executions with this status, or all when null
+     * @param taskId Only executions of this task, or all when null
+     */
+    /**
+     * Hourly or daily aggregates of a task's executions that have aged out of the raw history
+     *
+     * @param granularity HOUR or DAY
+     */
+    List<ExecutionRollupResponse> getExecutionRollups(Long taskId, String granularity, LocalDateTime from, LocalDateTime to);
+
+    void streamExecutionHistory(LocalDateTime from, LocalDateTime to, String status, Long taskId,
+                                Consumer<ExecutionHistoryResponse> sink);
+
 }
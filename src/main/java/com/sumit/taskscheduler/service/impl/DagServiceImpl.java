@@ -0,0 +1,132 @@
+package com.sumit.taskscheduler.service.impl;
+
+import com.sumit.taskscheduler.dag.DagCoordinator;
+import com.sumit.taskscheduler.dag.DagGraph;
+import com.sumit.taskscheduler.dto.DagRunResponse;
+import com.sumit.taskscheduler.dto.DependencyResponse;
+import com.sumit.taskscheduler.entity.DagRun;
+import com.sumit.taskscheduler.entity.TaskDependency;
+import com.sumit.taskscheduler.repository.DagRunRepository;
+import com.sumit.taskscheduler.repository.DagRunTaskRepository;
+import com.sumit.taskscheduler.repository.SchedulerLockRepository;
+import com.sumit.taskscheduler.repository.TaskDependencyRepository;
+import com.sumit.taskscheduler.repository.TaskRepository;
+import com.sumit.taskscheduler.service.DagService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DagServiceImpl implements DagService {
+    private static final int MAX_RUNS = 100;
+    private static final String GRAPH_LOCK = "dag-graph";
+
+    private final TaskRepository taskRepository;
+    private final TaskDependencyRepository dependencyRepository;
+    private final DagRunRepository runRepository;
+    private final DagRunTaskRepository runTaskRepository;
+    private final DagCoordinator dagCoordinator;
+    private final SchedulerLockRepository schedulerLockRepository;
+
+    @Override
+    public DependencyResponse getDependencies(Long taskId) {
+        log.info("Fetching dependencies of task: {}", taskId);
+        requireTask(taskId);
+        return dependenciesOf(taskId);
+    }
+
+    @Override
+    @Transactional
+    public DependencyResponse addDependency(Long taskId, Long upstreamTaskId) {
+        log.info("Adding dependency of task {} on task {}", taskId, upstreamTaskId);
+        requireTask(taskId);
+        requireTask(upstreamTaskId);
+        DagGraph graph = lockGraph();
+        if (dependencyRepository.findByUpstreamTaskIdAndDownstreamTaskId(upstreamTaskId, taskId).isPresent()) {
+            return dependenciesOf(taskId);
+        }
+        if (graph.wouldCreateCycle(upstreamTaskId, taskId)) {
+            throw new IllegalArgumentException("Task " + taskId + " cannot depend on task " + upstreamTaskId
+                    + ": task " + upstreamTaskId + " already depends on task " + taskId + ", directly or indirectly");
+        }
+        dependencyRepository.save(new TaskDependency(upstreamTaskId, taskId));
+        dagCoordinator.dependenciesChanged();
+        log.info("Task {} now runs after task {}", taskId, upstreamTaskId);
+        return dependenciesOf(taskId);
+    }
+
+    @Override
+    @Transactional
+    public DependencyResponse removeDependency(Long taskId, Long upstreamTaskId) {
+        log.info("Removing dependency of task {} on task {}", taskId, upstreamTaskId);
+        TaskDependency dependency = dependencyRepository.findByUpstreamTaskIdAndDownstreamTaskId(upstreamTaskId, taskId)
+                .orElseThrow(() -> new RuntimeException("Task " + taskId + " does not depend on task " + upstreamTaskId));
+        dependencyRepository.delete(dependency);
+        dagCoordinator.dependenciesChanged();
+        return dependenciesOf(taskId);
+    }
+
+    @Override
+    public DagRunResponse getDagRun(Long runId) {
+        log.info("Fetching DAG run: {}", runId);
+        DagRun run = runRepository.findById(runId)
+                .orElseThrow(() -> new RuntimeException("DAG run not found with ID: " + runId));
+        return mapToResponse(run);
+    }
+
+    @Override
+    public List<DagRunResponse> getDagRuns(Long rootTaskId, int limit) {
+        log.info("Fetching DAG runs started by task: {}", rootTaskId);
+        if (limit <= 0 || limit > MAX_RUNS) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_RUNS);
+        }
+        return runRepository.findByRootTaskIdOrderByIdDesc(rootTaskId, Limit.of(limit)).stream()
+                .map(this::mapToResponse)
+                .toList();
+    }
+
+    /**
+     * Take the cluster-wide graph lock, then read the graph. Two additions that could close a cycle
+     * together are serialized by it, so the later one sees the edge of the earlier one, on any node.
+     * Task rows stay unlocked, so claims never skip a task because its graph is being edited.
+     */
+    private DagGraph lockGraph() {
+        schedulerLockRepository.lock(GRAPH_LOCK);
+        return new DagGraph(dependencyRepository.findAll());
+    }
+
+    private void requireTask(Long taskId) {
+        if (!taskRepository.existsById(taskId)) {
+            throw new RuntimeException("Task not found with ID: " + taskId);
+        }
+    }
+
+    private DependencyResponse dependenciesOf(Long taskId) {
+        List<Long> upstream = dependencyRepository.findByDownstreamTaskId(taskId).stream()
+                .map(TaskDependency::getUpstreamTaskId).sorted().toList();
+        List<Long> downstream = dependencyRepository.findByUpstreamTaskId(taskId).stream()
+                .map(TaskDependency::getDownstreamTaskId).sorted().toList();
+        return new DependencyResponse(taskId, upstream, downstream);
+    }
+
+    private DagRunResponse mapToResponse(DagRun run) {
+        List<DagRunResponse.TaskState> tasks = runTaskRepository.findByDagRunIdOrderById(run.getId()).stream()
+                .map(task -> new DagRunResponse.TaskState(task.getTaskId(), task.getStatus(),
+                        task.getPendingParents(), task.getStartedAt(), task.getFinishedAt()))
+                .toList();
+        return DagRunResponse.builder()
+                .id(run.getId())
+                .rootTaskId(run.getRootTaskId())
+                .status(run.getStatus())
+                .startedAt(run.getStartedAt())
+                .finishedAt(run.getFinishedAt())
+                .tasks(tasks)
+                .build();
+    }
+}
@@ -0,0 +1,41 @@
+package com.sumit.taskscheduler.service.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in a keyset-ordered task listing: the sort key of the last task returned.
+ * Handed to clients as an opaque URL-safe string.
+ */
+record TaskCursor(LocalDateTime nextExecutionTime, long id) {
+
+    // Before every stored fire time, for the first page in fire time order
+    static final TaskCursor START = new TaskCursor(LocalDateTime.of(1, 1, 1, 0, 0), 0);
+
+    String encode() {
+        String raw = nextExecutionTime == null ? Long.toString(id) : nextExecutionTime + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param byNextExecutionTime Whether the listing is in fire time order, so the cursor must carry a fire time
+     */
+    static TaskCursor decode(String cursor, boolean byNextExecutionTime) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            if (byNextExecutionTime != separator >= 0) {
+                throw new IllegalArgumentException("Cursor does not match the requested sort order");
+            }
+            if (separator < 0) {
+                return new TaskCursor(null, Long.parseLong(raw));
+            }
+            return new TaskCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
+}
@@ -1,25 +1,48 @@
 package com.sumit.taskscheduler.service.impl;
 
+import com.sumit.taskscheduler.cache.TaskCache;
+import com.sumit.taskscheduler.dto.BulkItem;
+import com.sumit.taskscheduler.dto.BulkItemResult;
+import com.sumit.taskscheduler.dto.BulkUpdateTaskRequest;
 import com.sumit.taskscheduler.dto.CreateTaskRequest;
+import com.sumit.taskscheduler.dto.CursorPage;
+import com.sumit.taskscheduler.dto.ExecutionRollupResponse;
 import com.sumit.taskscheduler.dto.ExecutionHistoryResponse;
 import com.sumit.taskscheduler.dto.TaskResponse;
 import com.sumit.taskscheduler.dto.UpdateTaskRequest;
 import com.sumit.taskscheduler.entity.Task;
+import com.sumit.taskscheduler.entity.MisfirePolicy;
+import com.sumit.taskscheduler.entity.OverlapPolicy;
+import com.sumit.taskscheduler.repository.HistoryExportRepository;
+import com.sumit.taskscheduler.repository.TaskDependencyRepository;
 import com.sumit.taskscheduler.repository.TaskExecutionHistoryRepository;
+import com.sumit.taskscheduler.repository.TaskExecutionRollupRepository;
 import com.sumit.taskscheduler.repository.TaskRepository;
+import com.sumit.taskscheduler.scheduler.ScheduleChangeEvent;
 import com.sumit.taskscheduler.service.TaskService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import com.sumit.taskscheduler.dto.ExecutionHistoryResponse;
 import com.sumit.taskscheduler.entity.TaskExecutionHistory;
 import com.sumit.taskscheduler.repository.TaskExecutionHistoryRepository;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import com.sumit.taskscheduler.util.CronExpressionUtil;
@@ -28,14 +51,144 @@ import com.sumit.taskscheduler.util.CronExpressionUtil;
 @RequiredArgsConstructor
 @Slf4j
 public class TaskServiceImpl implements TaskService {
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int STREAM_BATCH_SIZE = 500;
+
     private final TaskRepository taskRepository;
     private final TaskExecutionHistoryRepository executionHistoryRepository;
-
+    private final HistoryExportRepository historyExportRepository;
+    private final TaskExecutionRollupRepository rollupRepository;
+    private final TaskDependencyRepository dependencyRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TaskCache taskCache;
+    private final TransactionTemplate transactionTemplate;
 
     @Override
     public TaskResponse createTask(CreateTaskRequest request) {
         log.info("Creating new task: {}", request.getName());
-        // TODO: check here, how you can improve.
+        Task task = newTask(request);
+
+        Task savedTask = taskRepository.save(task);
+        eventPublisher.publishEvent(ScheduleChangeEvent.changed(savedTask));
+        log.info("Task created successfully with ID: {}", savedTask.getId());
+
+        return mapToResponse(savedTask);
+
+    }
+
+    /**
+     * Create tasks in one transaction, inserted in JDBC batches. Items with an invalid cron
+     * expression are reported as failed without affecting the others; if the insert itself
+     * fails, every item of the call is reported as failed.
+     */
+    public List<BulkItemResult> createTasks(List<BulkItem<CreateTaskRequest>> items) {
+        log.info("Creating {} task(s) in bulk", items.size());
+        // Cron parsing and first fire time calculation are CPU-bound, so they run in parallel
+        List<Prepared> prepared = items.parallelStream()
+                .map(item -> prepare(item, () -> newTask(item.request())))
+                .toList();
+
+        List<Task> tasks = prepared.stream().map(Prepared::task).filter(Objects::nonNull).toList();
+        String insertError = null;
+        try {
+            transactionTemplate.executeWithoutResult(status -> taskRepository.saveAll(tasks));
+            tasks.forEach(task -> eventPublisher.publishEvent(ScheduleChangeEvent.changed(task)));
+        } catch (DataAccessException | TransactionException e) {
+            log.error("❌ Bulk insert of {} task(s) failed: {}", tasks.size(), e.getMessage());
+            insertError = "Insert failed: " + e.getMostSpecificCause().getMessage();
+        }
+
+        List<BulkItemResult> results = new ArrayList<>(prepared.size());
+        for (Prepared item : prepared) {
+            if (item.task() == null) {
+                results.add(BulkItemResult.failed(item.index(), null, item.error()));
+            } else if (insertError != null) {
+                results.add(BulkItemResult.failed(item.index(), null, insertError));
+            } else {
+                results.add(BulkItemResult.succeeded(item.index(), item.task().getId(), "CREATED"));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Apply updates to existing tasks in one transaction, loading them with a single query.
+     * Unknown ids and invalid cron expressions fail only their own item; a failed commit,
+     * such as a concurrent modification of one of the tasks, fails every item of the call.
+     */
+    public List<BulkItemResult> updateTasks(List<BulkItem<BulkUpdateTaskRequest>> items) {
+        log.info("Updating {} task(s) in bulk", items.size());
+        Map<Integer, String> errors = new ConcurrentHashMap<>();
+        items.parallelStream().forEach(item -> {
+            try {
+                validateCron(item.request().getCronExpression(), true);
+            } catch (IllegalArgumentException e) {
+                errors.put(item.index(), e.getMessage());
+            }
+        });
+
+        List<Task> updated = new ArrayList<>();
+        String commitError = null;
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Long> ids = items.stream().map(item -> item.request().getId()).toList();
+                Map<Long, Task> tasks = taskRepository.findAllById(ids).stream()
+                        .collect(Collectors.toMap(Task::getId, task -> task));
+                for (BulkItem<BulkUpdateTaskRequest> item : items) {
+                    Task task = tasks.get(item.request().getId());
+                    if (errors.containsKey(item.index())) {
+                        continue;
+                    }
+                    if (task == null) {
+                        errors.put(item.index(), "Task not found with ID: " + item.request().getId());
+                        continue;
+                    }
+                    applyUpdate(task, item.request());
+                    updated.add(task);
+                }
+            });
+            updated.forEach(task -> {
+                eventPublisher.publishEvent(ScheduleChangeEvent.changed(task));
+                taskCache.invalidate(task.getId());
+            });
+        } catch (DataAccessException | TransactionException e) {
+            log.error("❌ Bulk update of {} task(s) failed: {}", items.size(), e.getMessage());
+            commitError = "Update failed: " + e.getMostSpecificCause().getMessage();
+        }
+
+        List<BulkItemResult> results = new ArrayList<>(items.size());
+        for (BulkItem<BulkUpdateTaskRequest> item : items) {
+            Long id = item.request().getId();
+            String error = errors.get(item.index());
+            if (error != null) {
+                results.add(BulkItemResult.failed(item.index(), id, error));
+            } else if (commitError != null) {
+                results.add(BulkItemResult.failed(item.index(), id, commitError));
+            } else {
+                results.add(BulkItemResult.succeeded(item.index(), id, "UPDATED"));
+            }
+        }
+        return results;
+    }
+
+    private static Prepared prepare(BulkItem<?> item, Supplier<Task> factory) {
+        try {
+            return new Prepared(item.index(), factory.get(), null);
+        } catch (IllegalArgumentException e) {
+            return new Prepared(item.index(), null, e.getMessage());
+        }
+    }
+
+    private record Prepared(int index, Task task, String error) {
+    }
+
+    /**
+     * Build a new ACTIVE task, due at its cron expression's next fire time
+     *
+     * @throws IllegalArgumentException if the cron expression is invalid
+     */
+    private Task newTask(CreateTaskRequest request) {
+        validateCron(request.getCronExpression(), false);
         Task task = new Task();
         task.setName(request.getName());
         task.setDescription(request.getDescription());
@@ -43,29 +196,41 @@ public class TaskServiceImpl implements TaskService {
         task.setTaskType(request.getTaskType());
         task.setPriority(request.getPriority());
         task.setMaxRetries(request.getMaxRetries());
+        task.setTimeoutMs(positiveOrNull(request.getTimeoutMs()));
+        task.setOverlapPolicy(OverlapPolicy.from(request.getOverlapPolicy()).name());
+        task.setMisfirePolicy(MisfirePolicy.from(request.getMisfirePolicy()).name());
         task.setStatus("ACTIVE");
 
-        // Validate and calculate next execution time from cron expression
-        if (!CronExpressionUtil.validateCronExpression(request.getCronExpression())) {
+        // Calculate next execution time from cron expression
+        LocalDateTime nextExecution = CronExpressionUtil.getNextExecutionTime(request.getCronExpression());
+        task.setNextExecutionTime(nextExecution);
+        log.debug("Next execution scheduled for: {}", nextExecution);
+        return task;
+    }
+
+    /**
+     * @param optional Whether a null expression is allowed, as in updates that keep the current schedule
+     * @throws IllegalArgumentException if the cron expression is invalid
+     */
+    private static void validateCron(String cronExpression, boolean optional) {
+        if (optional && cronExpression == null) {
+            return;
+        }
+        if (!CronExpressionUtil.validateCronExpression(cronExpression)) {
             throw new IllegalArgumentException(
-                    "Invalid cron expression: " + request.getCronExpression() +
+                    "Invalid cron expression: " + cronExpression +
                             ". Example valid expressions: '0 0 9 ? * *' (daily at 9 AM), " +
                             "'0 */15 * ? * *' (every 15 min), '0 0 0 ? * 2' (every Monday)"
             );
         }
-        LocalDateTime nextExecution = CronExpressionUtil.getNextExecutionTime(request.getCronExpression());
-        task.setNextExecutionTime(nextExecution);
-        log.info("Next execution scheduled for: {}", nextExecution);
-
-        Task savedTask = taskRepository.save(task);
-        log.info("Task created successfully with ID: {}", savedTask.getId());
-
-        return mapToResponse(savedTask);
-
     }
 
     public TaskResponse getTaskById(Long id) {
         log.info("Fetching task with ID: {}", id);
+        return taskCache.get(id, this::loadTask);
+    }
+
+    private TaskResponse loadTask(Long id) {
         Task task = taskRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Task not found with ID: " + id));
         return mapToResponse(task);
@@ -84,13 +249,76 @@ public class TaskServiceImpl implements TaskService {
                 .collect(Collectors.toList());
     }
 
+    public CursorPage<TaskResponse> getTasksAfter(String status, String sort, String after, int size) {
+        log.info("Fetching tasks after cursor {} by {}", after, sort);
+        if (size <= 0 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        boolean byNextExecutionTime = isNextExecutionTimeSort(sort);
+        TaskCursor cursor = after == null ? null : TaskCursor.decode(after, byNextExecutionTime);
+
+        List<Task> tasks = fetchPage(status, byNextExecutionTime, cursor, size);
+        String nextCursor = tasks.size() < size ? null : cursorOf(tasks.getLast(), byNextExecutionTime).encode();
+        return new CursorPage<>(tasks.stream().map(this::mapToResponse).toList(), nextCursor);
+    }
+
+    public void streamTasks(String status, String sort, Consumer<TaskResponse> sink) {
+        log.info("Streaming tasks by {}", sort);
+        boolean byNextExecutionTime = isNextExecutionTimeSort(sort);
+        TaskCursor cursor = null;
+        List<Task> batch;
+        do {
+            batch = fetchPage(status, byNextExecutionTime, cursor, STREAM_BATCH_SIZE);
+            batch.forEach(task -> sink.accept(mapToResponse(task)));
+            if (!batch.isEmpty()) {
+                cursor = cursorOf(batch.getLast(), byNextExecutionTime);
+            }
+        } while (batch.size() == STREAM_BATCH_SIZE);
+    }
+
+    private List<Task> fetchPage(String status, boolean byNextExecutionTime, TaskCursor cursor, int size) {
+        if (!byNextExecutionTime) {
+            return taskRepository.findPageAfterId(cursor == null ? 0 : cursor.id(), status, Limit.of(size));
+        }
+        TaskCursor from = cursor == null ? TaskCursor.START : cursor;
+        return taskRepository.findPageAfterNextExecutionTime(from.nextExecutionTime(), from.id(), status, Limit.of(size));
+    }
+
+    private static TaskCursor cursorOf(Task task, boolean byNextExecutionTime) {
+        return new TaskCursor(byNextExecutionTime ? task.getNextExecutionTime() : null, task.getId());
+    }
+
+    private static boolean isNextExecutionTimeSort(String sort) {
+        if (sort == null || "id".equalsIgnoreCase(sort)) {
+            return false;
+        }
+        if ("nextExecutionTime".equalsIgnoreCase(sort)) {
+            return true;
+        }
+        throw new IllegalArgumentException("Unsupported sort: " + sort + ". Use 'id' or 'nextExecutionTime'");
+    }
+
     @Transactional
     public TaskResponse updateTask(Long id, UpdateTaskRequest request) {
         log.info("Updating task with ID: {}", id);
 
         Task task = taskRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Task not found with ID: " + id));
+        validateCron(request.getCronExpression(), true);
+        applyUpdate(task, request);
 
+        Task updatedTask = taskRepository.save(task);
+        eventPublisher.publishEvent(ScheduleChangeEvent.changed(updatedTask));
+        taskCache.invalidate(id);
+        log.info("Task updated successfully");
+
+        return mapToResponse(updatedTask);
+    }
+
+    /**
+     * Copy the fields set in the request onto the task; the cron expression must already be validated
+     */
+    private void applyUpdate(Task task, UpdateTaskRequest request) {
         if (request.getName() != null) {
             task.setName(request.getName());
         }
@@ -98,16 +326,9 @@ public class TaskServiceImpl implements TaskService {
             task.setDescription(request.getDescription());
         }
         if (request.getCronExpression() != null) {
-            if (!CronExpressionUtil.validateCronExpression(request.getCronExpression())) {
-                throw new IllegalArgumentException(
-                        "Invalid cron expression: " + request.getCronExpression() +
-                                ". Example valid expressions: '0 0 9 ? * *' (daily at 9 AM), " +
-                                "'0 */15 * ? * *' (every 15 min), '0 0 0 ? * 2' (every Monday)"
-                );
-            }
             task.setCronExpression(request.getCronExpression());
             task.setNextExecutionTime(CronExpressionUtil.getNextExecutionTime(request.getCronExpression()));
-            log.info("Next execution rescheduled for: {}", task.getNextExecutionTime());
+            log.debug("Task {} next execution rescheduled for: {}", task.getId(), task.getNextExecutionTime());
         }
         if (request.getPriority() != null) {
             task.setPriority(request.getPriority());
@@ -115,11 +336,15 @@ public class TaskServiceImpl implements TaskService {
         if (request.getMaxRetries() != null) {
             task.setMaxRetries(request.getMaxRetries());
         }
-
-        Task updatedTask = taskRepository.save(task);
-        log.info("Task updated successfully");
-
-        return mapToResponse(updatedTask);
+        if (request.getTimeoutMs() != null) {
+            task.setTimeoutMs(positiveOrNull(request.getTimeoutMs()));
+        }
+        if (request.getOverlapPolicy() != null) {
+            task.setOverlapPolicy(OverlapPolicy.from(request.getOverlapPolicy()).name());
+        }
+        if (request.getMisfirePolicy() != null) {
+            task.setMisfirePolicy(MisfirePolicy.from(request.getMisfirePolicy()).name());
+        }
     }
 
     @Transactional
@@ -129,6 +354,9 @@ public class TaskServiceImpl implements TaskService {
             throw new RuntimeException("Task not found with ID: " + id);
         }
         taskRepository.deleteById(id);
+        dependencyRepository.deleteByTaskId(id);
+        eventPublisher.publishEvent(ScheduleChangeEvent.removed(id));
+        taskCache.invalidate(id);
         log.info("Task deleted successfully");
     }
 
@@ -140,6 +368,8 @@ public class TaskServiceImpl implements TaskService {
 
         task.setStatus("PAUSED");
         Task updatedTask = taskRepository.save(task);
+        eventPublisher.publishEvent(ScheduleChangeEvent.changed(updatedTask));
+        taskCache.invalidate(id);
         log.info("Task paused successfully");
 
         return mapToResponse(updatedTask);
@@ -153,11 +383,17 @@ public class TaskServiceImpl implements TaskService {
 
         task.setStatus("ACTIVE");
         Task updatedTask = taskRepository.save(task);
+        eventPublisher.publishEvent(ScheduleChangeEvent.changed(updatedTask));
+        taskCache.invalidate(id);
         log.info("Task resumed successfully");
 
         return mapToResponse(updatedTask);
     }
 
+    private static Long positiveOrNull(Long value) {
+        return value != null && value > 0 ? value : null;
+    }
+
     private TaskResponse mapToResponse(Task task) {
         return TaskResponse.builder()
                 .id(task.getId())
@@ -169,6 +405,9 @@ public class TaskServiceImpl implements TaskService {
                 .status(task.getStatus())
                 .retryCount(task.getRetryCount())
                 .maxRetries(task.getMaxRetries())
+                .timeoutMs(task.getTimeoutMs())
+                .overlapPolicy(OverlapPolicy.from(task.getOverlapPolicy()).name())
+                .misfirePolicy(MisfirePolicy.from(task.getMisfirePolicy()).name())
                 .nextExecutionTime(task.getNextExecutionTime())
                 .lastExecutionTime(task.getLastExecutionTime())
                 .createdAt(task.getCreatedAt())
@@ -180,10 +419,8 @@ public class TaskServiceImpl implements TaskService {
     public List<ExecutionHistoryResponse> getTaskExecutionHistory(Long taskId) {
         log.info("Fetching execution history for task: {}", taskId);
 
-        // Verify task exists
-        if (!taskRepository.existsById(taskId)) {
-            throw new RuntimeException("Task not found with ID: " + taskId);
-        }
+        // Verify task exists; usually answered by the cache without a round trip
+        taskCache.get(taskId, this::loadTask);
 
         return executionHistoryRepository.findTop10ByTaskIdOrderByExecutionTimeDesc(taskId)
                 .stream()
@@ -191,9 +428,43 @@ public class TaskServiceImpl implements TaskService {
                 .collect(Collectors.toList());
     }
 
+    public List<ExecutionRollupResponse> getExecutionRollups(Long taskId, String granularity,
+                                                             LocalDateTime from, LocalDateTime to) {
+        log.info("Fetching {} rollups of task {} from {} to {}", granularity, taskId, from, to);
+        String bucket = granularity.toUpperCase();
+        if (!"HOUR".equals(bucket) && !"DAY".equals(bucket)) {
+            throw new IllegalArgumentException("Unsupported granularity: " + granularity + ". Use 'HOUR' or 'DAY'");
+        }
+        return rollupRepository.findRange(taskId, bucket, from, to).stream()
+                .map(rollup -> ExecutionRollupResponse.builder()
+                        .taskId(rollup.getTaskId())
+                        .granularity(rollup.getGranularity())
+                        .bucketStart(rollup.getBucketStart())
+                        .executions(rollup.getExecutions())
+                        .failures(rollup.getFailures())
+                        .p50Ms(rollup.getP50Ms())
+                        .p95Ms(rollup.getP95Ms())
+                        .p99Ms(rollup.getP99Ms())
+                        .maxMs(rollup.getMaxMs())
+                        .build())
+                .toList();
+    }
+
+    @Transactional(readOnly = true)
+    public void streamExecutionHistory(LocalDateTime from, LocalDateTime to, String status, Long taskId,
+                                       Consumer<ExecutionHistoryResponse> sink) {
+        log.info("Streaming execution history from {} to {} (status: {}, task: {})", from, to, status, taskId);
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+        historyExportRepository.streamRange(from, to, status, taskId,
+                history -> sink.accept(mapToHistoryResponse(history)));
+    }
+
     private ExecutionHistoryResponse mapToHistoryResponse(TaskExecutionHistory history) {
         return ExecutionHistoryResponse.builder()
                 .id(history.getId())
+                .executionId(history.getExecutionId())
                 .taskId(history.getTaskId())
                 .executionTime(history.getExecutionTime())
                 .status(history.getStatus())
@@ -0,0 +1,218 @@
+package com.sumit.taskscheduler.util;
+
+import org.quartz.CronExpression;
+
+import java.text.ParseException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * A Quartz cron expression parsed once into bit masks, so that next fire times can be
+ * computed directly on {@link LocalDateTime} without re-parsing or converting through
+ * {@link Date}. Instances are immutable and safe to share between threads.
+ *
+ * Expressions using L, W, # or an explicit year fall back to Quartz for evaluation.
+ */
+public final class CompiledCron {
+
+    // Quartz gives up after this many years as well
+    private static final int MAX_YEARS_AHEAD = 100;
+
+    private final String expression;
+    private final CronExpression quartzExpression;
+    private final boolean quartzFallback;
+
+    private final long seconds;
+    private final long minutes;
+    private final long hours;
+    private final long daysOfMonth;
+    private final long months;
+    private final long daysOfWeek;
+    private final boolean dayOfMonthUnspecified;
+
+    private CompiledCron(String expression, CronExpression quartzExpression) {
+        this.expression = expression;
+        this.quartzExpression = quartzExpression;
+
+        // Quartz exposes its parsed fields only through the expression summary
+        String seconds = null, minutes = null, hours = null, daysOfMonth = null,
+                months = null, daysOfWeek = null, years = null;
+        boolean special = false;
+        for (String line : quartzExpression.getExpressionSummary().split("\n")) {
+            int colon = line.indexOf(':');
+            if (colon < 0) {
+                continue;
+            }
+            String key = line.substring(0, colon).trim();
+            String value = line.substring(colon + 1).trim();
+            switch (key) {
+                case "seconds" -> seconds = value;
+                case "minutes" -> minutes = value;
+                case "hours" -> hours = value;
+                case "daysOfMonth" -> daysOfMonth = value;
+                case "months" -> months = value;
+                case "daysOfWeek" -> daysOfWeek = value;
+                case "years" -> years = value;
+                case "lastdayOfWeek", "nearestWeekday", "lastdayOfMonth" -> special |= Boolean.parseBoolean(value);
+                case "NthDayOfWeek" -> special |= !"0".equals(value);
+                default -> {
+                }
+            }
+        }
+
+        this.quartzFallback = special || years == null || !"*".equals(years)
+                || seconds == null || minutes == null || hours == null
+                || daysOfMonth == null || months == null || daysOfWeek == null;
+        if (quartzFallback) {
+            this.seconds = this.minutes = this.hours = this.daysOfMonth = this.months = this.daysOfWeek = 0;
+            this.dayOfMonthUnspecified = false;
+            return;
+        }
+
+        this.seconds = toMask(seconds, 0, 59);
+        this.minutes = toMask(minutes, 0, 59);
+        this.hours = toMask(hours, 0, 23);
+        this.months = toMask(months, 1, 12);
+        this.dayOfMonthUnspecified = "?".equals(daysOfMonth);
+        this.daysOfMonth = dayOfMonthUnspecified ? 0 : toMask(daysOfMonth, 1, 31);
+        this.daysOfWeek = "?".equals(daysOfWeek) ? toMask("*", 1, 7) : toMask(daysOfWeek, 1, 7);
+    }
+
+    /**
+     * Parse and compile a Quartz cron expression
+     *
+     * @throws ParseException if the expression is invalid
+     */
+    public static CompiledCron compile(String expression) throws ParseException {
+        return new CompiledCron(expression, new CronExpression(expression));
+    }
+
+    public String getExpression() {
+        return expression;
+    }
+
+    /**
+     * First fire time strictly after the given time (at second precision, like Quartz)
+     *
+     * @return Next fire time, or null if the expression never fires again
+     */
+    public LocalDateTime next(LocalDateTime after) {
+        if (quartzFallback) {
+            return nextWithQuartz(after);
+        }
+
+        LocalDateTime candidate = after.truncatedTo(ChronoUnit.SECONDS).plusSeconds(1);
+        LocalDate date = candidate.toLocalDate();
+        LocalTime from = candidate.toLocalTime();
+        int lastYear = date.getYear() + MAX_YEARS_AHEAD;
+
+        while (date.getYear() <= lastYear) {
+            if (!hasBit(months, date.getMonthValue())) {
+                date = date.withDayOfMonth(1).plusMonths(1);
+                from = LocalTime.MIDNIGHT;
+                continue;
+            }
+            if (matchesDay(date)) {
+                LocalTime time = nextTimeOfDay(from);
+                if (time != null) {
+                    return date.atTime(time);
+                }
+            }
+            date = date.plusDays(1);
+            from = LocalTime.MIDNIGHT;
+        }
+        return null;
+    }
+
+    /**
+     * The next {@code count} fire times after the given time, computed in a single pass
+     *
+     * @return Up to {@code count} fire times in ascending order
+     */
+    public List<LocalDateTime> next(LocalDateTime after, int count) {
+        List<LocalDateTime> fireTimes = new ArrayList<>(count);
+        LocalDateTime cursor = after;
+        while (fireTimes.size() < count) {
+            cursor = next(cursor);
+            if (cursor == null) {
+                break;
+            }
+            fireTimes.add(cursor);
+        }
+        return fireTimes;
+    }
+
+    private boolean matchesDay(LocalDate date) {
+        if (dayOfMonthUnspecified) {
+            return hasBit(daysOfWeek, toQuartzDayOfWeek(date.getDayOfWeek()));
+        }
+        return hasBit(daysOfMonth, date.getDayOfMonth());
+    }
+
+    /**
+     * Earliest time of day at or after {@code from} matching the hour, minute and second masks
+     */
+    private LocalTime nextTimeOfDay(LocalTime from) {
+        for (int hour = nextBit(hours, from.getHour()); hour >= 0; hour = nextBit(hours, hour + 1)) {
+            boolean sameHour = hour == from.getHour();
+            for (int minute = nextBit(minutes, sameHour ? from.getMinute() : 0); minute >= 0;
+                 minute = nextBit(minutes, minute + 1)) {
+                boolean sameMinute = sameHour && minute == from.getMinute();
+                int second = nextBit(seconds, sameMinute ? from.getSecond() : 0);
+                if (second >= 0) {
+                    return LocalTime.of(hour, minute, second);
+                }
+            }
+        }
+        return null;
+    }
+
+    private LocalDateTime nextWithQuartz(LocalDateTime after) {
+        ZoneId zone = ZoneId.systemDefault();
+        Date next = quartzExpression.getNextValidTimeAfter(Date.from(after.atZone(zone).toInstant()));
+        return next == null ? null : LocalDateTime.ofInstant(next.toInstant(), zone);
+    }
+
+    // Quartz numbers days of the week from SUN=1 to SAT=7
+    private static int toQuartzDayOfWeek(DayOfWeek dayOfWeek) {
+        return dayOfWeek.getValue() % 7 + 1;
+    }
+
+    private static long toMask(String values, int min, int max) {
+        long mask = 0;
+        if ("*".equals(values)) {
+            for (int i = min; i <= max; i++) {
+                mask |= 1L << i;
+            }
+            return mask;
+        }
+        for (String value : values.split(",")) {
+            if (!value.isBlank()) {
+                int v = Integer.parseInt(value.trim());
+                if (v >= min && v <= max) {
+                    mask |= 1L << v;
+                }
+            }
+        }
+        return mask;
+    }
+
+    private static boolean hasBit(long mask, int bit) {
+        return (mask & (1L << bit)) != 0;
+    }
+
+    private static int nextBit(long mask, int from) {
+        if (from > 63) {
+            return -1;
+        }
+        long remaining = mask & (-1L << from);
+        return remaining == 0 ? -1 : Long.numberOfTrailingZeros(remaining);
+    }
+}
@@ -2,16 +2,20 @@ package com.sumit.taskscheduler.util;
 
 import io.micrometer.common.util.StringUtils;
 import lombok.extern.slf4j.Slf4j;
-import org.quartz.CronExpression;
 
 import java.text.ParseException;
 import java.time.LocalDateTime;
-import java.time.ZoneId;
-import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Slf4j
 public class CronExpressionUtil {
 
+    // Bounded cache of compiled schedules; tasks typically share a small set of expressions
+    private static final int MAX_CACHED_EXPRESSIONS = 10_000;
+    private static final Map<String, CompiledCron> COMPILED_CACHE = new ConcurrentHashMap<>();
+
     /**
      * Validates if the given cron expression is valid
      *
@@ -24,7 +28,7 @@ public class CronExpressionUtil {
         }
 
         try {
-            new CronExpression(cronExpression);
+            compile(cronExpression);
             return true;
         } catch (ParseException e) {
             log.error("Invalid cron expression: {}", cronExpression, e);
@@ -32,6 +36,28 @@ public class CronExpressionUtil {
         }
     }
 
+    /**
+     * Returns the compiled form of a cron expression, parsing it only on first use
+     *
+     * @param cronExpression Cron expression
+     * @return Compiled schedule
+     * @throws ParseException if the cron expression is invalid
+     */
+    public static CompiledCron compile(String cronExpression) throws ParseException {
+        CompiledCron compiled = COMPILED_CACHE.get(cronExpression);
+        if (compiled != null) {
+            return compiled;
+        }
+
+        compiled = CompiledCron.compile(cronExpression);
+        if (COMPILED_CACHE.size() >= MAX_CACHED_EXPRESSIONS) {
+            // Evict an arbitrary entry to keep the cache bounded
+            COMPILED_CACHE.keySet().stream().findAny().ifPresent(COMPILED_CACHE::remove);
+        }
+        COMPILED_CACHE.put(cronExpression, compiled);
+        return compiled;
+    }
+
     /**
      * Calculates the next execution time based on cron expression
      *
@@ -52,22 +78,34 @@ public class CronExpressionUtil {
      * @throws IllegalArgumentException if cron expression is invalid
      */
     public static LocalDateTime getNextExecutionTime(String cronExpression, LocalDateTime fromDate) {
-        if (!validateCronExpression(cronExpression)) {
-            throw new IllegalArgumentException("Invalid cron expression: " + cronExpression);
+        LocalDateTime next = compileOrThrow(cronExpression).next(fromDate);
+        if (next == null) {
+            throw new IllegalStateException("No future execution time available for cron: " + cronExpression);
         }
+        return next;
+    }
 
-        try {
-            CronExpression cron = new CronExpression(cronExpression);
-            Date fromDateAsDate = Date.from(fromDate.atZone(ZoneId.systemDefault()).toInstant());
-            Date nextDate = cron.getNextValidTimeAfter(fromDateAsDate);
-
-            if (nextDate == null) {
-                throw new IllegalStateException("No future execution time available for cron: " + cronExpression);
-            }
+    /**
+     * Calculates several upcoming execution times in one pass
+     *
+     * @param cronExpression Cron expression
+     * @param fromDate Starting date/time (exclusive)
+     * @param count Number of execution times to calculate
+     * @return Up to count execution times in ascending order
+     * @throws IllegalArgumentException if cron expression is invalid
+     */
+    public static List<LocalDateTime> getNextExecutionTimes(String cronExpression, LocalDateTime fromDate, int count) {
+        return compileOrThrow(cronExpression).next(fromDate, count);
+    }
 
-            return LocalDateTime.ofInstant(nextDate.toInstant(), ZoneId.systemDefault());
+    private static CompiledCron compileOrThrow(String cronExpression) {
+        if (StringUtils.isBlank(cronExpression)) {
+            throw new IllegalArgumentException("Invalid cron expression: " + cronExpression);
+        }
+        try {
+            return compile(cronExpression);
         } catch (ParseException e) {
-            throw new IllegalArgumentException("Failed to parse cron expression: " + cronExpression, e);
+            throw new IllegalArgumentException("Invalid cron expression: " + cronExpression, e);
         }
     }
 
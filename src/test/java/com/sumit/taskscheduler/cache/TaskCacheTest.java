@@ -0,0 +1,48 @@
+package com.sumit.taskscheduler.cache;
+
+import com.sumit.taskscheduler.config.SchedulerProperties;
+import com.sumit.taskscheduler.dto.TaskResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TaskCacheTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final TaskCache cache = new TaskCache(new SchedulerProperties(), registry);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void readsAreServedFromCacheUntilInvalidated() {
+        assertEquals("task-1", cache.get(1L, this::load).getName());
+        assertEquals("task-1", cache.get(1L, this::load).getName());
+        assertEquals(1, loads.get());
+
+        cache.invalidate(1L);
+        cache.get(1L, this::load);
+        assertEquals(2, loads.get());
+
+        assertEquals(1.0, registry.get("cache.gets").tag("cache", TaskCache.NAME).tag("result", "hit")
+                .functionCounter().count());
+        assertEquals(2.0, registry.get("cache.gets").tag("cache", TaskCache.NAME).tag("result", "miss")
+                .functionCounter().count());
+    }
+
+    @Test
+    void failedLoadsAreNotCached() {
+        assertThrows(RuntimeException.class, () -> cache.get(2L, id -> {
+            throw new RuntimeException("Task not found with ID: " + id);
+        }));
+
+        assertEquals("task-2", cache.get(2L, this::load).getName());
+    }
+
+    private TaskResponse load(Long id) {
+        loads.incrementAndGet();
+        return TaskResponse.builder().id(id).name("task-" + id).build();
+    }
+}
@@ -0,0 +1,123 @@
+package com.sumit.taskscheduler.cluster;
+
+import com.sumit.taskscheduler.cache.TaskCache;
+import com.sumit.taskscheduler.config.SchedulerProperties;
+import com.sumit.taskscheduler.entity.ClusterNode;
+import com.sumit.taskscheduler.entity.Task;
+import com.sumit.taskscheduler.repository.ClusterNodeRepository;
+import com.sumit.taskscheduler.repository.TaskRepository;
+import com.sumit.taskscheduler.support.SchedulerDataTest;
+import com.sumit.taskscheduler.support.TestTasks;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Several scheduler nodes sharing one database, each with its own membership
+ */
+@SchedulerDataTest
+@Import({TaskClaimService.class, TaskCache.class, SimpleMeterRegistry.class})
+class ClusterShardingTest {
+
+    private static final List<String> NODES = List.of("node-a", "node-b", "node-c");
+
+    @Autowired
+    private TaskClaimService taskClaimService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ClusterNodeRepository nodeRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void eachDueTaskIsClaimedOnlyByItsShardOwner() {
+        Map<String, ClusterMembership> members = join(NODES);
+        heartbeatAll(members);
+        assertPartitionsAllSlots(members);
+
+        List<Task> tasks = taskRepository.saveAll(TestTasks.hourly("task", 300, LocalDateTime.now().minusSeconds(1)));
+
+        Set<Long> claimed = new HashSet<>();
+        for (Map.Entry<String, ClusterMembership> entry : members.entrySet()) {
+            String nodeId = entry.getKey();
+            ClusterMembership member = entry.getValue();
+            for (Task task : taskClaimService.claimDueTasks(nodeId, 1000, member.getOwnedSlots())) {
+                assertTrue(member.owns(task.getId()), nodeId + " claimed task " + task.getId() + " outside its shard");
+                assertTrue(claimed.add(task.getId()), "Task " + task.getId() + " claimed twice");
+            }
+        }
+        assertEquals(tasks.size(), claimed.size());
+    }
+
+    @Test
+    void shardOfALeavingOrDeadNodeMovesToTheOthers() {
+        Map<String, ClusterMembership> members = join(NODES);
+        heartbeatAll(members);
+        Map<String, Set<Integer>> before = new HashMap<>();
+        members.forEach((nodeId, member) -> before.put(nodeId, member.getOwnedSlots()));
+
+        // node-c stops heartbeating: the survivors drop it once its heartbeat is older than the timeout
+        ClusterMembership dead = members.remove("node-c");
+        nodeRepository.save(new ClusterNode("node-c", LocalDateTime.now().minusMinutes(5),
+                LocalDateTime.now().minusMinutes(1)));
+        heartbeatAll(members);
+        assertEquals(List.of("node-a", "node-b"), members.get("node-a").getLiveNodeIds());
+        assertPartitionsAllSlots(members);
+        // Consistent hashing: the survivors only gain slots
+        members.forEach((nodeId, member) -> assertTrue(member.getOwnedSlots().containsAll(before.get(nodeId))));
+
+        // node-c rejoins, then node-b leaves cleanly
+        members.put("node-c", dead);
+        heartbeatAll(members);
+        assertEquals(before.get("node-c"), dead.getOwnedSlots());
+        members.remove("node-b").leave();
+        heartbeatAll(members);
+        assertPartitionsAllSlots(members);
+    }
+
+    private Map<String, ClusterMembership> join(List<String> nodeIds) {
+        Map<String, ClusterMembership> members = new HashMap<>();
+        for (String nodeId : nodeIds) {
+            SchedulerProperties properties = new SchedulerProperties();
+            properties.getCluster().setNodeId(nodeId);
+            properties.getCluster().setShardingEnabled(true);
+            members.put(nodeId, new ClusterMembership(new NodeIdentity(properties), nodeRepository,
+                    properties, transactionTemplate, event -> { }));
+        }
+        return members;
+    }
+
+    // Twice, so every node has seen the heartbeats of all the others
+    private static void heartbeatAll(Map<String, ClusterMembership> members) {
+        members.values().forEach(ClusterMembership::heartbeat);
+        members.values().forEach(ClusterMembership::heartbeat);
+    }
+
+    private static void assertPartitionsAllSlots(Map<String, ClusterMembership> members) {
+        List<Integer> all = new ArrayList<>();
+        members.values().forEach(member -> {
+            assertFalse(member.getOwnedSlots().isEmpty());
+            all.addAll(member.getOwnedSlots());
+        });
+        assertEquals(IntStream.range(0, ShardRing.SLOT_COUNT).boxed().toList(), all.stream().sorted().toList());
+    }
+}
@@ -0,0 +1,99 @@
+package com.sumit.taskscheduler.cluster;
+
+import com.sumit.taskscheduler.config.SchedulerProperties;
+import com.sumit.taskscheduler.repository.LeaderLeaseRepository;
+import com.sumit.taskscheduler.support.SchedulerDataTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Several nodes competing for the leader lease in one database
+ */
+@SchedulerDataTest
+class LeaderElectionTest {
+
+    @Autowired
+    private LeaderLeaseRepository leaseRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final List<LeadershipChangedEvent> events = new ArrayList<>();
+
+    @Test
+    void oneLeaderAtATimeWithIncreasingFencingTokens() {
+        LeaderElection a = node("node-a", 10_000);
+        LeaderElection b = node("node-b", 10_000);
+
+        a.renewOrAcquire();
+        b.renewOrAcquire();
+        assertTrue(a.isLeader());
+        assertFalse(b.isLeader());
+        assertEquals(1, a.getFencingToken());
+
+        // A clean shutdown hands over at the next attempt instead of after the lease
+        a.release();
+        b.renewOrAcquire();
+        assertTrue(b.isLeader());
+        assertEquals(2, b.getFencingToken());
+        assertEquals("node-b", leaseRepository.findById(LeaderElection.LEASE_NAME).orElseThrow().getHolderNode());
+        assertEquals(List.of(new LeadershipChangedEvent(true, 1), new LeadershipChangedEvent(true, 2)), events);
+    }
+
+    @Test
+    void staleLeaderStepsDownAndIsFencedOff() throws Exception {
+        LeaderElection a = node("node-a", 300);
+        LeaderElection b = node("node-b", 300);
+        a.renewOrAcquire();
+        assertEquals(Boolean.TRUE, transactionTemplate.execute(status -> a.holdsLease()));
+
+        // node-a stalls past its lease: it stops counting itself leader before node-b can take over
+        Thread.sleep(400);
+        assertFalse(a.isLeader());
+        b.renewOrAcquire();
+        assertTrue(b.isLeader());
+        assertEquals(2, b.getFencingToken());
+
+        // Writes under the old token are refused, and node-a does not win the lease back
+        assertEquals(Boolean.FALSE, transactionTemplate.execute(status -> a.holdsLease()));
+        a.renewOrAcquire();
+        assertFalse(a.isLeader());
+        assertTrue(events.contains(new LeadershipChangedEvent(false, 1)));
+    }
+
+    @Test
+    void leaseCheckDoesNotHoldUpTheLeadersRenewal() {
+        LeaderElection a = node("node-a", 10_000);
+        a.renewOrAcquire();
+        LocalDateTime expiresAt = leaseRepository.findById(LeaderElection.LEASE_NAME).orElseThrow().getExpiresAt();
+
+        // A duty transaction still open while the renewal thread renews
+        transactionTemplate.executeWithoutResult(status -> {
+            assertTrue(a.holdsLease());
+            CompletableFuture.runAsync(a::renewOrAcquire).orTimeout(5, TimeUnit.SECONDS).join();
+        });
+
+        assertTrue(a.isLeader());
+        assertTrue(leaseRepository.findById(LeaderElection.LEASE_NAME).orElseThrow().getExpiresAt().isAfter(expiresAt));
+    }
+
+    private LeaderElection node(String nodeId, long leaseMs) {
+        SchedulerProperties properties = new SchedulerProperties();
+        properties.getCluster().setNodeId(nodeId);
+        properties.getCluster().setLeaderLeaseMs(leaseMs);
+        properties.getCluster().setLeaderRenewIntervalMs(leaseMs / 5);
+        return new LeaderElection(new NodeIdentity(properties), leaseRepository, properties, transactionTemplate,
+                event -> events.add((LeadershipChangedEvent) event));
+    }
+}
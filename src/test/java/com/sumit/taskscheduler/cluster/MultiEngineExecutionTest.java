@@ -0,0 +1,209 @@
+package com.sumit.taskscheduler.cluster;
+
+import com.sumit.taskscheduler.cache.TaskCache;
+import com.sumit.taskscheduler.config.SchedulerProperties;
+import com.sumit.taskscheduler.dag.DagCoordinator;
+import com.sumit.taskscheduler.entity.Task;
+import com.sumit.taskscheduler.executor.DelayedTaskDispatcher;
+import com.sumit.taskscheduler.executor.TaskExecutionEngine;
+import com.sumit.taskscheduler.executor.TimeoutWatchdog;
+import com.sumit.taskscheduler.handler.TaskHandler;
+import com.sumit.taskscheduler.history.ExecutionHistoryWriter;
+import com.sumit.taskscheduler.metrics.SchedulerMetrics;
+import com.sumit.taskscheduler.repository.TaskExecutionHistoryRepository;
+import com.sumit.taskscheduler.repository.TaskRepository;
+import com.sumit.taskscheduler.repository.TaskStateRepository;
+import com.sumit.taskscheduler.support.CleanDatabaseExtension;
+import com.sumit.taskscheduler.support.TestTasks;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Several engines in one JVM, each polling as its own node, sharing one database.
+ * Every node claims more than its engine can admit, so some claims are rejected and handed back.
+ */
+@SpringBootTest(properties = "scheduler.poll-initial-delay-ms=600000")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+@ExtendWith(CleanDatabaseExtension.class)
+class MultiEngineExecutionTest {
+
+    private static final int NODE_COUNT = 3;
+    private static final int TASK_COUNT = 30;
+    // Admission limit of each engine is 2: one worker and one queue slot
+    private static final int CLAIM_BATCH = 3;
+
+    @Autowired
+    private TaskClaimService taskClaimService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskStateRepository taskStateRepository;
+
+    @Autowired
+    private TaskExecutionHistoryRepository historyRepository;
+
+    @Autowired
+    private ExecutionHistoryWriter historyWriter;
+
+    @Autowired
+    private SchedulerMetrics metrics;
+
+    @Autowired
+    private DelayedTaskDispatcher delayedDispatcher;
+
+    @Autowired
+    private TimeoutWatchdog timeoutWatchdog;
+
+    @Autowired
+    private TaskCache taskCache;
+
+    @Autowired
+    private DagCoordinator dagCoordinator;
+
+    @Autowired
+    private List<TaskHandler> taskHandlers;
+
+    @Autowired
+    private CountingTaskHandler countingHandler;
+
+    private final List<TaskExecutionEngine> engines = new ArrayList<>();
+
+    @BeforeEach
+    void startEngines() {
+        for (int n = 0; n < NODE_COUNT; n++) {
+            SchedulerProperties properties = new SchedulerProperties();
+            properties.getExecutor().setPoolSize(1);
+            properties.getExecutor().setQueueCapacity(1);
+            TaskExecutionEngine engine = new TaskExecutionEngine(taskRepository, taskStateRepository, historyWriter,
+                    metrics, delayedDispatcher, timeoutWatchdog, taskCache, dagCoordinator, taskHandlers, properties);
+            engine.init();
+            engines.add(engine);
+        }
+    }
+
+    @AfterEach
+    void stopEngines() {
+        engines.forEach(TaskExecutionEngine::shutdown);
+    }
+
+    @Test
+    void eachFireRunsOnceAcrossEnginesAndRejectedClaimsAreHandedBack() throws Exception {
+        LocalDateTime dueAt = LocalDateTime.now().minusSeconds(1);
+        List<Task> tasks = TestTasks.hourly("fire", TASK_COUNT, dueAt);
+        tasks.forEach(task -> task.setTaskType(CountingTaskHandler.TYPE));
+        tasks = taskRepository.saveAll(tasks);
+
+        ExecutorService nodes = Executors.newFixedThreadPool(NODE_COUNT);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> pollers = new ArrayList<>();
+        for (int n = 0; n < NODE_COUNT; n++) {
+            String nodeId = "node-" + n;
+            TaskExecutionEngine engine = engines.get(n);
+            pollers.add(nodes.submit(() -> {
+                start.await();
+                long deadline = System.currentTimeMillis() + 20_000;
+                while (countingHandler.runs.size() < TASK_COUNT && System.currentTimeMillis() < deadline) {
+                    // Deliberately more than the engine can admit
+                    for (Task task : taskClaimService.claimDueTasks(nodeId, CLAIM_BATCH)) {
+                        engine.executeAsync(task).exceptionally(error -> {
+                            if (error instanceof RejectedExecutionException) {
+                                rejected.incrementAndGet();
+                            }
+                            return null;
+                        });
+                    }
+                    Thread.sleep(10);
+                }
+                return null;
+            }));
+        }
+        try {
+            start.countDown();
+            for (Future<?> poller : pollers) {
+                poller.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            nodes.shutdownNow();
+        }
+        for (TaskExecutionEngine engine : engines) {
+            awaitDrained(engine);
+        }
+        historyWriter.flush();
+
+        assertTrue(rejected.get() > 0, "some claims should have been over the admission limit");
+        for (Task task : tasks) {
+            assertEquals(1, countingHandler.runs.get(task.getId()).get(), "task " + task.getName() + " ran");
+            assertEquals(1, historyRepository.findByTaskIdOrderByExecutionTimeDesc(task.getId()).size());
+            // Lease released, and the next fire is the following hour
+            Task stored = taskRepository.findById(task.getId()).orElseThrow();
+            assertNull(stored.getOwnerNode());
+            assertNull(stored.getLeaseExpiresAt());
+            assertTrue(stored.getNextExecutionTime().isAfter(dueAt));
+        }
+    }
+
+    private static void awaitDrained(TaskExecutionEngine engine) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (engine.getStats().admittedTasks > 0) {
+            assertTrue(System.currentTimeMillis() < deadline, "engine not drained within 10s");
+            Thread.sleep(20);
+        }
+    }
+
+    @TestConfiguration
+    static class CountingHandlerConfig {
+
+        @Bean
+        CountingTaskHandler countingTaskHandler() {
+            return new CountingTaskHandler();
+        }
+    }
+
+    /**
+     * Counts executions per task, taking long enough that engines fill up
+     */
+    static class CountingTaskHandler implements TaskHandler {
+
+        static final String TYPE = "COUNTED";
+
+        final Map<Long, AtomicInteger> runs = new ConcurrentHashMap<>();
+
+        @Override
+        public void execute(Task task) throws InterruptedException {
+            runs.computeIfAbsent(task.getId(), id -> new AtomicInteger()).incrementAndGet();
+            Thread.sleep(50);
+        }
+
+        @Override
+        public String getTaskType() {
+            return TYPE;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.sumit.taskscheduler.cluster;
+
+import com.sumit.taskscheduler.cache.TaskCache;
+import com.sumit.taskscheduler.entity.Task;
+import com.sumit.taskscheduler.repository.TaskRepository;
+import com.sumit.taskscheduler.support.SchedulerDataTest;
+import com.sumit.taskscheduler.support.TestTasks;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SchedulerDataTest
+@Import({TaskClaimService.class, TaskCache.class, SimpleMeterRegistry.class})
+class TaskClaimServiceTest {
+
+    private static final int TASK_COUNT = 500;
+    private static final int NODE_COUNT = 4;
+
+    @Autowired
+    private TaskClaimService taskClaimService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @BeforeEach
+    void createDueTasks() {
+        taskRepository.saveAll(TestTasks.hourly("task", TASK_COUNT, LocalDateTime.now().minusMinutes(1)));
+    }
+
+    @Test
+    void concurrentNodesClaimEachDueTaskExactlyOnce() throws Exception {
+        ExecutorService nodes = Executors.newFixedThreadPool(NODE_COUNT);
+        CountDownLatch start = new CountDownLatch(1);
+        Map<Long, String> owners = new ConcurrentHashMap<>();
+        Set<Long> duplicates = ConcurrentHashMap.newKeySet();
+
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int n = 0; n < NODE_COUNT; n++) {
+            String nodeId = "node-" + n;
+            results.add(nodes.submit(() -> {
+                start.await();
+                int claimedByNode = 0;
+                List<Task> batch;
+                do {
+                    batch = taskClaimService.claimDueTasks(nodeId, 10);
+                    for (Task task : batch) {
+                        if (owners.putIfAbsent(task.getId(), nodeId) != null) {
+                            duplicates.add(task.getId());
+                        }
+                    }
+                    claimedByNode += batch.size();
+                } while (!batch.isEmpty());
+                return claimedByNode;
+            }));
+        }
+
+        start.countDown();
+        int total = 0;
+        for (Future<Integer> result : results) {
+            total += result.get(30, TimeUnit.SECONDS);
+        }
+        nodes.shutdown();
+
+        assertTrue(duplicates.isEmpty(), "Tasks claimed by more than one node: " + duplicates);
+        assertEquals(TASK_COUNT, total);
+        assertEquals(TASK_COUNT, owners.size());
+
+        // Every row is leased to the node that claimed it and no longer due
+        LocalDateTime now = LocalDateTime.now();
+        for (Task task : taskRepository.findAll()) {
+            assertEquals(owners.get(task.getId()), task.getOwnerNode());
+            assertTrue(task.getLeaseExpiresAt().isAfter(now));
+            assertTrue(task.getNextExecutionTime().isAfter(now));
+        }
+    }
+
+    @Test
+    void singleTaskClaimSucceedsOnlyForFirstNode() {
+        Task task = taskRepository.findAll().getFirst();
+
+        Set<String> winners = new HashSet<>();
+        for (int n = 0; n < NODE_COUNT; n++) {
+            if (taskClaimService.claimTask("node-" + n, task).isPresent()) {
+                winners.add("node-" + n);
+            }
+        }
+
+        assertEquals(Set.of("node-0"), winners);
+        assertFalse(taskClaimService.claimDueTasks("node-1", TASK_COUNT).stream()
+                .anyMatch(claimed -> claimed.getId() == task.getId()));
+    }
+
+    @Test
+    void misfiredTasksFollowTheirMisfirePolicy() {
+        LocalDateTime now = LocalDateTime.now();
+        Task fireAll = taskRepository.save(minutelyTask("FIRE_ALL", now.minusMinutes(30)));
+        Task fireOnce = taskRepository.save(minutelyTask("FIRE_ONCE", now.minusMinutes(30)));
+        Task skip = taskRepository.save(minutelyTask("SKIP_TO_NEXT", now.minusMinutes(30)));
+
+        // FIRE_ALL runs the overdue fire now and queues further missed ones, capped at max-catch-up
+        Task fireAllRun = taskClaimService.claimTask("node-0", fireAll).orElseThrow();
+        assertTrue(fireAllRun.isMisfired());
+        assertEquals(9, fireAllRun.getMissedFireTimes().size());
+        assertTrue(fireAllRun.getNextExecutionTime().isAfter(now));
+
+        Task fireOnceRun = taskClaimService.claimTask("node-0", fireOnce).orElseThrow();
+        assertTrue(fireOnceRun.getMissedFireTimes().isEmpty());
+
+        // SKIP_TO_NEXT does not run, but moves on to the next fire after now
+        assertTrue(taskClaimService.claimTask("node-0", skip).isEmpty());
+        Task skipped = taskRepository.findById(skip.getId()).orElseThrow();
+        assertNull(skipped.getOwnerNode());
+        assertTrue(skipped.getNextExecutionTime().isAfter(now));
+    }
+
+    @Test
+    void singleTaskClaimPlansTheFireOnACopy() {
+        Task task = taskRepository.findAll().getFirst();
+        LocalDateTime dueAt = task.getNextExecutionTime();
+        // Another execution bumped the version since this copy of the task was loaded
+        Task stored = taskRepository.findById(task.getId()).orElseThrow();
+        stored.setLastExecutionTime(LocalDateTime.now().minusHours(1));
+        taskRepository.save(stored);
+
+        Task fire = taskClaimService.claimTask("node-0", task).orElseThrow();
+
+        assertEquals(dueAt, task.getNextExecutionTime());
+        assertNull(task.getOwnerNode());
+        assertNull(task.getScheduledFireTime());
+        assertEquals(dueAt, fire.getScheduledFireTime());
+        assertTrue(fire.getNextExecutionTime().isAfter(dueAt));
+        assertEquals("node-0", fire.getOwnerNode());
+        assertEquals(taskRepository.findById(task.getId()).orElseThrow().getVersion(), fire.getVersion());
+    }
+
+    private static Task minutelyTask(String misfirePolicy, LocalDateTime nextExecutionTime) {
+        Task task = TestTasks.hourly("minutely-" + misfirePolicy, nextExecutionTime);
+        task.setCronExpression("0 * * * * ?");
+        task.setMisfirePolicy(misfirePolicy);
+        return task;
+    }
+}
@@ -0,0 +1,83 @@
+package com.sumit.taskscheduler.controller;
+
+import com.sumit.taskscheduler.repository.TaskRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "scheduler.poll-initial-delay-ms=3600000")
+@AutoConfigureMockMvc
+class TaskControllerBulkTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @AfterEach
+    void cleanUp() {
+        taskRepository.deleteAll();
+    }
+
+    @Test
+    void bulkCreateReportsEachItemAndKeepsTheValidOnes() throws Exception {
+        String tasks = IntStream.range(0, 1200)
+                .mapToObj(i -> task("task-" + i, i == 7 ? "not a cron" : "0 0 9 ? * *"))
+                .collect(Collectors.joining(",", "[", ",{\"name\":\"\",\"taskType\":\"EMAIL\"}]"));
+
+        mockMvc.perform(post("/api/tasks/bulk").contentType(MediaType.APPLICATION_JSON).content(tasks))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.succeeded").value(1199))
+                .andExpect(jsonPath("$.failed").value(2))
+                .andExpect(jsonPath("$.results[0].status").value("CREATED"))
+                .andExpect(jsonPath("$.results[7].status").value("FAILED"))
+                .andExpect(jsonPath("$.results[1200].index").value(1200))
+                .andExpect(jsonPath("$.results[1200].status").value("FAILED"));
+
+        assertEquals(1199, taskRepository.count());
+    }
+
+    @Test
+    void bulkCreateKeepsItemsReadBeforeAMalformedBody() throws Exception {
+        String tasks = "[" + task("first", "0 0 9 ? * *") + "," + task("second", "0 0 9 ? * *") + ",{\"name\":";
+
+        mockMvc.perform(post("/api/tasks/bulk").contentType(MediaType.APPLICATION_JSON).content(tasks))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.succeeded").value(2));
+
+        assertEquals(2, taskRepository.count());
+    }
+
+    @Test
+    void bulkUpdateFailsOnlyUnknownTasks() throws Exception {
+        mockMvc.perform(post("/api/tasks/bulk").contentType(MediaType.APPLICATION_JSON)
+                .content("[" + task("report", "0 0 9 ? * *") + "]"));
+        long id = taskRepository.findAll().getFirst().getId();
+
+        String updates = "[{\"id\":" + id + ",\"priority\":\"HIGH\"},{\"id\":" + (id + 1000) + ",\"priority\":\"LOW\"}]";
+        mockMvc.perform(put("/api/tasks/bulk").contentType(MediaType.APPLICATION_JSON).content(updates))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[0].status").value("UPDATED"))
+                .andExpect(jsonPath("$.results[1].status").value("FAILED"));
+
+        assertEquals("HIGH", taskRepository.findById(id).orElseThrow().getPriority());
+    }
+
+    private static String task(String name, String cron) {
+        return "{\"name\":\"" + name + "\",\"cronExpression\":\"" + cron + "\",\"taskType\":\"EMAIL\"}";
+    }
+}
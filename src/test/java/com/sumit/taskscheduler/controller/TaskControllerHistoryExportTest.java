@@ -0,0 +1,110 @@
+package com.sumit.taskscheduler.controller;
+
+import com.sumit.taskscheduler.entity.TaskExecutionHistory;
+import com.sumit.taskscheduler.repository.TaskExecutionHistoryRepository;
+import com.sumit.taskscheduler.support.CleanDatabaseExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "scheduler.poll-initial-delay-ms=3600000")
+@AutoConfigureMockMvc
+@ExtendWith(CleanDatabaseExtension.class)
+class TaskControllerHistoryExportTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.now().minusDays(1).truncatedTo(ChronoUnit.DAYS);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TaskExecutionHistoryRepository historyRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void ndjsonExportWritesOneObjectPerExecutionInTheRangeAndStatus() throws Exception {
+        historyRepository.saveAll(List.of(
+                history("exec-1", 1L, DAY.plusHours(1), "SUCCESS", null),
+                history("exec-2", 2L, DAY.plusHours(2), "FAILED", "boom"),
+                history("exec-3", 1L, DAY.plusHours(3), "SUCCESS", null),
+                history("exec-4", 1L, DAY.plusDays(1).plusHours(1), "SUCCESS", null)));
+
+        List<JsonNode> lines = export("from=" + DAY + "&to=" + DAY.plusDays(1) + "&status=SUCCESS", "application/x-ndjson")
+                .lines().map(objectMapper::readTree).toList();
+
+        assertEquals(List.of("exec-1", "exec-3"), lines.stream().map(line -> line.get("executionId").asString()).toList());
+        lines.forEach(line -> assertEquals("SUCCESS", line.get("status").asString()));
+    }
+
+    @Test
+    void csvExportQuotesFieldsWithSeparatorsQuotesAndLineBreaks() throws Exception {
+        historyRepository.saveAll(List.of(
+                history("exec-1", 7L, DAY.plusHours(1), "SUCCESS", null),
+                history("exec-2", 7L, DAY.plusHours(2), "FAILED", "Bad input: \"a,b\"\nat line 2")));
+
+        String body = export("from=" + DAY + "&to=" + DAY.plusDays(1) + "&taskId=7&format=csv", "text/csv");
+
+        String[] lines = body.split("\n", 2);
+        assertEquals("id,executionId,taskId,executionTime,status,errorMessage,executionDurationMs,createdAt", lines[0]);
+        List<String> rows = lines[1].lines().toList();
+        // A null error message is an empty field; the quoted one keeps its line break inside the field
+        assertEquals(3, rows.size());
+        assertEquals(",exec-1,7," + DAY.plusHours(1) + ",SUCCESS,,15,",
+                rows.get(0).substring(rows.get(0).indexOf(','), rows.get(0).lastIndexOf(',') + 1));
+        assertEquals(",exec-2,7," + DAY.plusHours(2) + ",FAILED,\"Bad input: \"\"a,b\"\"",
+                rows.get(1).substring(rows.get(1).indexOf(',')));
+        assertEquals("at line 2\",15,", rows.get(2).substring(0, rows.get(2).lastIndexOf(',') + 1));
+    }
+
+    @Test
+    void emptyOrReversedRangeIsRejectedBeforeStreaming() throws Exception {
+        mockMvc.perform(get("/api/tasks/history?from=" + DAY + "&to=" + DAY))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/tasks/history?from=" + DAY + "&to=" + DAY.minusHours(1) + "&format=csv"))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isBadRequest());
+    }
+
+    private String export(String query, String contentType) throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/tasks/history?" + query))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(contentType))
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    private static TaskExecutionHistory history(String executionId, long taskId, LocalDateTime executionTime,
+                                                String status, String errorMessage) {
+        return TaskExecutionHistory.builder()
+                .executionId(executionId)
+                .taskId(taskId)
+                .executionTime(executionTime)
+                .status(status)
+                .errorMessage(errorMessage)
+                .executionDurationMs(15L)
+                .createdAt(executionTime)
+                .build();
+    }
+}
@@ -0,0 +1,117 @@
+package com.sumit.taskscheduler.dag;
+
+import com.sumit.taskscheduler.entity.DagRun;
+import com.sumit.taskscheduler.entity.DagRunTask;
+import com.sumit.taskscheduler.entity.Task;
+import com.sumit.taskscheduler.entity.TaskDependency;
+import com.sumit.taskscheduler.repository.DagRunRepository;
+import com.sumit.taskscheduler.repository.DagRunTaskRepository;
+import com.sumit.taskscheduler.repository.TaskDependencyRepository;
+import com.sumit.taskscheduler.repository.TaskRepository;
+import com.sumit.taskscheduler.support.SchedulerDataTest;
+import com.sumit.taskscheduler.support.TestTasks;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SchedulerDataTest
+@Import(DagCoordinator.class)
+class DagCoordinatorTest {
+
+    @Autowired
+    private DagCoordinator coordinator;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskDependencyRepository dependencyRepository;
+
+    @Autowired
+    private DagRunRepository runRepository;
+
+    @Autowired
+    private DagRunTaskRepository runTaskRepository;
+
+    private Task extract;
+    private Task cleanA;
+    private Task cleanB;
+    private Task load;
+
+    // extract -> cleanA -> load, extract -> cleanB -> load
+    @BeforeEach
+    void setUp() {
+        extract = task("extract");
+        cleanA = task("clean-a");
+        cleanB = task("clean-b");
+        load = task("load");
+        dependencyRepository.saveAll(List.of(
+                new TaskDependency(extract.getId(), cleanA.getId()),
+                new TaskDependency(extract.getId(), cleanB.getId()),
+                new TaskDependency(cleanA.getId(), load.getId()),
+                new TaskDependency(cleanB.getId(), load.getId())));
+        coordinator.dependenciesChanged();
+    }
+
+    @Test
+    void fansOutAndJoinsAfterTheLastParent() {
+        List<Task> branches = coordinator.onExecutionFinished(extract, true);
+        assertEquals(List.of(cleanA.getId(), cleanB.getId()), branches.stream().map(Task::getId).sorted().toList());
+        long runId = branches.getFirst().getDagRunId();
+
+        assertTrue(coordinator.onExecutionFinished(branchOf(branches, cleanA), true).isEmpty());
+        List<Task> joined = coordinator.onExecutionFinished(branchOf(branches, cleanB), true);
+        assertEquals(List.of(load.getId()), joined.stream().map(Task::getId).toList());
+
+        assertTrue(coordinator.onExecutionFinished(joined.getFirst(), true).isEmpty());
+        assertEquals("SUCCEEDED", run(runId).getStatus());
+        assertEquals(Map.of(extract.getId(), "SUCCESS", cleanA.getId(), "SUCCESS",
+                cleanB.getId(), "SUCCESS", load.getId(), "SUCCESS"), states(runId));
+    }
+
+    @Test
+    void failedBranchSkipsTheJoin() {
+        List<Task> branches = coordinator.onExecutionFinished(extract, true);
+        long runId = branches.getFirst().getDagRunId();
+
+        assertTrue(coordinator.onExecutionFinished(branchOf(branches, cleanA), false).isEmpty());
+        assertEquals("RUNNING", run(runId).getStatus());
+        assertTrue(coordinator.onExecutionFinished(branchOf(branches, cleanB), true).isEmpty());
+
+        assertEquals("FAILED", run(runId).getStatus());
+        assertEquals("SKIPPED", states(runId).get(load.getId()));
+    }
+
+    @Test
+    void dependentTaskRunOutsideItsDagStartsNoRun() {
+        assertTrue(coordinator.onExecutionFinished(cleanA, true).isEmpty());
+        assertTrue(runRepository.findByRootTaskIdOrderByIdDesc(cleanA.getId(), Limit.of(1)).isEmpty());
+    }
+
+    private Task branchOf(List<Task> ready, Task task) {
+        return ready.stream().filter(t -> t.getId() == task.getId()).findFirst().orElseThrow();
+    }
+
+    private DagRun run(long runId) {
+        return runRepository.findById(runId).orElseThrow();
+    }
+
+    private Map<Long, String> states(long runId) {
+        return runTaskRepository.findByDagRunIdOrderById(runId).stream()
+                .collect(Collectors.toMap(DagRunTask::getTaskId, DagRunTask::getStatus));
+    }
+
+    private Task task(String name) {
+        return taskRepository.save(TestTasks.hourly(name, LocalDateTime.now().plusHours(1)));
+    }
+}
@@ -0,0 +1,53 @@
+package com.sumit.taskscheduler.executor;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DelayedTaskDispatcherTest {
+
+    private final DelayedTaskDispatcher dispatcher = new DelayedTaskDispatcher();
+    private final TimeoutWatchdog watchdog = new TimeoutWatchdog();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        dispatcher.shutdown();
+        watchdog.shutdown();
+    }
+
+    @Test
+    void blockingActionDoesNotHoldUpLaterActions() throws InterruptedException {
+        // Stands in for a re-read of the task against a slow database
+        dispatcher.schedule(this::awaitRelease, Duration.ZERO);
+        CountDownLatch later = new CountDownLatch(1);
+        dispatcher.schedule(later::countDown, Duration.ofMillis(20));
+
+        assertTrue(later.await(1, TimeUnit.SECONDS), "a due action should run while another one blocks");
+    }
+
+    @Test
+    void timeoutsFireWhileEveryDispatchThreadBlocks() throws InterruptedException {
+        for (int i = 0; i < 10; i++) {
+            dispatcher.schedule(this::awaitRelease, Duration.ZERO);
+        }
+        CountDownLatch timedOut = new CountDownLatch(1);
+        watchdog.arm(timedOut::countDown, Duration.ofMillis(50));
+
+        assertTrue(timedOut.await(1, TimeUnit.SECONDS), "a timeout should fire on time");
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
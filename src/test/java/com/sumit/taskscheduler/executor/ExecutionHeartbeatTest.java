@@ -0,0 +1,70 @@
+package com.sumit.taskscheduler.executor;
+
+import com.sumit.taskscheduler.history.ExecutionHistoryWriter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+// One scheduling thread, taken by a job that never finishes until the test releases it
+@SpringBootTest(properties = {"spring.task.scheduling.pool.size=1", "scheduler.recovery.heartbeat-interval-ms=100",
+        "scheduler.poll-initial-delay-ms=600000"})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class ExecutionHeartbeatTest {
+
+    @MockitoSpyBean
+    private ExecutionHistoryWriter historyWriter;
+
+    @Autowired
+    private BlockingJob blockingJob;
+
+    @AfterEach
+    void releaseSchedulingThread() {
+        blockingJob.release.countDown();
+    }
+
+    @Test
+    void heartbeatsKeepFiringWhileAScheduledJobBlocks() throws Exception {
+        assertTrue(blockingJob.running.await(5, TimeUnit.SECONDS), "blocking job should hold the scheduling thread");
+        clearInvocations(historyWriter);
+
+        verify(historyWriter, timeout(3000).atLeast(5)).heartbeat(anyList());
+    }
+
+    @TestConfiguration
+    static class BlockingJobConfig {
+
+        @Bean
+        BlockingJob blockingJob() {
+            return new BlockingJob();
+        }
+    }
+
+    static class BlockingJob {
+
+        final CountDownLatch running = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        // Like a history rollup running far past the heartbeat interval
+        @Scheduled(fixedDelay = 3_600_000)
+        void run() throws InterruptedException {
+            running.countDown();
+            release.await();
+        }
+    }
+}
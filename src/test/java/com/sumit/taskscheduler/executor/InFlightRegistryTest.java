@@ -0,0 +1,59 @@
+package com.sumit.taskscheduler.executor;
+
+import com.sumit.taskscheduler.entity.OverlapPolicy;
+import com.sumit.taskscheduler.entity.Task;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InFlightRegistryTest {
+
+    private final InFlightRegistry registry = new InFlightRegistry();
+
+    @Test
+    void skipDropsFiresWhileInFlight() {
+        assertEquals(InFlightRegistry.Decision.DISPATCH, registry.admit(item(1), OverlapPolicy.SKIP));
+        assertEquals(InFlightRegistry.Decision.SKIPPED, registry.admit(item(1), OverlapPolicy.SKIP));
+        assertEquals(InFlightRegistry.Decision.DISPATCH, registry.admit(item(2), OverlapPolicy.SKIP));
+
+        assertNull(registry.finish(1));
+        assertFalse(registry.isInFlight(1));
+        assertEquals(InFlightRegistry.Decision.DISPATCH, registry.admit(item(1), OverlapPolicy.SKIP));
+    }
+
+    @Test
+    void queueOneHoldsSingleFollowUp() {
+        registry.admit(item(1), OverlapPolicy.QUEUE_ONE);
+        TaskExecutionEngine.DispatchItem followUp = item(1);
+        assertEquals(InFlightRegistry.Decision.DEFERRED, registry.admit(followUp, OverlapPolicy.QUEUE_ONE));
+        assertEquals(InFlightRegistry.Decision.SKIPPED, registry.admit(item(1), OverlapPolicy.QUEUE_ONE));
+
+        assertSame(followUp, registry.finish(1));
+        assertTrue(registry.isInFlight(1));
+        assertNull(registry.finish(1));
+        assertFalse(registry.isInFlight(1));
+    }
+
+    @Test
+    void allowRunsInParallel() {
+        registry.admit(item(1), OverlapPolicy.ALLOW);
+        assertEquals(InFlightRegistry.Decision.DISPATCH, registry.admit(item(1), OverlapPolicy.ALLOW));
+
+        registry.finish(1);
+        assertTrue(registry.isInFlight(1));
+        registry.finish(1);
+        assertEquals(0, registry.size());
+    }
+
+    private static TaskExecutionEngine.DispatchItem item(long taskId) {
+        Task task = new Task();
+        task.setId(taskId);
+        return new TaskExecutionEngine.DispatchItem(task, new CompletableFuture<>(), System.nanoTime());
+    }
+}
@@ -0,0 +1,65 @@
+package com.sumit.taskscheduler.executor;
+
+import com.sumit.taskscheduler.entity.TaskPriority;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class PriorityDispatchQueueTest {
+
+    @Test
+    void strictPolicyServesHighBeforeBacklog() {
+        PriorityDispatchQueue<String> queue =
+                new PriorityDispatchQueue<>(PriorityDispatchQueue.Policy.STRICT, new int[]{8, 4, 1}, 0);
+        for (int i = 0; i < 100; i++) {
+            queue.offer("report-" + i, TaskPriority.LOW);
+        }
+        queue.offer("medium", TaskPriority.MEDIUM);
+        queue.offer("high", TaskPriority.HIGH);
+
+        assertEquals("high", queue.poll());
+        assertEquals("medium", queue.poll());
+        assertEquals("report-0", queue.poll());
+        assertEquals(99, queue.size());
+    }
+
+    @Test
+    void weightedPolicySharesDispatchesByWeight() {
+        PriorityDispatchQueue<TaskPriority> queue =
+                new PriorityDispatchQueue<>(PriorityDispatchQueue.Policy.WEIGHTED, new int[]{8, 4, 1}, 0);
+        for (int i = 0; i < 100; i++) {
+            for (TaskPriority priority : TaskPriority.values()) {
+                queue.offer(priority, priority);
+            }
+        }
+
+        int[] served = new int[3];
+        for (int i = 0; i < 13; i++) {
+            served[queue.poll().ordinal()]++;
+        }
+
+        assertEquals(8, served[TaskPriority.HIGH.ordinal()]);
+        assertEquals(4, served[TaskPriority.MEDIUM.ordinal()]);
+        assertEquals(1, served[TaskPriority.LOW.ordinal()]);
+    }
+
+    @Test
+    void agedLowPriorityWorkIsNotStarved() throws InterruptedException {
+        PriorityDispatchQueue<String> queue =
+                new PriorityDispatchQueue<>(PriorityDispatchQueue.Policy.STRICT, new int[]{8, 4, 1}, 20);
+        queue.offer("old-low", TaskPriority.LOW);
+        Thread.sleep(60);
+        queue.offer("new-high", TaskPriority.HIGH);
+
+        List<String> order = new ArrayList<>();
+        order.add(queue.poll());
+        order.add(queue.poll());
+
+        assertEquals(List.of("old-low", "new-high"), order);
+        assertNull(queue.poll());
+    }
+}
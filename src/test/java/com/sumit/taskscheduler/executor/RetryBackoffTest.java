@@ -0,0 +1,46 @@
+package com.sumit.taskscheduler.executor;
+
+import com.sumit.taskscheduler.config.SchedulerProperties;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RetryBackoffTest {
+
+    @Test
+    void delayGrowsExponentiallyUpToTheCap() {
+        SchedulerProperties.Retry retry = new SchedulerProperties.Retry();
+        retry.setInitialDelayMs(1000);
+        retry.setMultiplier(2.0);
+        retry.setMaxDelayMs(5000);
+        retry.setJitter(0);
+        RetryBackoff backoff = new RetryBackoff(retry);
+
+        assertEquals(Duration.ofMillis(1000), backoff.delayFor(1));
+        assertEquals(Duration.ofMillis(2000), backoff.delayFor(2));
+        assertEquals(Duration.ofMillis(4000), backoff.delayFor(3));
+        assertEquals(Duration.ofMillis(5000), backoff.delayFor(4));
+        assertEquals(Duration.ofMillis(5000), backoff.delayFor(30));
+    }
+
+    @Test
+    void jitterSpreadsDelaysWithinBounds() {
+        SchedulerProperties.Retry retry = new SchedulerProperties.Retry();
+        retry.setInitialDelayMs(1000);
+        retry.setJitter(0.2);
+        RetryBackoff backoff = new RetryBackoff(retry);
+
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (int i = 0; i < 1000; i++) {
+            long delay = backoff.delayFor(1).toMillis();
+            min = Math.min(min, delay);
+            max = Math.max(max, delay);
+        }
+        assertTrue(min >= 800 && max <= 1200, "Delays outside +/-20%: " + min + ".." + max);
+        assertTrue(max - min > 100, "Delays are not spread: " + min + ".." + max);
+    }
+}
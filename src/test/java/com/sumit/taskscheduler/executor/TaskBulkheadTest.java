@@ -0,0 +1,84 @@
+package com.sumit.taskscheduler.executor;
+
+import com.sumit.taskscheduler.entity.Task;
+import com.sumit.taskscheduler.entity.TaskPriority;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TaskBulkheadTest {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final List<Long> rejected = new CopyOnWriteArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void rejectPolicyRefusesArrivalsWhileFull() throws Exception {
+        TaskBulkhead bulkhead = startBulkhead(TaskBulkhead.OverflowPolicy.REJECT);
+
+        bulkhead.submit(item(1), TaskPriority.MEDIUM);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        bulkhead.submit(item(2), TaskPriority.MEDIUM);
+        bulkhead.submit(item(3), TaskPriority.MEDIUM);
+
+        assertEquals(List.of(3L), rejected);
+        TaskExecutionEngine.BulkheadStats stats = bulkhead.getStats();
+        assertEquals(1, stats.activeTasks);
+        assertEquals(1, stats.queueSize);
+        assertEquals(1, stats.rejectedTasks);
+    }
+
+    @Test
+    void discardOldestPolicyKeepsNewestArrival() throws Exception {
+        TaskBulkhead bulkhead = startBulkhead(TaskBulkhead.OverflowPolicy.DISCARD_OLDEST);
+
+        bulkhead.submit(item(1), TaskPriority.MEDIUM);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        bulkhead.submit(item(2), TaskPriority.HIGH);
+        bulkhead.submit(item(3), TaskPriority.LOW);
+
+        assertEquals(List.of(2L), rejected);
+        assertEquals(1, bulkhead.getQueued());
+    }
+
+    private TaskBulkhead startBulkhead(TaskBulkhead.OverflowPolicy overflowPolicy) {
+        PriorityDispatchQueue<TaskExecutionEngine.DispatchItem> queue =
+                new PriorityDispatchQueue<>(PriorityDispatchQueue.Policy.STRICT, new int[]{8, 4, 1}, 0);
+        TaskBulkhead bulkhead = new TaskBulkhead("REPORT", 1, 1, overflowPolicy, queue, executor,
+                item -> {
+                    started.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                },
+                item -> rejected.add(item.task().getId()));
+        bulkhead.start();
+        return bulkhead;
+    }
+
+    private static TaskExecutionEngine.DispatchItem item(long taskId) {
+        Task task = new Task();
+        task.setId(taskId);
+        task.setTaskType("REPORT");
+        return new TaskExecutionEngine.DispatchItem(task, new CompletableFuture<>(), System.nanoTime());
+    }
+}
@@ -0,0 +1,130 @@
+package com.sumit.taskscheduler.executor;
+
+import com.sumit.taskscheduler.entity.Task;
+import com.sumit.taskscheduler.handler.TaskHandler;
+import com.sumit.taskscheduler.repository.TaskRepository;
+import com.sumit.taskscheduler.support.CleanDatabaseExtension;
+import com.sumit.taskscheduler.support.TestTasks;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The version-guarded task update after an execution, when the task is edited while it runs
+ */
+@SpringBootTest(properties = {"scheduler.poll-initial-delay-ms=600000", "scheduler.retry.enabled=false"})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+@ExtendWith(CleanDatabaseExtension.class)
+class TaskStateUpdateTest {
+
+    @Autowired
+    private TaskExecutionEngine engine;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private PausingTaskHandler pausingHandler;
+
+    @AfterEach
+    void releaseHandler() {
+        pausingHandler.release.countDown();
+    }
+
+    @Test
+    void editDuringExecutionIsReloadedAndKept() throws Exception {
+        Task task = taskRepository.save(pausingTask("edited"));
+        long versionAtStart = task.getVersion();
+
+        CompletableFuture<Void> execution = engine.executeAsync(task);
+        assertTrue(pausingHandler.running.await(5, TimeUnit.SECONDS));
+
+        // An API edit bumps the version while the handler runs: the engine's copy is now stale
+        Task edited = taskRepository.findById(task.getId()).orElseThrow();
+        edited.setDescription("edited while running");
+        edited.setCronExpression("0 0 3 * * ?");
+        edited = taskRepository.save(edited);
+        assertTrue(edited.getVersion() > versionAtStart);
+        pausingHandler.release.countDown();
+        execution.get(10, TimeUnit.SECONDS);
+
+        Task stored = taskRepository.findById(task.getId()).orElseThrow();
+        assertEquals("edited while running", stored.getDescription());
+        assertEquals(edited.getVersion() + 1, stored.getVersion());
+        assertNotNull(stored.getLastExecutionTime());
+        // The next fire follows the edited schedule, not the one the execution started with
+        assertEquals(3, stored.getNextExecutionTime().getHour());
+        assertEquals(0, stored.getRetryCount());
+    }
+
+    @Test
+    void taskDeletedDuringExecutionIsNotWrittenBack() throws Exception {
+        Task task = taskRepository.save(pausingTask("deleted"));
+
+        CompletableFuture<Void> execution = engine.executeAsync(task);
+        assertTrue(pausingHandler.running.await(5, TimeUnit.SECONDS));
+        taskRepository.deleteById(task.getId());
+        pausingHandler.release.countDown();
+        execution.get(10, TimeUnit.SECONDS);
+
+        assertFalse(taskRepository.existsById(task.getId()));
+    }
+
+    private Task pausingTask(String name) {
+        pausingHandler.reset();
+        Task task = TestTasks.hourly(name, LocalDateTime.now().minusSeconds(1));
+        task.setTaskType(PausingTaskHandler.TYPE);
+        return task;
+    }
+
+    @TestConfiguration
+    static class PausingHandlerConfig {
+
+        @Bean
+        PausingTaskHandler pausingTaskHandler() {
+            return new PausingTaskHandler();
+        }
+    }
+
+    /**
+     * Signals when it starts and runs until the test releases it
+     */
+    static class PausingTaskHandler implements TaskHandler {
+
+        static final String TYPE = "PAUSE";
+
+        volatile CountDownLatch running = new CountDownLatch(1);
+        volatile CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public void execute(Task task) throws InterruptedException {
+            running.countDown();
+            release.await();
+        }
+
+        @Override
+        public String getTaskType() {
+            return TYPE;
+        }
+
+        void reset() {
+            running = new CountDownLatch(1);
+            release = new CountDownLatch(1);
+        }
+    }
+}
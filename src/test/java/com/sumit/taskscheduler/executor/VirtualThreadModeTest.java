@@ -0,0 +1,190 @@
+package com.sumit.taskscheduler.executor;
+
+import com.sumit.taskscheduler.entity.Task;
+import com.sumit.taskscheduler.handler.TaskHandler;
+import com.sumit.taskscheduler.history.ExecutionHistoryWriter;
+import com.sumit.taskscheduler.repository.TaskExecutionHistoryRepository;
+import com.sumit.taskscheduler.repository.TaskRepository;
+import com.sumit.taskscheduler.support.CleanDatabaseExtension;
+import com.sumit.taskscheduler.support.TestTasks;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tasks run end to end with one virtual thread each, still capped by the bulkheads
+ */
+@SpringBootTest(properties = {"scheduler.poll-initial-delay-ms=600000", "scheduler.executor.mode=virtual",
+        "scheduler.executor.max-concurrency=3", "scheduler.executor.queue-capacity=20",
+        "scheduler.bulkheads.GATED.max-concurrency=2", "scheduler.bulkheads.GATED.queue-capacity=10"})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+@ExtendWith(CleanDatabaseExtension.class)
+class VirtualThreadModeTest {
+
+    @Autowired
+    private TaskExecutionEngine engine;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskExecutionHistoryRepository historyRepository;
+
+    @Autowired
+    private ExecutionHistoryWriter historyWriter;
+
+    @Autowired
+    @Qualifier("gatedHandler")
+    private GateTaskHandler gatedHandler;
+
+    @Autowired
+    @Qualifier("sharedHandler")
+    private GateTaskHandler sharedHandler;
+
+    @BeforeEach
+    void closeGates() {
+        gatedHandler.close();
+        sharedHandler.close();
+    }
+
+    @AfterEach
+    void openGates() {
+        gatedHandler.gate.countDown();
+        sharedHandler.gate.countDown();
+    }
+
+    @Test
+    void bulkheadCapsVirtualThreadsOfItsTaskType() throws Exception {
+        List<CompletableFuture<Void>> executions = submit("gated", GateTaskHandler.GATED, 6);
+
+        awaitTrue(() -> gatedHandler.running.get() == 2);
+        TaskExecutionEngine.BulkheadStats gated = bulkhead("GATED");
+        assertEquals(2, gated.activeTasks);
+        assertEquals(4, gated.queueSize);
+        assertEquals(2, gated.maxConcurrency);
+        // In virtual-thread mode the pool size is the concurrency limit: 3 shared plus 2 for GATED
+        TaskExecutionEngine.ExecutorStats stats = engine.getStats();
+        assertEquals(5, stats.poolSize);
+        assertEquals(2, stats.activeThreads);
+        assertEquals(6, stats.admittedTasks);
+
+        gatedHandler.gate.countDown();
+        CompletableFuture.allOf(executions.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+
+        assertEquals(2, gatedHandler.maxRunning.get());
+        assertEquals(6, gatedHandler.virtualRuns.get());
+        awaitTrue(() -> bulkhead("GATED").completedTasks == 6 && engine.getStats().admittedTasks == 0);
+        historyWriter.flush();
+        assertEquals(6, historyRepository.findAll().stream().filter(h -> "SUCCESS".equals(h.getStatus())).count());
+    }
+
+    @Test
+    void tasksWithoutABulkheadShareTheMaxConcurrency() throws Exception {
+        long completedBefore = bulkhead("default").completedTasks;
+        List<CompletableFuture<Void>> executions = submit("shared", GateTaskHandler.SHARED, 5);
+
+        awaitTrue(() -> sharedHandler.running.get() == 3);
+        assertEquals(3, bulkhead("default").activeTasks);
+        assertEquals(2, bulkhead("default").queueSize);
+
+        sharedHandler.gate.countDown();
+        CompletableFuture.allOf(executions.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+
+        assertEquals(3, sharedHandler.maxRunning.get());
+        assertEquals(5, sharedHandler.virtualRuns.get());
+        awaitTrue(() -> bulkhead("default").completedTasks == completedBefore + 5);
+    }
+
+    private List<CompletableFuture<Void>> submit(String prefix, String taskType, int count) {
+        List<Task> tasks = TestTasks.hourly(prefix, count, LocalDateTime.now().minusSeconds(1));
+        tasks.forEach(task -> task.setTaskType(taskType));
+        return taskRepository.saveAll(tasks).stream().map(engine::executeAsync).toList();
+    }
+
+    private TaskExecutionEngine.BulkheadStats bulkhead(String name) {
+        return engine.getBulkheadStats().stream().filter(stats -> stats.name.equals(name)).findFirst().orElseThrow();
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "condition not reached within 10s");
+            Thread.sleep(20);
+        }
+    }
+
+    @TestConfiguration
+    static class GateHandlerConfig {
+
+        @Bean
+        GateTaskHandler gatedHandler() {
+            return new GateTaskHandler(GateTaskHandler.GATED);
+        }
+
+        @Bean
+        GateTaskHandler sharedHandler() {
+            return new GateTaskHandler(GateTaskHandler.SHARED);
+        }
+    }
+
+    /**
+     * Holds every execution until the test opens the gate, recording peak concurrency and thread kind
+     */
+    static class GateTaskHandler implements TaskHandler {
+
+        static final String GATED = "GATED";
+        static final String SHARED = "SHARED";
+
+        private final String taskType;
+        volatile CountDownLatch gate = new CountDownLatch(1);
+        final AtomicInteger maxRunning = new AtomicInteger();
+        final AtomicInteger virtualRuns = new AtomicInteger();
+        final AtomicInteger running = new AtomicInteger();
+
+        GateTaskHandler(String taskType) {
+            this.taskType = taskType;
+        }
+
+        @Override
+        public void execute(Task task) throws InterruptedException {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            if (Thread.currentThread().isVirtual()) {
+                virtualRuns.incrementAndGet();
+            }
+            try {
+                gate.await();
+            } finally {
+                running.decrementAndGet();
+            }
+        }
+
+        @Override
+        public String getTaskType() {
+            return taskType;
+        }
+
+        void close() {
+            gate = new CountDownLatch(1);
+            maxRunning.set(0);
+            virtualRuns.set(0);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.sumit.taskscheduler.history;
+
+import com.sumit.taskscheduler.cluster.NodeIdentity;
+import com.sumit.taskscheduler.entity.TaskExecutionHistory;
+import com.sumit.taskscheduler.metrics.SchedulerMetrics;
+import com.sumit.taskscheduler.repository.TaskExecutionHistoryRepository;
+import com.sumit.taskscheduler.support.SchedulerDataTest;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SchedulerDataTest(properties = {"scheduler.history.max-write-attempts=2", "scheduler.history.retry-initial-delay-ms=10"})
+@Import({ExecutionHistoryWriter.class, NodeIdentity.class, SchedulerMetrics.class, SimpleMeterRegistry.class})
+class ExecutionHistoryWriterTest {
+
+    @Autowired
+    private ExecutionHistoryWriter writer;
+
+    @Autowired
+    private TaskExecutionHistoryRepository historyRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void badRecordIsIsolatedRetriedAndThenGivenUp() {
+        double droppedBefore = meterRegistry.counter(SchedulerMetrics.HISTORY_DROPPED).count();
+        // Longer than the execution_id column, so its insert always fails
+        TaskExecutionHistory poison = history(1L, "x".repeat(64));
+        writer.recordStart(history(1L, UUID.randomUUID().toString()));
+        writer.recordStart(poison);
+        writer.recordStart(history(2L, UUID.randomUUID().toString()));
+        writer.flush();
+
+        assertEquals(2, historyRepository.count());
+        assertEquals(1, writer.pendingCount());
+
+        writer.recordStart(history(3L, UUID.randomUUID().toString()));
+        writer.flush();
+
+        assertEquals(3, historyRepository.count());
+        assertEquals(0, writer.pendingCount());
+        assertEquals(droppedBefore + 1, meterRegistry.counter(SchedulerMetrics.HISTORY_DROPPED).count());
+    }
+
+    @Test
+    void completionIsWrittenWithTheRecordsOfItsBatch() {
+        TaskExecutionHistory history = history(1L, UUID.randomUUID().toString());
+        writer.recordStart(history);
+        writer.flush();
+        history.setStatus("SUCCESS");
+        history.setExecutionDurationMs(5L);
+        writer.recordStart(history(1L, "x".repeat(64)));
+        writer.recordCompletion(history);
+        writer.flush();
+
+        assertEquals("SUCCESS", historyRepository.findByTaskIdOrderByExecutionTimeDesc(1L).getFirst().getStatus());
+
+        // A second failure alongside a good record gives the bad one up
+        writer.recordStart(history(2L, UUID.randomUUID().toString()));
+        writer.flush();
+        assertEquals(0, writer.pendingCount());
+    }
+
+    @Test
+    void lateCompletionDoesNotReopenAnAbandonedExecution() {
+        TaskExecutionHistory batched = history(1L, UUID.randomUUID().toString());
+        TaskExecutionHistory oneByOne = history(2L, UUID.randomUUID().toString());
+        writer.recordStart(batched);
+        writer.recordStart(oneByOne);
+        writer.flush();
+        // The sweeper gave both up while their node was unreachable
+        jdbcTemplate.update("UPDATE task_execution_history SET status = 'ABANDONED'");
+
+        batched.setStatus("SUCCESS");
+        writer.recordCompletion(batched);
+        writer.flush();
+        oneByOne.setStatus("FAILED");
+        // A bad record in the same batch sends the completion down the one-by-one path
+        writer.recordStart(history(3L, "x".repeat(64)));
+        writer.recordCompletion(oneByOne);
+        writer.flush();
+
+        assertEquals("ABANDONED", historyRepository.findByTaskIdOrderByExecutionTimeDesc(1L).getFirst().getStatus());
+        assertEquals("ABANDONED", historyRepository.findByTaskIdOrderByExecutionTimeDesc(2L).getFirst().getStatus());
+    }
+
+    private static TaskExecutionHistory history(long taskId, String executionId) {
+        // Whole milliseconds, so the completion update matches the stored execution_time
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        return TaskExecutionHistory.builder()
+                .executionId(executionId)
+                .taskId(taskId)
+                .executionTime(now)
+                .status("RUNNING")
+                .createdAt(now)
+                .build();
+    }
+}
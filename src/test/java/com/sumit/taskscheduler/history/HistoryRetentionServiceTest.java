@@ -0,0 +1,132 @@
+package com.sumit.taskscheduler.history;
+
+import com.sumit.taskscheduler.cluster.LeaderElection;
+import com.sumit.taskscheduler.cluster.NodeIdentity;
+import com.sumit.taskscheduler.entity.LeaderLease;
+import com.sumit.taskscheduler.entity.TaskExecutionHistory;
+import com.sumit.taskscheduler.entity.TaskExecutionRollup;
+import com.sumit.taskscheduler.repository.HistoryPartitionRepository;
+import com.sumit.taskscheduler.repository.HistoryRetentionRepository;
+import com.sumit.taskscheduler.repository.LeaderLeaseRepository;
+import com.sumit.taskscheduler.repository.TaskExecutionHistoryRepository;
+import com.sumit.taskscheduler.repository.TaskExecutionRollupRepository;
+import com.sumit.taskscheduler.support.SchedulerDataTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SchedulerDataTest
+@Import({HistoryRetentionService.class, HistoryPartitionRepository.class, HistoryRetentionRepository.class,
+        LeaderElection.class, NodeIdentity.class})
+class HistoryRetentionServiceTest {
+
+    @Autowired
+    private HistoryRetentionService retentionService;
+
+    @Autowired
+    private TaskExecutionHistoryRepository historyRepository;
+
+    @Autowired
+    private TaskExecutionRollupRepository rollupRepository;
+
+    @Autowired
+    private LeaderElection leaderElection;
+
+    @Autowired
+    private LeaderLeaseRepository leaseRepository;
+
+    @AfterEach
+    void cleanUp() {
+        leaderElection.release();
+    }
+
+    @Test
+    void expiredDaysAreRolledUpAndRemoved() {
+        LocalDateTime today = LocalDate.now().atStartOfDay();
+        LocalDateTime expiredDay = today.minusDays(10);
+        List<TaskExecutionHistory> rows = new ArrayList<>();
+        // 100 executions of task 1 in one hour of the expired day, every tenth one failed
+        for (int i = 1; i <= 100; i++) {
+            rows.add(history(1L, expiredDay.plusHours(3).plusSeconds(i), i % 10 == 0 ? "FAILED" : "SUCCESS", i));
+        }
+        rows.add(history(2L, expiredDay.plusHours(5), "SUCCESS", 7));
+        rows.add(history(1L, today.plusHours(1), "SUCCESS", 1));
+        historyRepository.saveAll(rows);
+        leaderElection.renewOrAcquire();
+
+        retentionService.compactBefore(today.minusDays(1));
+
+        assertEquals(1, historyRepository.count());
+        List<TaskExecutionRollup> hourly = rollupRepository.findRange(1L, "HOUR", expiredDay, today);
+        assertEquals(1, hourly.size());
+        TaskExecutionRollup hour = hourly.getFirst();
+        assertEquals(expiredDay.plusHours(3), hour.getBucketStart());
+        assertEquals(100, hour.getExecutions());
+        assertEquals(10, hour.getFailures());
+        assertEquals(50.5, hour.getP50Ms(), 0.01);
+        assertEquals(100L, hour.getMaxMs());
+        assertEquals(1, rollupRepository.findRange(1L, "DAY", expiredDay, today).size());
+        assertEquals(1, rollupRepository.findRange(2L, "DAY", expiredDay, today).size());
+    }
+
+    @Test
+    void daysWithRunningExecutionsAreKeptUntilTheyAreClosed() {
+        LocalDateTime today = LocalDate.now().atStartOfDay();
+        LocalDateTime oldestDay = today.minusDays(12);
+        LocalDateTime runningDay = today.minusDays(11);
+        historyRepository.saveAll(List.of(
+                history(1L, oldestDay.plusHours(1), "SUCCESS", 5),
+                history(1L, runningDay.plusHours(1), "SUCCESS", 5),
+                history(2L, runningDay.plusHours(2), "RUNNING", 0),
+                history(1L, runningDay.plusDays(1).plusHours(1), "SUCCESS", 5)));
+        leaderElection.renewOrAcquire();
+
+        retentionService.compactBefore(today.minusDays(1));
+
+        // The day before is compacted; the day with the open execution and every later one are not
+        assertEquals(3, historyRepository.count());
+        assertEquals(1, rollupRepository.findRange(1L, "DAY", oldestDay, today).size());
+
+        TaskExecutionHistory running = historyRepository.findAll().stream()
+                .filter(row -> "RUNNING".equals(row.getStatus())).findFirst().orElseThrow();
+        running.setStatus("ABANDONED");
+        historyRepository.save(running);
+
+        retentionService.compactBefore(today.minusDays(1));
+
+        assertEquals(0, historyRepository.count());
+        assertEquals(3, rollupRepository.findRange(1L, "DAY", oldestDay, today).size());
+        assertEquals(1, rollupRepository.findRange(2L, "DAY", oldestDay, today).get(0).getFailures());
+    }
+
+    @Test
+    void nodeWithoutTheLeaderLeaseCompactsNothing() {
+        LocalDateTime expiredDay = LocalDate.now().atStartOfDay().minusDays(10);
+        historyRepository.save(history(1L, expiredDay.plusHours(3), "SUCCESS", 1));
+        // Another node holds the lease, so this node's renewal thread cannot take it over
+        LocalDateTime now = LocalDateTime.now();
+        leaseRepository.save(new LeaderLease("scheduler-leader", "other-node", 1, now, now.plusHours(1)));
+
+        retentionService.compactBefore(expiredDay.plusDays(1));
+
+        assertEquals(1, historyRepository.count());
+        assertEquals(0, rollupRepository.count());
+    }
+
+    private static TaskExecutionHistory history(long taskId, LocalDateTime executionTime, String status, long durationMs) {
+        return TaskExecutionHistory.builder()
+                .taskId(taskId)
+                .executionTime(executionTime)
+                .status(status)
+                .executionDurationMs(durationMs)
+                .build();
+    }
+}
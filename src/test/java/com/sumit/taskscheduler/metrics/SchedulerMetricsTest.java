@@ -0,0 +1,87 @@
+package com.sumit.taskscheduler.metrics;
+
+import com.sumit.taskscheduler.config.SchedulerProperties;
+import com.sumit.taskscheduler.entity.Task;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class SchedulerMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void executionTimersAreTaggedByTaskTypeOnly() {
+        SchedulerMetrics metrics = new SchedulerMetrics(registry, new SchedulerProperties());
+        Task task = task(7L, "REPORT");
+
+        metrics.recordSchedulingLag(task, Duration.ofMillis(250));
+        // Starting early counts as no lag
+        metrics.recordSchedulingLag(task, Duration.ofMillis(-40));
+        metrics.recordQueueWait(task, TimeUnit.MILLISECONDS.toNanos(15));
+        metrics.recordRunTime(task, TimeUnit.MILLISECONDS.toNanos(120), "success");
+        metrics.recordRunTime(task, TimeUnit.MILLISECONDS.toNanos(30), "failure");
+
+        Timer lag = registry.get(SchedulerMetrics.SCHEDULING_LAG).tag("taskType", "REPORT").timer();
+        assertEquals(2, lag.count());
+        assertEquals(250, lag.totalTime(TimeUnit.MILLISECONDS), 0.001);
+        assertEquals(250, lag.max(TimeUnit.MILLISECONDS), 0.001);
+        assertEquals(15, registry.get(SchedulerMetrics.QUEUE_WAIT).tag("taskType", "REPORT").timer()
+                .totalTime(TimeUnit.MILLISECONDS), 0.001);
+        assertEquals(120, registry.get(SchedulerMetrics.RUN_TIME).tags("taskType", "REPORT", "outcome", "success")
+                .timer().totalTime(TimeUnit.MILLISECONDS), 0.001);
+        assertEquals(1, registry.get(SchedulerMetrics.RUN_TIME).tag("outcome", "failure").timer().count());
+
+        // No per-task series unless scheduler.metrics.per-task-tags is set
+        for (Meter meter : registry.getMeters()) {
+            assertNull(meter.getId().getTag("taskId"), meter.getId().toString());
+        }
+    }
+
+    @Test
+    void dbWritesAreTaggedByOperationAndBatchesByNoTaskType() {
+        SchedulerMetrics metrics = new SchedulerMetrics(registry, new SchedulerProperties());
+
+        metrics.recordDbWrite(task(7L, "EMAIL"), "task_state", TimeUnit.MILLISECONDS.toNanos(4));
+        metrics.recordDbWrite(task(8L, "EMAIL"), "task_state", TimeUnit.MILLISECONDS.toNanos(6));
+        metrics.recordDbWrite("history_batch", TimeUnit.MILLISECONDS.toNanos(9));
+
+        Timer taskState = registry.get(SchedulerMetrics.DB_WRITE)
+                .tags("operation", "task_state", "taskType", "EMAIL").timer();
+        assertEquals(2, taskState.count());
+        assertEquals(10, taskState.totalTime(TimeUnit.MILLISECONDS), 0.001);
+        assertEquals(1, registry.get(SchedulerMetrics.DB_WRITE)
+                .tags("operation", "history_batch", "taskType", "none").timer().count());
+    }
+
+    @Test
+    void perTaskTagsAddTheTaskIdToEverySeries() {
+        SchedulerProperties properties = new SchedulerProperties();
+        properties.getMetrics().setPerTaskTags(true);
+        SchedulerMetrics metrics = new SchedulerMetrics(registry, properties);
+
+        metrics.recordRunTime(task(7L, "REPORT"), 1_000_000, "success");
+        metrics.recordRunTime(task(8L, "REPORT"), 1_000_000, "success");
+        metrics.recordDbWrite("claim_batch", 1_000_000);
+
+        assertEquals(2, registry.get(SchedulerMetrics.RUN_TIME).timers().size());
+        assertEquals(1, registry.get(SchedulerMetrics.RUN_TIME).tag("taskId", "8").timer().count());
+        // Batch writes keep the same tag keys, as Prometheus requires of one meter's series
+        assertEquals(1, registry.get(SchedulerMetrics.DB_WRITE).tags("taskType", "none", "taskId", "none")
+                .timer().count());
+    }
+
+    private static Task task(Long id, String taskType) {
+        Task task = new Task();
+        task.setId(id);
+        task.setTaskType(taskType);
+        return task;
+    }
+}
@@ -0,0 +1,122 @@
+package com.sumit.taskscheduler.recovery;
+
+import com.sumit.taskscheduler.cache.TaskCache;
+import com.sumit.taskscheduler.cluster.LeaderElection;
+import com.sumit.taskscheduler.cluster.NodeIdentity;
+import com.sumit.taskscheduler.dag.DagCoordinator;
+import com.sumit.taskscheduler.entity.Task;
+import com.sumit.taskscheduler.entity.TaskExecutionHistory;
+import com.sumit.taskscheduler.repository.HistoryRecoveryRepository;
+import com.sumit.taskscheduler.repository.TaskExecutionHistoryRepository;
+import com.sumit.taskscheduler.repository.TaskRepository;
+import com.sumit.taskscheduler.repository.TaskStateRepository;
+import com.sumit.taskscheduler.support.SchedulerDataTest;
+import com.sumit.taskscheduler.support.TestTasks;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SchedulerDataTest
+@Import({OrphanedExecutionSweeper.class, HistoryRecoveryRepository.class, TaskStateRepository.class,
+        DagCoordinator.class, LeaderElection.class, NodeIdentity.class, TaskCache.class, SimpleMeterRegistry.class})
+class OrphanedExecutionSweeperTest {
+
+    private static final String DEAD_NODE = "dead-node";
+
+    @Autowired
+    private OrphanedExecutionSweeper sweeper;
+
+    @Autowired
+    private LeaderElection leaderElection;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskExecutionHistoryRepository historyRepository;
+
+    @AfterEach
+    void cleanUp() {
+        leaderElection.release();
+    }
+
+    @Test
+    void abandonedExecutionIsRetriedWithoutWaitingForTheLease() {
+        LocalDateTime nextFire = LocalDateTime.now().plusHours(1).truncatedTo(ChronoUnit.SECONDS);
+        Task task = leasedTask(0, nextFire);
+        TaskExecutionHistory orphan = running(task, LocalDateTime.now().minusMinutes(5));
+        TaskExecutionHistory alive = running(task, LocalDateTime.now());
+        leaderElection.renewOrAcquire();
+
+        assertEquals(1, sweeper.recoverStaleExecutions());
+
+        assertEquals("ABANDONED", status(orphan));
+        assertEquals("RUNNING", status(alive));
+        Task recovered = taskRepository.findById(task.getId()).orElseThrow();
+        assertNull(recovered.getOwnerNode());
+        assertNull(recovered.getLeaseExpiresAt());
+        assertEquals(1, recovered.getRetryCount());
+        // First retry backoff: 1s plus jitter, instead of the next fire an hour away
+        assertTrue(recovered.getNextExecutionTime().isBefore(LocalDateTime.now().plusSeconds(5)));
+    }
+
+    @Test
+    void withoutRetriesLeftOnlyTheLeaseIsDropped() {
+        LocalDateTime nextFire = LocalDateTime.now().plusHours(1).truncatedTo(ChronoUnit.SECONDS);
+        Task task = leasedTask(3, nextFire);
+        TaskExecutionHistory orphan = running(task, LocalDateTime.now().minusMinutes(5));
+        leaderElection.renewOrAcquire();
+
+        assertEquals(1, sweeper.recoverStaleExecutions());
+
+        assertEquals("ABANDONED", status(orphan));
+        Task recovered = taskRepository.findById(task.getId()).orElseThrow();
+        assertNull(recovered.getOwnerNode());
+        assertEquals(3, recovered.getRetryCount());
+        assertEquals(nextFire, recovered.getNextExecutionTime());
+    }
+
+    @Test
+    void onlyTheLeaderSweeps() {
+        Task task = leasedTask(0, LocalDateTime.now().plusHours(1));
+        TaskExecutionHistory orphan = running(task, LocalDateTime.now().minusMinutes(5));
+
+        sweeper.sweep();
+
+        assertEquals("RUNNING", status(orphan));
+    }
+
+    private Task leasedTask(int retryCount, LocalDateTime nextFire) {
+        Task task = TestTasks.hourly("leased", nextFire);
+        task.setRetryCount(retryCount);
+        task.setMaxRetries(3);
+        task.setOwnerNode(DEAD_NODE);
+        task.setLeaseExpiresAt(LocalDateTime.now().plusMinutes(5));
+        return taskRepository.save(task);
+    }
+
+    private TaskExecutionHistory running(Task task, LocalDateTime heartbeatAt) {
+        return historyRepository.save(TaskExecutionHistory.builder()
+                .executionId(UUID.randomUUID().toString())
+                .taskId(task.getId())
+                .executionTime(heartbeatAt.minusMinutes(1))
+                .status("RUNNING")
+                .ownerNode(DEAD_NODE)
+                .heartbeatAt(heartbeatAt)
+                .build());
+    }
+
+    private String status(TaskExecutionHistory history) {
+        return historyRepository.findById(history.getId()).orElseThrow().getStatus();
+    }
+}
@@ -0,0 +1,62 @@
+package com.sumit.taskscheduler.repository;
+
+import com.sumit.taskscheduler.repository.HistoryPartitionRepository.HistoryPartition;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Partition bounds as PostgreSQL's pg_get_expr prints them
+ */
+class HistoryPartitionTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 14);
+
+    @Test
+    void parsesADailyPartition() {
+        HistoryPartition partition = HistoryPartition.of("task_execution_history_p20260314",
+                "FOR VALUES FROM ('2026-03-14 00:00:00') TO ('2026-03-15 00:00:00')");
+
+        assertEquals("task_execution_history_p20260314", partition.name());
+        assertEquals(DAY.atStartOfDay(), partition.from());
+        assertEquals(DAY.plusDays(1).atStartOfDay(), partition.to());
+    }
+
+    @Test
+    void parsesThePrePartitioningTableOpenTowardsThePast() {
+        HistoryPartition partition = HistoryPartition.of("task_execution_history_legacy",
+                "FOR VALUES FROM (MINVALUE) TO ('2026-03-14 00:00:00')");
+
+        assertNull(partition.from());
+        assertEquals(DAY.atStartOfDay(), partition.to());
+    }
+
+    @Test
+    void rejectsBoundsItDoesNotUnderstand() {
+        assertThrows(IllegalStateException.class, () -> HistoryPartition.of("task_execution_history_default", "DEFAULT"));
+    }
+
+    @Test
+    void coversOnlyWholeDaysWithinItsBounds() {
+        HistoryPartition daily = new HistoryPartition("p", DAY.atStartOfDay(), DAY.plusDays(1).atStartOfDay());
+        assertTrue(daily.covers(DAY));
+        assertFalse(daily.covers(DAY.minusDays(1)));
+        assertFalse(daily.covers(DAY.plusDays(1)));
+
+        HistoryPartition legacy = new HistoryPartition("legacy", null, DAY.atStartOfDay());
+        assertTrue(legacy.covers(DAY.minusYears(5)));
+        assertTrue(legacy.covers(DAY.minusDays(1)));
+        assertFalse(legacy.covers(DAY));
+
+        // A partition ending mid-day does not hold that whole day
+        HistoryPartition partial = new HistoryPartition("partial", null, LocalDateTime.of(2026, 3, 14, 12, 0));
+        assertFalse(partial.covers(DAY));
+    }
+}
@@ -0,0 +1,203 @@
+package com.sumit.taskscheduler.scheduler;
+
+import com.sumit.taskscheduler.cluster.TaskClaimService;
+import com.sumit.taskscheduler.entity.Task;
+import com.sumit.taskscheduler.executor.TaskExecutionEngine;
+import com.sumit.taskscheduler.handler.TaskHandler;
+import com.sumit.taskscheduler.repository.TaskExecutionHistoryRepository;
+import com.sumit.taskscheduler.repository.TaskRepository;
+import com.sumit.taskscheduler.scheduler.impl.TaskSchedulerServiceImpl;
+import com.sumit.taskscheduler.support.CleanDatabaseExtension;
+import com.sumit.taskscheduler.support.TestTasks;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Admission limit of 2 (one worker plus one queue slot); the test drives the poller itself
+@SpringBootTest(properties = {"scheduler.poll-initial-delay-ms=600000", "scheduler.executor.pool-size=1",
+        "scheduler.executor.queue-capacity=1", "scheduler.executor.rejected-retry-delay-ms=200",
+        "scheduler.misfire.ramp-window-ms=300", "scheduler.retry.enabled=false"})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+@ExtendWith(CleanDatabaseExtension.class)
+class ClaimAdmissionTest {
+
+    @Autowired
+    private TaskSchedulerServiceImpl scheduler;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskExecutionHistoryRepository historyRepository;
+
+    @Autowired
+    private TaskExecutionEngine engine;
+
+    @Autowired
+    private TaskClaimService taskClaimService;
+
+    @Autowired
+    private HoldingTaskHandler holdingHandler;
+
+    @BeforeEach
+    void holdExecutions() {
+        holdingHandler.hold();
+    }
+
+    @AfterEach
+    void drainEngine() throws InterruptedException {
+        holdingHandler.releaseAll();
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (engine.availableCapacity() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+    }
+
+    @Test
+    void pollClaimsNoMoreThanTheEngineCanAdmit() {
+        LocalDateTime dueAt = LocalDateTime.now().minusSeconds(1).truncatedTo(ChronoUnit.SECONDS);
+        taskRepository.saveAll(holdingTasks("capped", 5, dueAt));
+
+        scheduler.pollAndExecuteTasks();
+
+        assertEquals(0, engine.availableCapacity());
+        List<Task> rows = taskRepository.findAll();
+        assertEquals(2, rows.stream().filter(task -> task.getOwnerNode() != null).count());
+        // The rest stay due and unclaimed in the database
+        List<Task> unclaimed = rows.stream().filter(task -> task.getOwnerNode() == null).toList();
+        assertEquals(3, unclaimed.size());
+        unclaimed.forEach(task -> assertEquals(dueAt, task.getNextExecutionTime()));
+    }
+
+    @Test
+    void rejectedClaimGoesBackToTheDatabaseAndRejectedRetryRunsLater() throws Exception {
+        LocalDateTime dueAt = LocalDateTime.now().minusSeconds(1).truncatedTo(ChronoUnit.SECONDS);
+        taskRepository.saveAll(holdingTasks("busy", 2, dueAt));
+        scheduler.pollAndExecuteTasks();
+        assertEquals(0, engine.availableCapacity());
+
+        // A claim that reaches the full engine gets its fire back, due as before
+        Task late = taskRepository.save(holdingTasks("late", 1, dueAt).getFirst());
+        Task claimed = taskClaimService.claimDueTasks("node-late", 1).getFirst();
+        assertEquals(late.getId(), claimed.getId());
+        assertRejected(engine.executeAsync(claimed));
+        Task returned = taskRepository.findById(late.getId()).orElseThrow();
+        assertNull(returned.getOwnerNode());
+        assertEquals(dueAt, returned.getNextExecutionTime());
+
+        // Work outside any claim, like a retry, is offered again once there is room
+        Task retry = taskRepository.findById(late.getId()).orElseThrow();
+        retry.setScheduledFireTime(dueAt);
+        retry.setRetryAttempt(1);
+        assertRejected(engine.executeAsync(retry));
+        holdingHandler.releaseAll();
+        assertTrue(awaitSuccess(late.getId(), 10_000), "rejected retry should run once the engine has room");
+    }
+
+    @Test
+    void misfiredBacklogLargerThanTheAdmissionLimitAllRuns() throws Exception {
+        // Hourly tasks due ten minutes ago: every one is a misfire and waits out the ramp
+        List<Task> tasks = TestTasks.hourly("backlog", 6, LocalDateTime.now().minusMinutes(10));
+        tasks.forEach(task -> task.setTaskType("HEALTH_CHECK"));
+        taskRepository.saveAll(tasks);
+
+        long deadline = System.currentTimeMillis() + 20_000;
+        while (System.currentTimeMillis() < deadline && !allRanOnce(tasks)) {
+            scheduler.pollAndExecuteTasks();
+            Thread.sleep(100);
+        }
+
+        for (Task task : tasks) {
+            assertEquals(1, historyRepository.findTop10ByTaskIdOrderByExecutionTimeDesc(task.getId()).size(),
+                    "task " + task.getName() + " should run exactly once");
+        }
+        LocalDateTime now = LocalDateTime.now();
+        taskRepository.findAll().forEach(task -> assertTrue(task.getNextExecutionTime().isAfter(now)));
+    }
+
+    private static void assertRejected(CompletableFuture<Void> future) {
+        ExecutionException error = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(RejectedExecutionException.class, error.getCause());
+    }
+
+    private boolean awaitSuccess(long taskId, long timeoutMs) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        while (System.currentTimeMillis() < deadline) {
+            if (historyRepository.findTop10ByTaskIdOrderByExecutionTimeDesc(taskId).stream()
+                    .anyMatch(history -> "SUCCESS".equals(history.getStatus()))) {
+                return true;
+            }
+            Thread.sleep(50);
+        }
+        return false;
+    }
+
+    private static List<Task> holdingTasks(String prefix, int count, LocalDateTime dueAt) {
+        List<Task> tasks = TestTasks.hourly(prefix, count, dueAt);
+        tasks.forEach(task -> task.setTaskType(HoldingTaskHandler.TYPE));
+        return tasks;
+    }
+
+    private boolean allRanOnce(List<Task> tasks) {
+        return tasks.stream().allMatch(task -> historyRepository.findTop10ByTaskIdOrderByExecutionTimeDesc(task.getId())
+                .stream().anyMatch(history -> "SUCCESS".equals(history.getStatus())));
+    }
+
+    @TestConfiguration
+    static class HoldingHandlerConfig {
+
+        @Bean
+        HoldingTaskHandler holdingTaskHandler() {
+            return new HoldingTaskHandler();
+        }
+    }
+
+    /**
+     * Keeps its executions running until the test releases them
+     */
+    static class HoldingTaskHandler implements TaskHandler {
+
+        static final String TYPE = "HOLD";
+
+        private volatile CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public void execute(Task task) throws InterruptedException {
+            release.await();
+        }
+
+        @Override
+        public String getTaskType() {
+            return TYPE;
+        }
+
+        void hold() {
+            release = new CountDownLatch(1);
+        }
+
+        void releaseAll() {
+            release.countDown();
+        }
+    }
+}
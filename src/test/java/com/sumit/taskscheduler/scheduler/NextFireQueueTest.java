@@ -0,0 +1,145 @@
+package com.sumit.taskscheduler.scheduler;
+
+import com.sumit.taskscheduler.entity.Task;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NextFireQueueTest {
+
+    private final NextFireQueue queue = new NextFireQueue();
+
+    @Test
+    void takesDueTasksInFireTimeOrder() throws InterruptedException {
+        long now = System.currentTimeMillis();
+        Task late = task(1);
+        Task early = task(2);
+        Task middle = task(3);
+        queue.schedule(late, now - 10);
+        queue.schedule(early, now - 30);
+        queue.schedule(middle, now - 20);
+
+        assertSame(early, queue.takeDue());
+        assertSame(middle, queue.takeDue());
+        assertSame(late, queue.takeDue());
+    }
+
+    @Test
+    void equalFireTimesAreTakenInInsertionOrder() throws InterruptedException {
+        long fireAt = System.currentTimeMillis() - 10;
+        Task first = task(1);
+        Task second = task(2);
+        Task third = task(3);
+        queue.schedule(first, fireAt);
+        queue.schedule(second, fireAt);
+        queue.schedule(third, fireAt);
+
+        assertSame(first, queue.takeDue());
+        assertSame(second, queue.takeDue());
+        assertSame(third, queue.takeDue());
+    }
+
+    @Test
+    void rescheduleSkipsTheStaleEntry() throws InterruptedException {
+        long now = System.currentTimeMillis();
+        Task moved = task(1);
+        Task other = task(2);
+        queue.schedule(moved, now - 30);
+        queue.schedule(other, now - 20);
+        queue.schedule(moved, now - 10);
+
+        assertEquals(2, queue.size());
+        assertSame(other, queue.takeDue());
+        assertSame(moved, queue.takeDue());
+        assertNothingDue();
+    }
+
+    @Test
+    void removedTaskIsNeverTaken() throws InterruptedException {
+        long now = System.currentTimeMillis();
+        Task removed = task(1);
+        Task kept = task(2);
+        queue.schedule(removed, now - 20);
+        queue.schedule(kept, now - 10);
+        queue.remove(removed.getId());
+
+        assertEquals(1, queue.size());
+        assertSame(kept, queue.takeDue());
+        assertNothingDue();
+    }
+
+    @Test
+    void scheduleNextQueuesTheFollowingFireOfATakenTask() throws InterruptedException {
+        Task task = task(1);
+        queue.schedule(task, System.currentTimeMillis() - 10);
+        Task taken = queue.takeDue();
+
+        assertTrue(queue.scheduleNext(taken, System.currentTimeMillis() - 5));
+        assertSame(task, queue.takeDue());
+    }
+
+    @Test
+    void scheduleNextKeepsChangesMadeWhileTheTaskWasDispatched() throws InterruptedException {
+        Task removed = task(1);
+        Task updated = task(2);
+        queue.schedule(removed, System.currentTimeMillis() - 20);
+        queue.schedule(updated, System.currentTimeMillis() - 10);
+        Task takenRemoved = queue.takeDue();
+        Task takenUpdated = queue.takeDue();
+
+        queue.remove(removed.getId());
+        Task updatedCopy = task(2);
+        queue.schedule(updatedCopy, System.currentTimeMillis() + 60_000);
+
+        assertFalse(queue.scheduleNext(takenRemoved, System.currentTimeMillis()));
+        assertFalse(queue.scheduleNext(takenUpdated, System.currentTimeMillis()));
+        assertEquals(1, queue.size());
+        assertNothingDue();
+    }
+
+    @Test
+    void earlierInsertWakesABlockedTaker() throws Exception {
+        queue.schedule(task(1), System.currentTimeMillis() + 60_000);
+        CompletableFuture<Task> taken = CompletableFuture.supplyAsync(() -> {
+            try {
+                return queue.takeDue();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Thread.sleep(50);
+        assertFalse(taken.isDone());
+
+        Task urgent = task(2);
+        queue.schedule(urgent, System.currentTimeMillis() + 20);
+
+        assertSame(urgent, taken.get(2, TimeUnit.SECONDS));
+    }
+
+    private void assertNothingDue() throws InterruptedException {
+        Thread taker = Thread.currentThread();
+        CompletableFuture<Void> interrupt = CompletableFuture.runAsync(taker::interrupt,
+                CompletableFuture.delayedExecutor(50, TimeUnit.MILLISECONDS));
+        try {
+            queue.takeDue();
+            throw new AssertionError("no task should be due");
+        } catch (InterruptedException expected) {
+            // takeDue() kept waiting, nothing left to fire
+        } finally {
+            interrupt.join();
+            Thread.interrupted();
+        }
+    }
+
+    private static Task task(long id) {
+        Task task = new Task();
+        task.setId(id);
+        return task;
+    }
+}
@@ -0,0 +1,48 @@
+package com.sumit.taskscheduler.scheduler;
+
+import com.sumit.taskscheduler.dto.CreateTaskRequest;
+import com.sumit.taskscheduler.repository.TaskExecutionHistoryRepository;
+import com.sumit.taskscheduler.service.TaskService;
+import com.sumit.taskscheduler.support.CleanDatabaseExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// The poller of this context runs for real, so the context is closed before other tests use the database
+@SpringBootTest(properties = {"scheduler.poll-initial-delay-ms=0", "scheduler.poll-interval-ms=600000"})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+// Plain deletes: the running scheduler keeps updating the task, which would fail a versioned deleteAll()
+@ExtendWith(CleanDatabaseExtension.class)
+class PollingWakeUpTest {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskExecutionHistoryRepository historyRepository;
+
+    @Test
+    void newTaskRunsWithoutWaitingForThePollInterval() throws Exception {
+        long taskId = taskService.createTask(
+                new CreateTaskRequest("every-second", null, "* * * ? * *", "HEALTH_CHECK",
+                        "HIGH", 0, null, "SKIP", "FIRE_ONCE")).getId();
+
+        // Not paused afterwards: the pause could race the execution's own update of the task
+        assertTrue(awaitExecution(taskId, 5000), "task should run long before the 10 minute poll interval");
+    }
+
+    private boolean awaitExecution(long taskId, long timeoutMs) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        while (System.currentTimeMillis() < deadline) {
+            if (!historyRepository.findTop10ByTaskIdOrderByExecutionTimeDesc(taskId).isEmpty()) {
+                return true;
+            }
+            Thread.sleep(50);
+        }
+        return false;
+    }
+}
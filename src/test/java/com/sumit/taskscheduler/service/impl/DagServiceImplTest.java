@@ -0,0 +1,88 @@
+package com.sumit.taskscheduler.service.impl;
+
+import com.sumit.taskscheduler.dag.DagCoordinator;
+import com.sumit.taskscheduler.entity.Task;
+import com.sumit.taskscheduler.repository.SchedulerLockRepository;
+import com.sumit.taskscheduler.repository.TaskRepository;
+import com.sumit.taskscheduler.service.DagService;
+import com.sumit.taskscheduler.support.SchedulerDataTest;
+import com.sumit.taskscheduler.support.TestTasks;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+@SchedulerDataTest
+@Import({DagServiceImpl.class, DagCoordinator.class, SchedulerLockRepository.class})
+class DagServiceImplTest {
+
+    private static final int ROUNDS = 20;
+
+    @Autowired
+    private DagService dagService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Test
+    void concurrentAdditionsCannotCloseACycle() throws Exception {
+        long a = task("a");
+        long b = task("b");
+        long c = task("c");
+        long d = task("d");
+        // b -> c and d -> a; adding a -> b and c -> d together would close a -> b -> c -> d -> a
+        dagService.addDependency(c, b);
+        dagService.addDependency(a, d);
+
+        ExecutorService threads = Executors.newFixedThreadPool(2);
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                CyclicBarrier start = new CyclicBarrier(2);
+                Future<?> aToB = threads.submit(() -> {
+                    start.await();
+                    return dagService.addDependency(b, a);
+                });
+                Future<?> cToD = threads.submit(() -> {
+                    start.await();
+                    return dagService.addDependency(d, c);
+                });
+
+                List<Throwable> failures = new ArrayList<>();
+                for (Future<?> addition : List.of(aToB, cToD)) {
+                    try {
+                        addition.get(30, TimeUnit.SECONDS);
+                    } catch (ExecutionException e) {
+                        failures.add(e.getCause());
+                    }
+                }
+                assertEquals(1, failures.size(), "exactly one of the two additions must be refused in round " + round);
+                assertInstanceOf(IllegalArgumentException.class, failures.getFirst());
+
+                // Back to the starting graph for the next round
+                if (dagService.getDependencies(b).getUpstreamTaskIds().contains(a)) {
+                    dagService.removeDependency(b, a);
+                } else {
+                    dagService.removeDependency(d, c);
+                }
+            }
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+
+    private long task(String name) {
+        return taskRepository.save(TestTasks.hourly(name, LocalDateTime.now().plusHours(1))).getId();
+    }
+}
@@ -0,0 +1,42 @@
+package com.sumit.taskscheduler.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TaskCursorTest {
+
+    @Test
+    void cursorsRoundTripInBothSortOrders() {
+        TaskCursor byTime = new TaskCursor(LocalDateTime.of(2026, 3, 1, 9, 30, 15, 123_000_000), 42);
+        TaskCursor byId = new TaskCursor(null, 42);
+
+        assertEquals(byTime, TaskCursor.decode(byTime.encode(), true));
+        assertEquals(byId, TaskCursor.decode(byId.encode(), false));
+        // Opaque and URL-safe
+        assertFalse(byTime.encode().matches(".*[+/=|:].*"));
+    }
+
+    @Test
+    void malformedOrMismatchedCursorsAreRejected() {
+        String byTime = new TaskCursor(LocalDateTime.of(2026, 3, 1, 9, 30), 42).encode();
+        String byId = new TaskCursor(null, 42).encode();
+
+        assertThrows(IllegalArgumentException.class, () -> TaskCursor.decode(byTime, false));
+        assertThrows(IllegalArgumentException.class, () -> TaskCursor.decode(byId, true));
+        assertThrows(IllegalArgumentException.class, () -> TaskCursor.decode("not base64!", false));
+        assertThrows(IllegalArgumentException.class, () -> TaskCursor.decode(encode("abc"), false));
+        assertThrows(IllegalArgumentException.class, () -> TaskCursor.decode(encode("yesterday|42"), true));
+        assertThrows(IllegalArgumentException.class, () -> TaskCursor.decode(encode("2026-03-01T09:30|x"), true));
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,116 @@
+package com.sumit.taskscheduler.service.impl;
+
+import com.sumit.taskscheduler.dto.CursorPage;
+import com.sumit.taskscheduler.dto.TaskResponse;
+import com.sumit.taskscheduler.entity.Task;
+import com.sumit.taskscheduler.repository.TaskRepository;
+import com.sumit.taskscheduler.support.CleanDatabaseExtension;
+import com.sumit.taskscheduler.support.TestTasks;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Keyset pages and streams of tasks, over more tasks than one stream batch and with many fire time ties
+ */
+@SpringBootTest(properties = "scheduler.poll-initial-delay-ms=3600000")
+@ExtendWith(CleanDatabaseExtension.class)
+class TaskServiceImplListingTest {
+
+    private static final int TASK_COUNT = 1203;
+    private static final LocalDateTime BASE = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+
+    @Autowired
+    private TaskServiceImpl taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    private List<Task> tasks;
+
+    @BeforeEach
+    void createTasks() {
+        List<Task> unsaved = TestTasks.hourly("task", TASK_COUNT, BASE);
+        for (int i = 0; i < unsaved.size(); i++) {
+            // Only seven distinct fire times, and in a different order from the ids
+            unsaved.get(i).setNextExecutionTime(BASE.plusMinutes(6 - i % 7));
+            unsaved.get(i).setStatus(i % 5 == 0 ? "PAUSED" : "ACTIVE");
+        }
+        tasks = taskRepository.saveAll(unsaved);
+    }
+
+    @Test
+    void pagesByIdCoverEveryTaskOnceInIdOrder() {
+        assertEquals(ids(tasks, null, false), pageThrough(null, "id", 100));
+        assertEquals(ids(tasks, "PAUSED", false), pageThrough("PAUSED", null, 100));
+    }
+
+    @Test
+    void pagesByFireTimeBreakTiesById() {
+        assertEquals(ids(tasks, null, true), pageThrough(null, "nextExecutionTime", 100));
+        // Pages ending inside a run of equal fire times must neither repeat nor skip tasks
+        assertEquals(ids(tasks, "ACTIVE", true), pageThrough("ACTIVE", "nextExecutionTime", 37));
+    }
+
+    @Test
+    void streamsMatchThePagedOrder() {
+        assertEquals(ids(tasks, null, false), stream(null, "id"));
+        assertEquals(ids(tasks, null, true), stream(null, "nextExecutionTime"));
+        assertEquals(ids(tasks, "PAUSED", true), stream("PAUSED", "nextExecutionTime"));
+    }
+
+    @Test
+    void invalidRequestsAreRejected() {
+        String byIdCursor = taskService.getTasksAfter(null, "id", null, 10).getNextCursor();
+
+        assertThrows(IllegalArgumentException.class, () -> taskService.getTasksAfter(null, "nextExecutionTime", byIdCursor, 10));
+        assertThrows(IllegalArgumentException.class, () -> taskService.getTasksAfter(null, "id", "%%%", 10));
+        assertThrows(IllegalArgumentException.class, () -> taskService.getTasksAfter(null, "name", null, 10));
+        assertThrows(IllegalArgumentException.class, () -> taskService.getTasksAfter(null, "id", null, 0));
+        assertThrows(IllegalArgumentException.class, () -> taskService.getTasksAfter(null, "id", null, 1001));
+    }
+
+    private List<Long> pageThrough(String status, String sort, int size) {
+        List<Long> ids = new ArrayList<>();
+        String after = null;
+        do {
+            CursorPage<TaskResponse> page = taskService.getTasksAfter(status, sort, after, size);
+            page.getItems().forEach(task -> ids.add(task.getId()));
+            if (page.getNextCursor() == null) {
+                // Only a short page is the last one
+                assertTrue(page.getItems().size() < size);
+            }
+            after = page.getNextCursor();
+        } while (after != null);
+        return ids;
+    }
+
+    private List<Long> stream(String status, String sort) {
+        List<Long> ids = new ArrayList<>();
+        taskService.streamTasks(status, sort, task -> ids.add(task.getId()));
+        return ids;
+    }
+
+    private static List<Long> ids(List<Task> tasks, String status, boolean byNextExecutionTime) {
+        Comparator<Task> order = byNextExecutionTime
+                ? Comparator.comparing(Task::getNextExecutionTime).thenComparing(Task::getId)
+                : Comparator.comparing(Task::getId);
+        return tasks.stream()
+                .filter(task -> status == null || status.equals(task.getStatus()))
+                .sorted(order)
+                .map(Task::getId)
+                .toList();
+    }
+}
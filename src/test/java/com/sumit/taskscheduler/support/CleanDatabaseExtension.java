@@ -0,0 +1,22 @@
+package com.sumit.taskscheduler.support;
+
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.List;
+
+/**
+ * Delete the rows of every table after each test, after the test's own @AfterEach methods
+ */
+public class CleanDatabaseExtension implements AfterEachCallback {
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        JdbcTemplate jdbcTemplate = SpringExtension.getApplicationContext(context).getBean(JdbcTemplate.class);
+        List<String> tables = jdbcTemplate.queryForList("SELECT table_name FROM information_schema.tables " +
+                "WHERE table_schema = CURRENT_SCHEMA AND table_type = 'BASE TABLE'", String.class);
+        tables.forEach(table -> jdbcTemplate.execute("DELETE FROM " + table));
+    }
+}
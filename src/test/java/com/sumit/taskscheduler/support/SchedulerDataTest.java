@@ -0,0 +1,40 @@
+package com.sumit.taskscheduler.support;
+
+import com.sumit.taskscheduler.config.SchedulerProperties;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.core.annotation.AliasFor;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Test of scheduler components against the embedded database.
+ *
+ * Tests run outside a test transaction, so the code under test commits like it does in production
+ * and concurrent threads see each other's writes; every table is emptied after each test instead.
+ * Add the components under test with {@code @Import}.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Inherited
+@DataJpaTest
+@EnableConfigurationProperties(SchedulerProperties.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ExtendWith(CleanDatabaseExtension.class)
+public @interface SchedulerDataTest {
+
+    /**
+     * Properties in key=value form added to the environment of the test
+     */
+    @AliasFor(annotation = DataJpaTest.class)
+    String[] properties() default {};
+}
@@ -0,0 +1,39 @@
+package com.sumit.taskscheduler.support;
+
+import com.sumit.taskscheduler.entity.Task;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Unsaved tasks for tests; callers set whatever else their test is about
+ */
+public final class TestTasks {
+
+    private TestTasks() {
+    }
+
+    /**
+     * An hourly DEFAULT task next due at the given time
+     */
+    public static Task hourly(String name, LocalDateTime nextExecutionTime) {
+        Task task = new Task();
+        task.setName(name);
+        task.setCronExpression("0 0 * * * ?");
+        task.setTaskType("DEFAULT");
+        task.setNextExecutionTime(nextExecutionTime);
+        return task;
+    }
+
+    /**
+     * Hourly tasks named prefix-0 to prefix-(count - 1), all next due at the given time
+     */
+    public static List<Task> hourly(String prefix, int count, LocalDateTime nextExecutionTime) {
+        List<Task> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            tasks.add(hourly(prefix + "-" + i, nextExecutionTime));
+        }
+        return tasks;
+    }
+}
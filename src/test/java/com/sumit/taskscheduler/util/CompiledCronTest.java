@@ -0,0 +1,63 @@
+package com.sumit.taskscheduler.util;
+
+import org.junit.jupiter.api.Test;
+import org.quartz.CronExpression;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.TimeZone;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CompiledCronTest {
+
+    private static final List<String> EXPRESSIONS = List.of(
+            "0 0 * * * ?",
+            "0 0 0 * * ?",
+            "0 0 9 ? * *",
+            "0 */15 * ? * *",
+            "0 0 0 ? * 2",
+            "0 0 0 1 * ?",
+            "*/10 * * * * ?",
+            "30 5/20 9-17 ? * MON-FRI",
+            "0 0 12 29 2 ?",
+            "0 0 0 31 * ?",
+            "15,45 10 3 ? JAN,JUL SUN"
+    );
+
+    @Test
+    void matchesQuartzForRandomStartTimes() throws Exception {
+        Random random = new Random(42);
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+        for (String expression : EXPRESSIONS) {
+            CronExpression quartz = new CronExpression(expression);
+            quartz.setTimeZone(TimeZone.getTimeZone("UTC"));
+            CompiledCron compiled = CompiledCron.compile(expression);
+
+            for (int i = 0; i < 500; i++) {
+                LocalDateTime from = base.plusSeconds(random.nextInt(4 * 365 * 24 * 3600))
+                        .plusNanos(random.nextInt(1_000_000_000));
+                Date expected = quartz.getNextValidTimeAfter(Date.from(from.toInstant(ZoneOffset.UTC)));
+
+                assertEquals(LocalDateTime.ofInstant(expected.toInstant(), ZoneOffset.UTC), compiled.next(from),
+                        expression + " after " + from);
+            }
+        }
+    }
+
+    @Test
+    void computesSeveralFireTimesInOnePass() throws Exception {
+        List<LocalDateTime> fireTimes = CompiledCron.compile("0 */15 * ? * *")
+                .next(LocalDateTime.of(2024, 3, 1, 10, 7, 30), 4);
+
+        assertEquals(List.of(
+                LocalDateTime.of(2024, 3, 1, 10, 15),
+                LocalDateTime.of(2024, 3, 1, 10, 30),
+                LocalDateTime.of(2024, 3, 1, 10, 45),
+                LocalDateTime.of(2024, 3, 1, 11, 0)), fireTimes);
+    }
+}